@@ -0,0 +1,61 @@
+package flappybird;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Measures the cost of testing the bird against a pipe.
+ * The primitive tests in Collision are compared with the java.awt.Rectangle
+ * version the game originally used, which allocated three rectangles per test.
+ * Run with -prof gc to see the difference in allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    private static final int CASES = 1024;  // Power of two, so the case index can be masked
+
+    private final int[] birdYs = new int[CASES];
+    private final int[] pipeXs = new int[CASES];
+    private final int[] heights = new int[CASES];
+    private int next;
+
+    @Setup
+    public void createCases() {
+        Random random = new Random(42);
+        for (int i = 0; i < CASES; i++) {
+            birdYs[i] = random.nextInt(GameEngine.GROUND_Y);
+            pipeXs[i] = random.nextInt(GameEngine.WIDTH + Pipe.WIDTH) - Pipe.WIDTH;
+            heights[i] = random.nextInt(GameEngine.HEIGHT - Pipe.GAP);
+        }
+    }
+
+    @Benchmark
+    public boolean primitive() {
+        int i = next++ & (CASES - 1);
+        return Collision.hitsPipe(GameEngine.BIRD_X, birdYs[i], pipeXs[i], heights[i]);
+    }
+
+    @Benchmark
+    public boolean rectangles() {
+        int i = next++ & (CASES - 1);
+        Rectangle bird = new Rectangle(GameEngine.BIRD_X, birdYs[i], Bird.SIZE, Bird.SIZE);
+        Rectangle top = new Rectangle(pipeXs[i], 0, Pipe.WIDTH, heights[i]);
+        Rectangle bottom = new Rectangle(pipeXs[i], Pipe.bottomY(heights[i]), Pipe.WIDTH, Pipe.bottomHeight(heights[i]));
+        return bird.intersects(top) || bird.intersects(bottom);
+    }
+
+    @Benchmark
+    public void primitiveAllCases(Blackhole blackhole) {
+        for (int i = 0; i < CASES; i++) {
+            blackhole.consume(Collision.hitsPipe(GameEngine.BIRD_X, birdYs[i], pipeXs[i], heights[i]));
+        }
+    }
+}
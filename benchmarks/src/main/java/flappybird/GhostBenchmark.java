@@ -0,0 +1,89 @@
+package flappybird;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Measures drawing a frame of ghosts, without a display. A race of recorded
+ * games (made like ReplayTool ghosts) is played along, and its ghosts are drawn
+ * into a 500x500 BufferedImage either batched by GhostRenderer or one translucent
+ * drawImage per ghost. The frame budget at 60 fps is 16.7 ms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GhostBenchmark {
+
+    @Param({"100", "500"})
+    public int ghosts;
+
+    private Path archive;
+    private GhostRace race;
+    private GhostRenderer renderer;
+    private Image bird;
+    private Composite translucent;
+    private int[] ys;
+    private BufferedImage image;
+    private Graphics2D g2d;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void createRace() throws IOException {
+        Assets.preload();
+        archive = Files.createTempFile("ghosts", ".fbr");
+        Files.delete(archive);
+        ReplayTool.ghosts(archive, ghosts, 7, 3_000);
+        race = GhostRace.open(archive, ghosts);
+        renderer = new GhostRenderer();
+        bird = Assets.scaled(Assets.BIRD, Bird.SIZE, Bird.SIZE);
+        translucent = AlphaComposite.SrcOver.derive(GhostRenderer.GHOST_ALPHA);
+        ys = new int[race.size()];
+        image = new BufferedImage(GameEngine.WIDTH, GameEngine.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g2d = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() throws IOException {
+        g2d.dispose();
+        Files.deleteIfExists(archive);
+    }
+
+    @Benchmark
+    public BufferedImage batched() {
+        advance();
+        renderer.draw(g2d, race);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage eachGhost() {
+        advance();
+        int visible = race.visibleYs(ys);
+        Composite composite = g2d.getComposite();
+        g2d.setComposite(translucent);
+        for (int i = 0; i < visible; i++) {
+            g2d.drawImage(bird, GameEngine.BIRD_X, ys[i], null);
+        }
+        g2d.setComposite(composite);
+        return image;
+    }
+
+    /*
+     * Plays the race one more tick, starting over once the first 1,000 ticks have been drawn.
+     */
+    private void advance() {
+        tick = tick == 1_000 ? 0 : tick + 1;
+        race.advanceTo(tick);
+    }
+}
@@ -0,0 +1,38 @@
+package flappybird;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Measures the cost of the pipe life cycle: spawning a pipe at the right edge,
+ * scrolling it across the screen and freeing its slot once it is off-screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipeSpawnBenchmark {
+
+    private final PipeStore pipes = new PipeStore();
+    private int height;
+
+    @Benchmark
+    public int spawnAndRecycle() {
+        pipes.spawn(GameEngine.WIDTH, height);
+        height = (height + 37) % (GameEngine.HEIGHT - Pipe.GAP);
+        pipes.removeOldest();
+        return pipes.size();
+    }
+
+    @Benchmark
+    public int scrollOnePipeAcrossTheScreen() {
+        pipes.spawn(GameEngine.WIDTH, height);
+        while (!Pipe.offScreen(pipes.x(0))) {
+            pipes.moveAll(-Pipe.SPEED);
+        }
+        pipes.removeOldest();
+        return pipes.size();
+    }
+}
@@ -0,0 +1,46 @@
+package flappybird;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Measures the time to advance a whole population of birds by one tick with
+ * PopulationSimulator. The birds follow the gap with spread-out offsets, so the
+ * population thins out over a game; it is restarted on a new course once most of
+ * it has died, which keeps the measured tick close to a full population.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int birds;
+
+    private PopulationSimulator population;
+    private int[] offsets;
+    private boolean[] flaps;
+    private long seed = 1;
+
+    @Setup(Level.Trial)
+    public void createPopulation() {
+        population = new PopulationSimulator(birds, seed);
+        offsets = new int[birds];
+        for (int i = 0; i < birds; i++) {
+            offsets[i] = i % (Pipe.GAP / 2) - Pipe.GAP / 4;
+        }
+        flaps = new boolean[birds];
+    }
+
+    @Benchmark
+    public int step() {
+        if (population.getAliveCount() < birds / 2) {
+            population.reset(++seed);
+        }
+        population.followGap(offsets, flaps);
+        return population.step(flaps);
+    }
+}
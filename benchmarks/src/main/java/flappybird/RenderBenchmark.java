@@ -0,0 +1,78 @@
+package flappybird;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Measures the cost of drawing a frame, without a display.
+ * GamePanel.paint (paintComponent plus the score label and position bar) and
+ * GameRenderer.render, with the still and the parallax background, are drawn
+ * into a 500x500 BufferedImage. The engine is advanced a little between frames
+ * so the bird and pipes move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+
+    private final FlapPolicy policy = FlapPolicy.followGap();
+    private GamePanel panel;
+    private GameRenderer renderer;
+    private GameRenderer parallaxRenderer;
+    private BufferedImage image;
+    private Graphics2D g2d;
+
+    @Setup
+    public void createPanel() {
+        Assets.preload();
+        panel = new GamePanel(); // Never started, so its timer never runs
+        panel.setSize(GameEngine.WIDTH, GameEngine.HEIGHT);
+        panel.doLayout();
+        renderer = new GameRenderer();
+        parallaxRenderer = new GameRenderer();
+        parallaxRenderer.setParallax(true);
+        image = new BufferedImage(GameEngine.WIDTH, GameEngine.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g2d = image.createGraphics();
+    }
+
+    @TearDown
+    public void dispose() {
+        g2d.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintPanel() {
+        advance();
+        panel.paint(g2d);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage renderScene() {
+        advance();
+        renderer.render(g2d, panel.getEngine(), GameEngine.WIDTH, GameEngine.HEIGHT);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage renderSceneParallax() {
+        advance();
+        parallaxRenderer.render(g2d, panel.getEngine(), GameEngine.WIDTH, GameEngine.HEIGHT);
+        return image;
+    }
+
+    /*
+     * Steps the engine once, unless the bird has already died.
+     */
+    private void advance() {
+        GameEngine engine = panel.getEngine();
+        if (!engine.isGameOver()) {
+            engine.step(policy.shouldFlap(engine));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package flappybird;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+ * Measures how many game ticks per second the engine can simulate.
+ * One tick is GameEngine.step(): Bird.update, movePipes and checkCollisions.
+ * The bird is played by the follow-gap policy, so sessions last long and
+ * every part of the tick (flaps, pipe spawns, scoring) is exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+    private final FlapPolicy policy = FlapPolicy.followGap();
+    private GameEngine engine;
+    private long seed;
+
+    @Setup(Level.Iteration)
+    public void newGame() {
+        engine = new GameEngine(seed++);
+    }
+
+    @Benchmark
+    public boolean step() {
+        if (engine.isGameOver()) {
+            newGame();
+        }
+        return engine.step(policy.shouldFlap(engine));
+    }
+
+    @Benchmark
+    public boolean stepWithoutFlapping() {
+        if (engine.isGameOver()) {
+            newGame();
+        }
+        return engine.step(false);
+    }
+}
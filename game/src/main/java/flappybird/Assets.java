@@ -0,0 +1,218 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.imageio.ImageIO;
+
+/*
+ * Central registry for the game's images and sounds.
+ *
+ * Every sprite is decoded once, converted to the pixel format of the screen (so
+ * drawing it does not need a format conversion) and then shared by everyone who
+ * asks for it. Scaled versions, such as the 30x30 bird, are also made once and
+ * cached, so drawing a frame never scales an image. The top and bottom sections
+ * of the pipes are kept in tables of their own, one entry per height a pipe can
+ * have, since there are more of those than the cache of scaled images holds.
+ *
+ * Files are looked up first on the classpath under /assets/ and then in the
+ * assets directory next to the working directory, which is where they are shipped.
+ */
+public final class Assets {
+
+    static final String BIRD = "bird.png";
+    static final String PIPE = "pipe.png";
+    static final String PIPE_FLIPPED = "pipeflipped.png";
+    static final String TITLE = "title.jpg";
+    static final String START_BUTTON = "startImage.png";
+    static final String CLICK_SOUND = "click.wav";
+
+    private static final String[] SPRITES = {BIRD, PIPE, PIPE_FLIPPED, TITLE, START_BUTTON};
+    private static final int MAX_SCALED = 256;  // Most scaled variants kept at once (pipe sections are not among them)
+    private static final int MAX_PIPE_HEIGHT = GameEngine.HEIGHT - Pipe.GAP;  // Tallest top section a pipe can have
+
+    private static final Map<String, BufferedImage> images = new ConcurrentHashMap<>();  // Decoded sprites by name
+    private static final Map<String, BufferedImage> scaled = new LinkedHashMap<>(64, 0.75f, true) {  // Scaled sprites, least recently used first
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+            return size() > MAX_SCALED;
+        }
+    };
+    private static final AtomicReferenceArray<BufferedImage> pipeTops = new AtomicReferenceArray<>(MAX_PIPE_HEIGHT + 1);  // Top section by pipe height
+    private static final AtomicReferenceArray<BufferedImage> pipeBottoms = new AtomicReferenceArray<>(MAX_PIPE_HEIGHT + 1);  // Bottom section by pipe height
+
+    private Assets() {
+    }
+
+    /*
+     * Decodes every sprite the game uses, so later requests never touch the disk.
+     */
+    public static void preload() {
+        for (String name : SPRITES) {
+            image(name);
+        }
+    }
+
+    /*
+     * Decodes every sprite the game uses on the given executor, one task per
+     * sprite so they are decoded in parallel, and completes once all of them are
+     * ready (or with the first error). Each task's CPU time is added to the
+     * startup report.
+     */
+    public static CompletableFuture<Void> preload(Executor executor) {
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[SPRITES.length];
+        for (int i = 0; i < SPRITES.length; i++) {
+            String name = SPRITES[i];
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                long start = StartupReport.threadCpuNanos();
+                // Not computeIfAbsent: a long decode in there would block other sprites in the same bin
+                if (!images.containsKey(name)) {
+                    images.putIfAbsent(name, load(name));
+                }
+                StartupReport.shared().addWork(StartupReport.Phase.IMAGES, start);
+            }, executor);
+        }
+        return CompletableFuture.allOf(tasks);
+    }
+
+    /*
+     * Gets the shared, screen-compatible copy of an image, decoding it on first use.
+     */
+    public static BufferedImage image(String name) {
+        BufferedImage image = images.get(name);
+        if (image == null) {
+            image = images.computeIfAbsent(name, Assets::load);
+        }
+        return image;
+    }
+
+    /*
+     * Gets a shared copy of an image scaled to width x height, scaling it on first use.
+     * Returns null when either size is not positive, since there is nothing to draw.
+     */
+    public static BufferedImage scaled(String name, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        String key = name + '@' + width + 'x' + height;
+        synchronized (scaled) {
+            BufferedImage image = scaled.get(key);
+            if (image == null) {
+                image = scale(image(name), width, height);
+                scaled.put(key, image);
+            }
+            return image;
+        }
+    }
+
+    /*
+     * Gets the shared top (flipped) section of a pipe of the given height, scaling
+     * it on first use, or null for a pipe without one.
+     */
+    public static BufferedImage pipeTop(int height) {
+        return pipeSection(pipeTops, PIPE_FLIPPED, height, height);
+    }
+
+    /*
+     * Gets the shared bottom section of a pipe of the given height, scaling it on
+     * first use, or null for a pipe without one.
+     */
+    public static BufferedImage pipeBottom(int height) {
+        return pipeSection(pipeBottoms, PIPE, height, Pipe.bottomHeight(height));
+    }
+
+    /*
+     * Looks up a pipe section in its table by pipe height. If two threads scale
+     * the same section at once, both get the one stored first. Heights no pipe
+     * of the game has fall back to the cache of scaled images.
+     */
+    private static BufferedImage pipeSection(AtomicReferenceArray<BufferedImage> table, String name, int height, int sectionHeight) {
+        if (height < 0 || height > MAX_PIPE_HEIGHT) {
+            return scaled(name, Pipe.WIDTH, sectionHeight);
+        }
+        BufferedImage image = table.get(height);
+        if (image == null && sectionHeight > 0) {
+            table.compareAndSet(height, null, scale(image(name), Pipe.WIDTH, sectionHeight));
+            image = table.get(height);
+        }
+        return image;
+    }
+
+    /*
+     * Finds the location of an asset file, or returns null if it cannot be found.
+     */
+    public static URL url(String name) {
+        URL url = Assets.class.getResource("/assets/" + name);
+        if (url == null) {
+            url = Assets.class.getResource("/" + name);
+        }
+        if (url == null) {
+            File file = new File("assets", name);
+            if (file.isFile()) {
+                try {
+                    url = file.toURI().toURL();
+                } catch (MalformedURLException e) {
+                    url = null;
+                }
+            }
+        }
+        return url;
+    }
+
+    /*
+     * Decodes an image and converts it to the screen's format.
+     */
+    private static BufferedImage load(String name) {
+        URL url = url(name);
+        if (url == null) {
+            throw new IllegalStateException("Missing asset: " + name);
+        }
+        try {
+            BufferedImage decoded = ImageIO.read(url);
+            if (decoded == null) {
+                throw new IllegalStateException("Unreadable asset: " + name);
+            }
+            BufferedImage image = createCompatible(decoded.getWidth(), decoded.getHeight(), decoded.getTransparency());
+            Graphics2D g2d = image.createGraphics();
+            g2d.drawImage(decoded, 0, 0, null);
+            g2d.dispose();
+            return image;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load asset: " + name, e);
+        }
+    }
+
+    /*
+     * Scales an image once, with the same default interpolation that drawImage uses when it scales.
+     */
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage image = createCompatible(width, height, source.getTransparency());
+        Graphics2D g2d = image.createGraphics();
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return image;
+    }
+
+    /*
+     * Creates an empty image in the format of the default screen, or a plain RGB
+     * (opaque) or ARGB image when there is no screen.
+     */
+    static BufferedImage createCompatible(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(width, height, transparency);
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        return new BufferedImage(width, height, type);
+    }
+}
@@ -0,0 +1,63 @@
+package flappybird;
+
+import java.awt.GraphicsEnvironment;
+
+/*
+ * Plays the game's sound effects.
+ *
+ * The game uses a single shared engine. On a machine with a display and a working
+ * sound device it is a MixingAudioEngine, which decodes every effect once and
+ * mixes them on its own thread. Headless runs, and machines without a usable
+ * audio line, get a SilentAudioEngine instead, which accepts the same calls and
+ * does nothing.
+ */
+public interface AudioEngine extends AutoCloseable {
+
+    /*
+     * Starts playing an effect. Never blocks the caller, so it is safe to call on the EDT.
+     */
+    void play(SoundEffect effect);
+
+    /*
+     * Returns a one-line summary of how long triggered effects took to reach the audio line.
+     */
+    String latencySummary();
+
+    /*
+     * Stops playback and releases the audio line.
+     */
+    @Override
+    void close();
+
+    /*
+     * Gets the engine shared by the whole game, creating it on first use.
+     */
+    static AudioEngine shared() {
+        return Holder.SHARED;
+    }
+
+    /*
+     * Creates a mixing engine, or a silent one when there is no display or no audio line.
+     */
+    static AudioEngine create() {
+        if (GraphicsEnvironment.isHeadless() || Boolean.getBoolean("flappybird.silent")) {
+            return new SilentAudioEngine();
+        }
+        try {
+            return new MixingAudioEngine(MixingAudioEngine.DEFAULT_MAX_VOICES);
+        } catch (IllegalStateException e) {
+            System.err.println("Audio disabled: " + e.getMessage());
+            return new SilentAudioEngine();
+        }
+    }
+
+    /*
+     * Lazily creates the shared engine the first time it is asked for.
+     */
+    final class Holder {
+        private static final AudioEngine SHARED = create();
+
+        private Holder() {
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package flappybird;
+
+/*
+ * A FlapPolicy that plays perfectly: on every tick it searches the tree of flap
+ * and no-flap decisions over the game's exact physics for a way through every
+ * pipe that has spawned, and flaps when that way does.
+ *
+ * The search steps the bird like Bird.update, in the same fixed point at the
+ * engine's SimulationRate, moves the pipes by the whole pixels the course scrolls
+ * on each step and tests the bird's 30x30 box with Collision, so a path it finds
+ * is a path the game plays. The bird may flap on every 20 ms tick, which at a
+ * finer rate is every hz / 50th step, so the tree is as deep at any rate. The
+ * search looks as far ahead as the pipes are known: up to the horizon, the last
+ * step before the next pipe to spawn could reach the bird. That pipe spawns more
+ * than a screen away, so the bird has room to get to its gap once it is known,
+ * and the search runs again when it spawns.
+ *
+ * The search is depth first and tries the move towards the middle of the next gap
+ * first, so it rarely has to backtrack. Every state it finds with no way through
+ * to the horizon goes into a transposition table keyed on the bird's height,
+ * speed and whether it has started, and the tick. Within a game the tick fixes
+ * the pipe offsets, and a later horizon is only further away, so an entry holds
+ * for every later search of the same game. The table has a fixed size and a new
+ * state replaces one of an earlier tick, so it never needs clearing. The path
+ * found is kept as the plan, and the bird follows it without searching until a
+ * new pipe moves the horizon; the next search then tries the plan first.
+ *
+ * Each decision has a time budget, at most a quarter of a step, and the search
+ * looks at the clock every few nodes. A search that runs out of time stops where
+ * it is, and what it proved about dead states stays in the table for the next
+ * tick's search to build on. Meanwhile the bird keeps following its plan, which
+ * still gets it to the old horizon, or otherwise makes the move towards the gap
+ * unless that leads to a state known to be dead. The budget bounds the search,
+ * not the thread: the first searches run in the interpreter, and a compile, a GC
+ * pause or the OS scheduling another thread can still stretch a decision past
+ * it. warmUp() plays a throwaway game first so that the JIT has compiled the
+ * search before the first real decision, and the path and plan arrays are sized
+ * up front so that a decision allocates nothing.
+ *
+ * An autopilot keeps the state of the game it plays, so it drives one engine at
+ * a time, from one thread.
+ */
+public final class Autopilot implements FlapPolicy {
+
+    static final long DEFAULT_BUDGET_NANOS = 2_000_000L;  // Search time per decision, a tenth of a 20 ms tick
+    private static final int CLOCK_INTERVAL = 8;  // Nodes searched between two looks at the clock
+    private static final int TABLE_SLOTS = 1 << 17;  // Slots of the table of dead states
+    private static final int INITIAL_MOVES = 512;  // Moves to the horizon the path arrays hold from the start, more than any rate needs
+    private static final long WARM_UP_TICKS = 20_000;  // 20 ms ticks played by warmUp
+
+    private static final int FOUND = 0;  // The search reached the horizon
+    private static final int NO_PATH = 1;  // Every path dies before the horizon
+    private static final int CUT_SHORT = 2;  // The search ran out of time
+
+    private final long budgetNanos;  // Most time a decision may take
+
+    // The game being played
+    private GameEngine engine;  // Engine of the last decision, or null
+    private int game;  // Number of games played, which tells the table's states of each game apart
+    private long seed;  // Seed of its game
+    private SimulationRate rate;  // Rate its physics is stepped at
+    private int interval;  // Steps from one move to the next
+    private long tick;  // Tick of the current decision
+    private int horizon;  // Steps from the current tick to the horizon
+    private int moves;  // Moves from the current tick to the horizon
+    private int pipeCount;  // Pipes in play the bird has not passed yet
+    private int[] pipeX = new int[4];  // Their x-coordinates at the current tick
+    private int[] pipeHeight = new int[4];  // Their heights
+    private int remainder;  // Distance the course has scrolled past the last whole pixel, in 1/hz of a pixel
+    private int[] shifts = new int[0];  // Pixels the pipes have moved after each step from the current tick, sized for the rate by look()
+
+    // The path being searched: the state before each move and the move made
+    private int[] ys = new int[INITIAL_MOVES + 1];  // Fixed-point y-coordinate
+    private int[] velocities = new int[INITIAL_MOVES + 1];  // Fixed-point shifted velocity
+    private boolean[] started = new boolean[INITIAL_MOVES + 1];  // Whether the bird has flapped
+    private boolean[] flaps = new boolean[INITIAL_MOVES + 1];  // Whether the move is a flap
+    private byte[] tried = new byte[INITIAL_MOVES + 1];  // Number of moves tried from the state
+
+    // The last path found, from planTick
+    private long planTick;  // Tick of its first move
+    private long planEnd;  // Tick of the horizon it gets the bird to
+    private int planLength;  // Number of moves, 0 if there is no plan
+    private int[] planYs = new int[INITIAL_MOVES + 1];
+    private int[] planVelocities = new int[INITIAL_MOVES + 1];
+    private boolean[] planStarted = new boolean[INITIAL_MOVES + 1];
+    private boolean[] planFlaps = new boolean[INITIAL_MOVES + 1];
+
+    // Transposition table of states with no way through to the horizon, in buckets of two slots.
+    // It has a fixed size and entries of another game never match, so it never fills up or needs clearing
+    private final int[] tableGames = new int[TABLE_SLOTS];  // Game of each state, 0 for a free slot
+    private final long[] tableKeys = new long[TABLE_SLOTS];  // Tick and started flag
+    private final int[] tableYs = new int[TABLE_SLOTS];
+    private final int[] tableVelocities = new int[TABLE_SLOTS];
+
+    // Statistics
+    private long decisions;  // Calls to shouldFlap on the tick of a move
+    private long planned;  // Decisions taken from the plan without searching
+    private long searches;  // Searches started
+    private long cutShort;  // Searches that ran out of time
+    private long noPath;  // Searches that proved the bird cannot reach the horizon
+    private long nodes;  // Moves tried by all searches
+    private long searchNanos;  // Time spent searching
+    private long lookups;  // Lookups in the table
+    private long hits;  // Lookups that found a dead state
+    private final LatencyHistogram decisionTimes = new LatencyHistogram();  // Time taken by each decision
+
+    /*
+     * Creates an autopilot with the default time budget.
+     */
+    public Autopilot() {
+        this(DEFAULT_BUDGET_NANOS);
+    }
+
+    /*
+     * Creates an autopilot that spends at most budgetNanos on each decision (and
+     * never more than a quarter of a step of the engine it plays).
+     */
+    public Autopilot(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("time budget must be positive: " + budgetNanos);
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    /*
+     * Plays throwaway games at the given rate, long enough for the JIT to compile
+     * the search, and then forgets them and their statistics. Call it before the
+     * first real game, off the thread that will tick it, so that no real decision
+     * runs in the interpreter.
+     */
+    public void warmUp(SimulationRate rate) {
+        long played = 0;
+        for (long seed = 1; played < WARM_UP_TICKS; seed++) {
+            GameEngine warmUpGame = new GameEngine(seed, rate);
+            long maxSteps = (WARM_UP_TICKS - played) * rate.hz / SimulationRate.BASE_HZ;
+            while (!warmUpGame.isGameOver() && warmUpGame.getTick() < maxSteps) {
+                warmUpGame.step(shouldFlap(warmUpGame));
+            }
+            played += Math.max(1, rate.toBaseTicks(warmUpGame.getTick()));
+        }
+        engine = null;  // The next decision starts a new game
+        decisions = 0;
+        planned = 0;
+        searches = 0;
+        cutShort = 0;
+        noPath = 0;
+        nodes = 0;
+        searchNanos = 0;
+        lookups = 0;
+        hits = 0;
+        decisionTimes.reset();
+    }
+
+    @Override
+    public boolean shouldFlap(GameEngine engine) {
+        if (engine.getTick() % interval(engine.getRate()) != 0) {
+            return false; // Between two moves
+        }
+        long start = System.nanoTime();
+        look(engine);
+        boolean flap;
+        int move = planMove(0);
+        if (move >= 0 && planEnd >= tick + horizon) {
+            planned++;
+            flap = planFlaps[move];
+        } else {
+            int result = search(start + Math.min(budgetNanos, rate.stepNanos / 4));
+            if (result == FOUND) {
+                keepPlan();
+                flap = flaps[0];
+            } else if (move >= 0) {
+                flap = planFlaps[move]; // The plan still gets the bird to the old horizon
+            } else {
+                flap = fallback();
+            }
+        }
+        decisions++;
+        decisionTimes.record(System.nanoTime() - start);
+        return flap;
+    }
+
+    /*
+     * Gets the number of steps from one move to the next at the given rate. The
+     * bird can flap on every 20 ms tick, or as near as the rate allows; letting it
+     * flap on every step of a finer rate would make the tree of moves that much
+     * deeper without opening up any real way through the pipes.
+     */
+    private static int interval(SimulationRate rate) {
+        return Math.max(1, rate.hz / SimulationRate.BASE_HZ);
+    }
+
+    /*
+     * Takes in the state of the engine at its current tick: the bird, the pipes it
+     * has not passed and the horizon. Forgets the plan and the table when the
+     * engine plays another game.
+     */
+    private void look(GameEngine engine) {
+        if (engine != this.engine || engine.getSeed() != seed || engine.getTick() < tick || engine.getRate() != rate) {
+            this.engine = engine;
+            seed = engine.getSeed();
+            rate = engine.getRate();
+            interval = interval(rate);
+            planLength = 0;
+            game++;
+            if (shifts.length < (INITIAL_MOVES + 1) * interval) {
+                shifts = new int[(INITIAL_MOVES + 1) * interval];  // Once per rate, so searches never grow it
+            }
+        }
+        tick = engine.getTick();
+
+        PipeStore pipes = engine.getPipes();
+        pipeCount = pipes.size() - engine.getNextPipe();
+        if (pipeCount > pipeX.length) {
+            pipeX = new int[pipeCount];
+            pipeHeight = new int[pipeCount];
+        }
+        for (int i = 0; i < pipeCount; i++) {
+            pipeX[i] = pipes.x(engine.getNextPipe() + i);
+            pipeHeight[i] = pipes.height(engine.getNextPipe() + i);
+        }
+
+        // A step scrolls the course by Pipe.SPEED * BASE_HZ / hz pixels, and the fraction is carried over (see PipeCourse)
+        int perStep = Pipe.SPEED * SimulationRate.BASE_HZ;
+        remainder = (int) (tick * perStep % rate.hz);
+        // The next pipe spawns PIPE_SPACING after the newest one and reaches the bird once it has moved
+        // more than distance pixels, which the course has scrolled after ceil(((distance + 1) * hz - remainder) / perStep) steps
+        int distance = pipes.x(pipes.size() - 1) + PipeCourse.PIPE_SPACING - (GameEngine.BIRD_X + Bird.SIZE);
+        horizon = ((distance + 1) * rate.hz - remainder + perStep - 1) / perStep - 1;
+        moves = (horizon + interval - 1) / interval;
+        if (moves + 1 > ys.length) {
+            int capacity = Math.max(moves + 1, ys.length * 2);
+            ys = new int[capacity];
+            velocities = new int[capacity];
+            started = new boolean[capacity];
+            flaps = new boolean[capacity];
+            tried = new byte[capacity];
+        }
+
+        Bird bird = engine.getBird();
+        ys[0] = bird.getFixedY();
+        velocities[0] = bird.getFixedVelocity();
+        started[0] = bird.isStarted();
+    }
+
+    /*
+     * Gets the move of the plan for the state at depth, or -1 if the plan does not
+     * cover it or the bird is not where the plan put it.
+     */
+    private int planMove(int depth) {
+        long step = tick + (long) depth * interval - planTick;
+        if (step < 0 || step % interval != 0 || step / interval >= planLength) {
+            return -1;
+        }
+        int i = (int) (step / interval);
+        return planYs[i] == ys[depth] && planVelocities[i] == velocities[depth] && planStarted[i] == started[depth] ? i : -1;
+    }
+
+    /*
+     * Searches depth first for a path from the current state to the horizon, until
+     * the deadline. On FOUND the path's moves are in flaps.
+     */
+    private int search(long deadline) {
+        long start = System.nanoTime();
+        searches++;
+        if (horizon + 1 > shifts.length) {
+            shifts = new int[Math.max(horizon + 1, shifts.length * 2)];
+        }
+        for (int step = 0; step <= horizon; step++) {
+            shifts[step] = (remainder + step * Pipe.SPEED * SimulationRate.BASE_HZ) / rate.hz;
+        }
+        int clock = CLOCK_INTERVAL;
+        int depth = 0;
+        tried[0] = 0;
+        int result;
+        while (true) {
+            if (depth == moves) {
+                result = FOUND;
+                break;
+            }
+            if (tried[depth] == 2) {
+                // Neither move gets through from this state
+                if (depth == 0) {
+                    result = NO_PATH;
+                    noPath++;
+                    break;
+                }
+                remember(depth);
+                depth--;
+                continue;
+            }
+            boolean flap = tried[depth]++ == 0 ? preferred(depth) : !flaps[depth];
+            flaps[depth] = flap;
+            nodes++;
+            if (--clock == 0) {
+                clock = CLOCK_INTERVAL;
+                if (System.nanoTime() - deadline >= 0) {
+                    result = CUT_SHORT;
+                    cutShort++;
+                    break;
+                }
+            }
+            if (advance(depth, flap) && !isDead(depth + 1)) {
+                depth++;
+                tried[depth] = 0;
+            }
+        }
+        searchNanos += System.nanoTime() - start;
+        return result;
+    }
+
+    /*
+     * Works out the state after the move at depth, stepping the bird like
+     * GameEngine.step up to the next move or the horizon. Returns false if the
+     * bird dies on the way.
+     */
+    private boolean advance(int depth, boolean flap) {
+        int y = ys[depth];
+        int velocity = velocities[depth];
+        boolean isStarted = started[depth];
+        if (flap) {
+            isStarted = true;
+            velocity = rate.flapVelocity;
+        }
+        int last = Math.min((depth + 1) * interval, horizon);
+        for (int step = depth * interval + 1; step <= last; step++) {
+            if (isStarted) {
+                y += velocity + rate.halfGravity;
+                velocity += rate.gravity;
+            }
+            if (y < 0) {
+                y = 0;
+                velocity = rate.restVelocity;
+            }
+            int birdY = y / rate.unit;
+            for (int i = 0; i < pipeCount; i++) {
+                if (Collision.hitsPipe(GameEngine.BIRD_X, birdY, pipeX[i] - shifts[step], pipeHeight[i])) {
+                    return false;
+                }
+            }
+            if (Collision.hitsGround(birdY)) {
+                return false;
+            }
+        }
+        ys[depth + 1] = y;
+        velocities[depth + 1] = velocity;
+        started[depth + 1] = isStarted;
+        return true;
+    }
+
+    /*
+     * Gets the move to try first at depth: the plan's if the path is still on it,
+     * otherwise a flap if the bird is falling below the middle of the next gap or
+     * has not started yet.
+     */
+    private boolean preferred(int depth) {
+        int move = planMove(depth);
+        if (move >= 0) {
+            return planFlaps[move];
+        }
+        int target = GameEngine.HEIGHT / 2;
+        int shift = shifts[depth * interval];
+        for (int i = 0; i < pipeCount; i++) {
+            if (!Collision.passed(GameEngine.BIRD_X, pipeX[i] - shift)) {
+                target = pipeHeight[i] + Pipe.GAP / 2;
+                break;
+            }
+        }
+        // A bird that has not started stays where it is, so it is started right away
+        return !started[depth] || velocities[depth] >= rate.restVelocity && ys[depth] / rate.unit + Bird.SIZE / 2 > target;
+    }
+
+    /*
+     * Picks a move without a path to the horizon: the preferred one, unless it
+     * dies right away or leads to a dead state.
+     */
+    private boolean fallback() {
+        boolean flap = preferred(0);
+        return advance(0, flap) && !isDead(1) ? flap : !flap;
+    }
+
+    /*
+     * Keeps the path just found as the plan.
+     */
+    private void keepPlan() {
+        if (planYs.length < moves) {
+            int capacity = ys.length;
+            planYs = new int[capacity];
+            planVelocities = new int[capacity];
+            planStarted = new boolean[capacity];
+            planFlaps = new boolean[capacity];
+        }
+        System.arraycopy(ys, 0, planYs, 0, moves);
+        System.arraycopy(velocities, 0, planVelocities, 0, moves);
+        System.arraycopy(started, 0, planStarted, 0, moves);
+        System.arraycopy(flaps, 0, planFlaps, 0, moves);
+        planTick = tick;
+        planEnd = tick + horizon;
+        planLength = moves;
+    }
+
+    /*
+     * Returns whether the state at depth is in the table of dead states.
+     */
+    private boolean isDead(int depth) {
+        lookups++;
+        long key = key(tick + (long) depth * interval, started[depth]);
+        int y = ys[depth];
+        int velocity = velocities[depth];
+        int bucket = bucket(key, y, velocity);
+        for (int slot = bucket; slot < bucket + 2; slot++) {
+            if (tableGames[slot] == game && tableKeys[slot] == key && tableYs[slot] == y && tableVelocities[slot] == velocity) {
+                hits++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Adds the state at depth to the table of dead states. It goes into a slot of
+     * its bucket that is free or holds a state of a tick gone by, and otherwise
+     * replaces the state of the earlier tick.
+     */
+    private void remember(int depth) {
+        long key = key(tick + (long) depth * interval, started[depth]);
+        int y = ys[depth];
+        int velocity = velocities[depth];
+        int slot = bucket(key, y, velocity);
+        if (!isStale(slot) && (isStale(slot + 1) || tableKeys[slot + 1] < tableKeys[slot])) {
+            slot++;
+        }
+        tableGames[slot] = game;
+        tableKeys[slot] = key;
+        tableYs[slot] = y;
+        tableVelocities[slot] = velocity;
+    }
+
+    /*
+     * Returns whether a slot of the table is free or holds a state no search visits again.
+     */
+    private boolean isStale(int slot) {
+        return tableGames[slot] != game || tableKeys[slot] < key(tick, false);
+    }
+
+    private static long key(long tick, boolean started) {
+        return tick << 1 | (started ? 1 : 0);
+    }
+
+    private static int bucket(long key, int y, int velocity) {
+        long hash = key * 0x9E3779B97F4A7C15L ^ y * 0xC2B2AE3D27D4EB4FL ^ velocity;
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & TABLE_SLOTS - 2;
+    }
+
+    /*
+     * Gets the number of decisions made.
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /*
+     * Gets the number of moves tried by all searches.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /*
+     * Gets the number of moves tried per second of searching.
+     */
+    public double getNodesPerSecond() {
+        return searchNanos == 0 ? 0 : nodes * 1e9 / searchNanos;
+    }
+
+    /*
+     * Gets the fraction of lookups in the transposition table that found a dead state.
+     */
+    public double getCacheHitRate() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /*
+     * Gets the number of searches that ran out of time.
+     */
+    public long getCutShort() {
+        return cutShort;
+    }
+
+    /*
+     * Gets the number of searches that found no way to the horizon.
+     */
+    public long getNoPath() {
+        return noPath;
+    }
+
+    /*
+     * Gets the time taken by each decision.
+     */
+    public LatencyHistogram getDecisionTimes() {
+        return decisionTimes;
+    }
+
+    /*
+     * Returns a line with the statistics of every decision made so far.
+     */
+    public String summary() {
+        return String.format("decisions=%d planned=%.1f%% searches=%d nodes=%d nodes/s=%,.0f cacheHits=%.1f%% (%d of %d)"
+                        + " cutShort=%d noPath=%d decision %s",
+                decisions, decisions == 0 ? 0 : 100.0 * planned / decisions, searches, nodes, getNodesPerSecond(),
+                100 * getCacheHitRate(), hits, lookups, cutShort, noPath, decisionTimes.summary());
+    }
+}
@@ -0,0 +1,122 @@
+package flappybird;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+ * Command-line tool that plays the Autopilot headlessly.
+ *
+ * reference plays seeded sessions at 50 Hz and appends their replays to an
+ * archive, as reference runs of perfect play: ReplayTool verify checks them and
+ * --ghosts races against them. stress plays long sessions, at any simulation
+ * rate, to check that the autopilot never dies and to measure how far its
+ * slowest decisions go over their time budget. Both warm the autopilot up
+ * first, as the game does. Both print the autopilot's statistics: nodes searched per second, the
+ * hit rate of its transposition table and the time taken per decision. Both exit
+ * with status 1 if the bird died in any session before maxTicks.
+ *
+ * Usage:
+ *   java -cp game/target/classes flappybird.AutopilotTool reference <archive> [sessions] [maxTicks] [seed] [budgetMicros]
+ *   java -cp game/target/classes flappybird.AutopilotTool stress [sessions] [maxTicks] [seed] [budgetMicros] [hz]
+ */
+public class AutopilotTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args[0].equals("reference") && args.length < 2) {
+            System.out.println("Usage: AutopilotTool reference <archive> [sessions] [maxTicks] [seed] [budgetMicros]"
+                    + " | stress [sessions] [maxTicks] [seed] [budgetMicros] [hz]");
+            System.exit(2);
+        }
+        int deaths;
+        if (args[0].equals("reference")) {
+            Path archive = Paths.get(args[1]);
+            int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+            long maxTicks = args.length > 3 ? Long.parseLong(args[3]) : 10_000;
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+            long budgetNanos = args.length > 5 ? Long.parseLong(args[5]) * 1_000 : Autopilot.DEFAULT_BUDGET_NANOS;
+            deaths = reference(archive, sessions, maxTicks, seed, budgetNanos);
+        } else if (args[0].equals("stress")) {
+            int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+            long maxTicks = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+            long budgetNanos = args.length > 4 ? Long.parseLong(args[4]) * 1_000 : Autopilot.DEFAULT_BUDGET_NANOS;
+            SimulationRate rate = SimulationRate.of(args.length > 5 ? Integer.parseInt(args[5]) : SimulationRate.BASE_HZ);
+            deaths = stress(sessions, maxTicks, seed, budgetNanos, rate);
+        } else {
+            System.out.println("Unknown command: " + args[0]);
+            System.exit(2);
+            return;
+        }
+        if (deaths > 0) {
+            System.exit(1);
+        }
+    }
+
+    /*
+     * Plays sessions seed, seed + 1, ... at 50 Hz and appends their replays to the
+     * archive. Returns the number of sessions the bird died in.
+     */
+    static int reference(Path archive, int sessions, long maxTicks, long seed, long budgetNanos) throws IOException {
+        Autopilot autopilot = new Autopilot(budgetNanos);
+        autopilot.warmUp(SimulationRate.BASE);
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameEngine engine = new GameEngine(seed);
+        engine.setRecorder(recorder);
+        int deaths = 0;
+        long ticks = 0;
+        long start = System.nanoTime();
+        try (ReplayWriter writer = ReplayWriter.append(archive)) {
+            for (int i = 0; i < sessions; i++) {
+                engine.reset(seed + i);
+                HeadlessRunner.play(engine, autopilot, maxTicks);
+                deaths += report(engine);
+                ticks += engine.getTick();
+                writer.write(recorder.finish(engine));
+            }
+        }
+        System.out.printf("Recorded %d replays to %s: %d ticks, %d deaths, %.2f s%n",
+                sessions, archive, ticks, deaths, (System.nanoTime() - start) / 1e9);
+        System.out.println(autopilot.summary());
+        return deaths;
+    }
+
+    /*
+     * Plays sessions seed, seed + 1, ... of up to maxTicks steps at the given rate
+     * with one autopilot. Returns the number of sessions the bird died in.
+     */
+    static int stress(int sessions, long maxTicks, long seed, long budgetNanos, SimulationRate rate) {
+        Autopilot autopilot = new Autopilot(budgetNanos);
+        autopilot.warmUp(rate);  // As the game does, so the times are those of a real game
+        int deaths = 0;
+        long ticks = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            GameEngine engine = new GameEngine(seed + i, rate);
+            HeadlessRunner.play(engine, autopilot, maxTicks);
+            deaths += report(engine);
+            ticks += engine.getTick();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("sessions=%d rate=%s ticks=%d deaths=%d elapsed=%.2f s ticks/s=%,.0f%n",
+                sessions, rate, ticks, deaths, seconds, ticks / seconds);
+        System.out.println(autopilot.summary());
+        LatencyHistogram times = autopilot.getDecisionTimes();
+        System.out.printf("Decisions: p99.9=%.1f us, slowest %.1f us (%.1f%% of a %.1f ms step)%n", times.percentile(0.999) / 1e3,
+                times.getMax() / 1e3, 100.0 * times.getMax() / rate.getStepNanos(), rate.getStepNanos() / 1e6);
+        return deaths;
+    }
+
+    /*
+     * Prints the session if the bird died in it. Returns 1 if it did, 0 otherwise.
+     */
+    private static int report(GameEngine engine) {
+        if (!engine.isGameOver()) {
+            return 0;
+        }
+        Bird bird = engine.getBird();
+        System.out.printf("Died: seed %d at tick %d, y=%d velocity=%d, score %d%n",
+                engine.getSeed(), engine.getTick(), bird.getY(), bird.getVelocity(), engine.getScore());
+        return 1;
+    }
+}
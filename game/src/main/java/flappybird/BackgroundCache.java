@@ -0,0 +1,117 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/*
+ * Keeps a pre-rendered image of each Scenery so that drawing the background of a
+ * frame costs a single drawImage call instead of dozens of shape fills.
+ *
+ * The images are VolatileImages compatible with the screen they are drawn to, so
+ * the blit can be hardware accelerated. They are painted again automatically when
+ * their contents are lost (for example after the display mode changes), when they
+ * are drawn to a different screen, or when the requested size changes. When no
+ * accelerated surface is available, an ordinary BufferedImage is used instead.
+ *
+ * One cache is shared by every screen, and drawing may happen on the EDT or on the
+ * active-rendering loop thread, so draw() is synchronized.
+ */
+public class BackgroundCache {
+
+    private static final BackgroundCache SHARED = new BackgroundCache();
+
+    private final Image[] images = new Image[Scenery.values().length];  // Cached image of each scene
+    private final GraphicsConfiguration[] configs = new GraphicsConfiguration[images.length];  // Configuration each image was made for
+
+    /*
+     * Gets the cache shared by all screens of the game.
+     */
+    public static BackgroundCache shared() {
+        return SHARED;
+    }
+
+    /*
+     * Draws the given scene with its top-left corner at (0, 0), covering width x height pixels.
+     */
+    public synchronized void draw(Graphics2D g2d, Scenery scenery, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        int index = scenery.ordinal();
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        Image image = images[index];
+        if (image == null || image.getWidth(null) != width || image.getHeight(null) != height || configs[index] != gc) {
+            image = create(scenery, gc, width, height);
+            images[index] = image;
+            configs[index] = gc;
+        }
+        if (!(image instanceof VolatileImage)) {
+            g2d.drawImage(image, 0, 0, null);
+            return;
+        }
+
+        VolatileImage volatileImage = (VolatileImage) image;
+        do {
+            int status = volatileImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                image = create(scenery, gc, width, height);
+                images[index] = image;
+                if (!(image instanceof VolatileImage)) {
+                    g2d.drawImage(image, 0, 0, null);
+                    return;
+                }
+                volatileImage = (VolatileImage) image;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                paint(volatileImage, scenery, width, height);
+            }
+            g2d.drawImage(volatileImage, 0, 0, null);
+        } while (volatileImage.contentsLost());
+    }
+
+    /*
+     * Drops every cached image, so the next draw paints the scenery again.
+     */
+    public synchronized void invalidate() {
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != null) {
+                images[i].flush();
+            }
+            images[i] = null;
+            configs[i] = null;
+        }
+    }
+
+    /*
+     * Creates and paints a new image of the scene, accelerated when the configuration allows it.
+     */
+    private static Image create(Scenery scenery, GraphicsConfiguration gc, int width, int height) {
+        Image image = null;
+        if (gc != null) {
+            try {
+                image = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+            } catch (UnsupportedOperationException e) {
+                image = null; // Fall back to a plain image below
+            }
+        }
+        if (image == null) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        paint(image, scenery, width, height);
+        return image;
+    }
+
+    /*
+     * Paints the sky and the scene's shapes into the image.
+     */
+    private static void paint(Image image, Scenery scenery, int width, int height) {
+        Graphics2D g2d = (Graphics2D) image.getGraphics();
+        try {
+            g2d.setColor(Scenery.SKY);
+            g2d.fillRect(0, 0, width, height);
+            scenery.paint(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
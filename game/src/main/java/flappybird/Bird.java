@@ -0,0 +1,136 @@
+package flappybird;
+
+/*
+ * Represents the bird the player controls.
+ * This class only holds the bird's physical state (position, velocity and whether
+ * the game has started), so it can be simulated without a display. Drawing the
+ * bird is handled by GameRenderer.
+ *
+ * The position and speed are kept in fixed point and stepped at the engine's
+ * SimulationRate (see there for how a step follows the original 20 ms tick). The
+ * position before the last step is kept too, so a frame drawn between two steps
+ * can place the bird in between.
+ */
+public class Bird {
+
+    static final int GRAVITY = 1;  // Gravity force that pulls the bird down
+    static final int FLAP_STRENGTH = 9;  // The strength of the bird's flap
+    static final int SIZE = 30;  // Width and height of the bird's sprite and bounding box
+
+    private final SimulationRate rate;  // How often update() is called
+    private final int x;  // The x-coordinate of the bird
+    private int y;  // The y-coordinate of the bird, in fixed point
+    private int previousY;  // The y-coordinate before the last update, in fixed point
+    private int pixelY;  // The y-coordinate in whole pixels, rounded down
+    private int velocity;  // The bird's shifted velocity (see SimulationRate), in fixed point per step
+    private boolean gameStarted;  // Whether the game has started or not
+
+    /*
+     * Initializes the bird at a specific position on the screen.
+     * The bird starts at rest until the first flap.
+     */
+    public Bird(int x, int y) {
+        this(x, y, SimulationRate.BASE);
+    }
+
+    /*
+     * Initializes the bird at a specific position, to be updated at the given rate.
+     */
+    public Bird(int x, int y, SimulationRate rate) {
+        this.rate = rate;
+        this.x = x;
+        reset(y);
+    }
+
+    /*
+     * Puts the bird back at rest at the given height, as at the start of a game.
+     */
+    public void reset(int y) {
+        this.y = y * rate.unit;
+        this.pixelY = y;
+        this.previousY = this.y;
+        this.velocity = rate.restVelocity;
+        this.gameStarted = false;
+    }
+
+    /*
+     * Updates the bird's position based on its current velocity and gravity.
+     * This method moves the bird downward due to gravity and stops the bird at the top and bottom limits.
+     */
+    public void update() {
+        previousY = y;
+        if (gameStarted) {
+            y += velocity + rate.halfGravity; // Move for one step, including what gravity adds during it
+            velocity += rate.gravity; // Increase velocity due to gravity
+        }
+        // Prevent the bird from moving out of the top
+        if (y < 0) {
+            y = 0;
+            velocity = rate.restVelocity;
+        }
+        pixelY = y / rate.unit;
+    }
+
+    /*
+     * Makes the bird flap by resetting its velocity to move upward.
+     * If the game hasn't started yet, it will be marked as started.
+     */
+    public void flap() {
+        if (!gameStarted) {
+            gameStarted = true;
+        }
+        velocity = rate.flapVelocity;
+    }
+
+    /*
+     * Gets the x-coordinate of the bird.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /*
+     * Gets the y-coordinate of the bird.
+     */
+    public int getY() {
+        return pixelY;
+    }
+
+    /*
+     * Gets the y-coordinate the bird is drawn at when a frame is shown the given
+     * fraction (0 to 1) of the way from the last update to the next one: between
+     * where it was before the last update and where it is now.
+     */
+    public int getY(double alpha) {
+        return Math.floorDiv((int) (previousY + (y - previousY) * alpha), rate.unit);
+    }
+
+    /*
+     * Gets the bird's current vertical velocity (positive is downward), in pixels
+     * per 20 ms tick, rounded down.
+     */
+    public int getVelocity() {
+        return Math.floorDiv(velocity - rate.restVelocity, rate.velocityUnit);
+    }
+
+    /*
+     * Gets the y-coordinate of the bird in fixed point (see SimulationRate).
+     */
+    int getFixedY() {
+        return y;
+    }
+
+    /*
+     * Gets the bird's shifted velocity in fixed point per step (see SimulationRate).
+     */
+    int getFixedVelocity() {
+        return velocity;
+    }
+
+    /*
+     * Returns whether the bird has flapped at least once.
+     */
+    public boolean isStarted() {
+        return gameStarted;
+    }
+}
@@ -0,0 +1,67 @@
+package flappybird;
+
+/*
+ * Axis-aligned bounding box tests used by the game engine.
+ *
+ * Every test works on plain int coordinates, so checking a collision never
+ * creates a Rectangle or any other object. The rules are the same as those of
+ * java.awt.Rectangle, which the game originally used for its bounds.
+ */
+public final class Collision {
+
+    private Collision() {
+    }
+
+    /*
+     * Returns whether two rectangles overlap, with the same rules as
+     * java.awt.Rectangle.intersects (empty rectangles never overlap anything).
+     */
+    static boolean intersects(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        if (aw <= 0 || ah <= 0 || bw <= 0 || bh <= 0) {
+            return false;
+        }
+        return bx < ax + aw && by < ay + ah && ax < bx + bw && ay < by + bh;
+    }
+
+    /*
+     * Returns whether the point (px, py) lies inside a rectangle, with the same
+     * rules as java.awt.Rectangle.contains.
+     */
+    static boolean contains(int x, int y, int w, int h, int px, int py) {
+        if (w <= 0 || h <= 0) {
+            return false;
+        }
+        return px >= x && py >= y && px < x + w && py < y + h;
+    }
+
+    /*
+     * Returns whether the bird's 30x30 box at (birdX, birdY) touches either section
+     * of the pipe at pipeX whose top section is height pixels tall.
+     */
+    static boolean hitsPipe(int birdX, int birdY, int pipeX, int height) {
+        return intersects(birdX, birdY, Bird.SIZE, Bird.SIZE, pipeX, 0, Pipe.WIDTH, height)
+                || intersects(birdX, birdY, Bird.SIZE, Bird.SIZE, pipeX, Pipe.bottomY(height), Pipe.WIDTH, Pipe.bottomHeight(height));
+    }
+
+    /*
+     * Returns whether the bird has reached the ground.
+     */
+    static boolean hitsGround(int birdY) {
+        return birdY >= GameEngine.GROUND_Y;
+    }
+
+    /*
+     * Returns whether the bird at birdX has fully passed the pipe at pipeX.
+     * A passed pipe can no longer be hit, because pipes only move left.
+     */
+    static boolean passed(int birdX, int pipeX) {
+        return birdX > pipeX + Pipe.WIDTH;
+    }
+
+    /*
+     * Returns whether the pipe at pipeX is close enough, horizontally, to be hit by the bird at birdX.
+     */
+    static boolean inReach(int birdX, int pipeX) {
+        return pipeX < birdX + Bird.SIZE;
+    }
+}
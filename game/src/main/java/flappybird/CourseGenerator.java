@@ -0,0 +1,106 @@
+package flappybird;
+
+/*
+ * Picks the heights of the pipes of a course, one pipe at a time, and makes sure
+ * the bird can get through every one of them.
+ *
+ * Each height is drawn at random from the course's seed, as the game always did,
+ * and then checked with a Reachability analysis against where the bird can be by
+ * the time the pipe spawns. A pipe no flaps get through is repaired rather than
+ * drawn again: it is moved to the nearest height the bird can get through, so the
+ * random sequence and the rest of the course stay as they were. A course that
+ * needs no repair is exactly the course the seed always gave, so replays recorded
+ * before keep playing the same. Most checks are a lookup in the analysis's table,
+ * which makes them cheap enough to run on the tick a pipe spawns.
+ */
+public final class CourseGenerator {
+
+    private final Reachability reachability;  // Analysis of the pipe gap in use
+    private final SeededRandom random;  // Source of the pipe heights
+    private Reachability.Region reachable;  // Where the bird can be when the next pipe spawns
+    private int pipes;  // Pipes picked since the last reset
+    private int repaired;  // Pipes moved to a height the bird can get through
+    private int impossible;  // Pipes the bird could not get through at any height
+
+    /*
+     * Creates the generator of the course of the given seed, for the game's pipes.
+     */
+    public CourseGenerator(long seed) {
+        this(seed, Reachability.shared());
+    }
+
+    /*
+     * Creates the generator of the course of the given seed, checked with the given analysis.
+     */
+    public CourseGenerator(long seed, Reachability reachability) {
+        this.reachability = reachability;
+        this.random = new SeededRandom(seed);
+        reset(seed);
+    }
+
+    /*
+     * Restarts the course of the given seed.
+     */
+    public void reset(long seed) {
+        random.setSeed(seed);
+        reachable = reachability.start();
+        pipes = 0;
+        repaired = 0;
+        impossible = 0;
+    }
+
+    /*
+     * Picks the height of the top section of the next pipe.
+     * The height is chosen randomly within screen limits to ensure that the gap
+     * between the top and bottom pipes stays within playable space, then moved if
+     * the bird could not get through it.
+     */
+    public int nextHeight() {
+        int height = (int) (random.nextDouble() * reachability.heights);
+        Reachability.Region next = reachability.clear(reachable, height);
+        if (next == null) {
+            int repair = reachability.repair(reachable, height);
+            if (repair >= 0) {
+                height = repair;
+                next = reachability.clear(reachable, height);
+                repaired++;
+            } else {
+                // No pipe at all gets the bird through, so carry on as if it could be anywhere
+                next = reachability.anywhere();
+                impossible++;
+            }
+        }
+        reachable = next;
+        pipes++;
+        return height;
+    }
+
+    /*
+     * Gets the number of pipes picked since the last reset.
+     */
+    public int getPipes() {
+        return pipes;
+    }
+
+    /*
+     * Gets the number of pipes since the last reset that were moved so the bird can get through.
+     */
+    public int getRepaired() {
+        return repaired;
+    }
+
+    /*
+     * Gets the number of pipes since the last reset that the bird could not get
+     * through at any height.
+     */
+    public int getImpossible() {
+        return impossible;
+    }
+
+    /*
+     * Gets where the bird can be when the next pipe spawns.
+     */
+    Reachability.Region getReachable() {
+        return reachable;
+    }
+}
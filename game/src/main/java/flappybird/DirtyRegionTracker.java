@@ -0,0 +1,96 @@
+package flappybird;
+
+import java.awt.Rectangle;
+
+/*
+ * Works out which part of the game screen changed during a tick.
+ *
+ * Before the tick, capture() remembers where the bird and both sections of every
+ * pipe were drawn. After the tick, dirtyRegion() returns the union of those old
+ * bounds and the new ones: everything outside it looks exactly as it did, so
+ * only that rectangle needs to be repainted. The background never changes, so
+ * anything the sprites uncover is restored by repainting the area they left.
+ *
+ * The bounds are kept in primitive arrays, so tracking allocates nothing.
+ */
+public class DirtyRegionTracker {
+
+    private int birdY;  // y-coordinate of the bird before the tick
+    private final int[] pipeXs = new int[PipeStore.DEFAULT_CAPACITY];  // x-coordinate of each pipe before the tick
+    private final int[] pipeHeights = new int[PipeStore.DEFAULT_CAPACITY];  // Height of each pipe's top section
+    private int pipeCount;  // Number of pipes before the tick
+
+    // Union being built by dirtyRegion(), empty when minX >= maxX
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /*
+     * Remembers where the engine's sprites are drawn before the next tick.
+     */
+    public void capture(GameEngine engine) {
+        birdY = engine.getBird().getY();
+        PipeStore pipes = engine.getPipes();
+        pipeCount = Math.min(pipes.size(), pipeXs.length);
+        for (int i = 0; i < pipeCount; i++) {
+            pipeXs[i] = pipes.x(i);
+            pipeHeights[i] = pipes.height(i);
+        }
+    }
+
+    /*
+     * Stores in region the union of the sprite bounds captured before the tick and
+     * the sprite bounds now, clipped to an area of width x height pixels, and
+     * returns it. The region is empty (with negative size) if nothing visible moved.
+     */
+    public Rectangle dirtyRegion(GameEngine engine, int width, int height, Rectangle region) {
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        maxY = Integer.MIN_VALUE;
+
+        Bird bird = engine.getBird();
+        if (bird.getY() != birdY) {
+            add(bird.getX(), birdY, Bird.SIZE, Bird.SIZE);
+            add(bird.getX(), bird.getY(), Bird.SIZE, Bird.SIZE);
+        }
+        for (int i = 0; i < pipeCount; i++) {
+            addPipe(pipeXs[i], pipeHeights[i]);
+        }
+        PipeStore pipes = engine.getPipes();
+        for (int i = 0; i < pipes.size(); i++) {
+            addPipe(pipes.x(i), pipes.height(i));
+        }
+
+        int x = Math.max(0, minX);
+        int y = Math.max(0, minY);
+        int right = Math.min(width, maxX);
+        int bottom = Math.min(height, maxY);
+        if (right <= x || bottom <= y) {
+            // Negative sizes make Rectangle.add() take the other rectangle as is
+            region.setBounds(0, 0, -1, -1);
+        } else {
+            region.setBounds(x, y, right - x, bottom - y);
+        }
+        return region;
+    }
+
+    /*
+     * Adds the bounds of both sections of a pipe.
+     */
+    private void addPipe(int x, int height) {
+        add(x, 0, Pipe.WIDTH, height);
+        add(x, Pipe.bottomY(height), Pipe.WIDTH, Pipe.bottomHeight(height));
+    }
+
+    private void add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x + width);
+        maxY = Math.max(maxY, y + height);
+    }
+}
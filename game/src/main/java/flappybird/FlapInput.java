@@ -0,0 +1,116 @@
+package flappybird;
+
+/*
+ * Turns space bar events into flaps that are applied at a fixed point of the
+ * game tick, and measures how long each flap takes to reach the screen.
+ *
+ * The EDT calls pressed() and released() as key events arrive. A press is
+ * stamped with System.nanoTime(), moved back by however long the event waited
+ * before it was dispatched, and put in a lock-free InputQueue. Holding the key
+ * down does not flap again: presses while the key is down are key auto-repeat
+ * and are ignored, and so is a press that comes with the same event time as the
+ * release before it, which is how some platforms report auto-repeat.
+ *
+ * At the start of every tick the game thread calls takeFlap(), which drains
+ * the queue; any number of presses since the last tick make a single flap, since
+ * a flap just sets the bird's velocity. After the next frame has been shown the
+ * game thread calls framePresented(), which records the input-to-frame latency
+ * of the oldest press in that flap as PerfMonitor.Phase.INPUT_LATENCY. It ends
+ * when the frame is handed to the display, so the monitor's own refresh delay is
+ * not included.
+ */
+public class FlapInput {
+
+    private static final int CAPACITY = 64;  // Presses that can wait for one tick
+
+    private final InputQueue queue = new InputQueue(CAPACITY);
+    private final PerfMonitor monitor;  // Receives the input-to-frame latencies
+
+    // EDT state
+    private boolean keyDown;  // Whether the key is held down
+    private long lastReleaseWhen = Long.MIN_VALUE;  // Event time of the last release
+    private volatile long repeatsFiltered;  // Presses ignored as auto-repeat
+
+    // Game thread state
+    private long pendingInputNanos;  // Oldest press of the flap not shown yet, or 0
+
+    public FlapInput(PerfMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /*
+     * Handles a key press that the platform stamped with the given event time
+     * (KeyEvent.getWhen()). Called on the EDT.
+     */
+    public void pressed(long when) {
+        if (keyDown || when == lastReleaseWhen) {
+            keyDown = true;
+            repeatsFiltered++;
+            return;
+        }
+        keyDown = true;
+        long now = System.nanoTime();
+        long waitedMillis = Math.max(0, Math.min(1_000, System.currentTimeMillis() - when));
+        queue.offer(now - waitedMillis * 1_000_000L);
+    }
+
+    /*
+     * Handles a key release with the given event time. Called on the EDT.
+     */
+    public void released(long when) {
+        keyDown = false;
+        lastReleaseWhen = when;
+    }
+
+    /*
+     * Takes every press queued since the last tick. Returns whether the bird should
+     * flap on this tick. Called by the game thread at the start of a tick.
+     */
+    public boolean takeFlap() {
+        long stamp = queue.poll();
+        if (stamp == InputQueue.EMPTY) {
+            return false;
+        }
+        if (pendingInputNanos == 0) {
+            pendingInputNanos = stamp;
+        }
+        while (queue.poll() != InputQueue.EMPTY) {
+            // Further presses in the same tick are the same flap
+        }
+        return true;
+    }
+
+    /*
+     * Records the latency of the last flap once the first frame showing it has
+     * been handed to the display. Called by the game thread after each frame.
+     */
+    public void framePresented() {
+        if (pendingInputNanos != 0) {
+            monitor.record(PerfMonitor.Phase.INPUT_LATENCY, pendingInputNanos);
+            pendingInputNanos = 0;
+        }
+    }
+
+    /*
+     * Forgets every press that has not been applied yet, for example when a new game starts.
+     * Called by the game thread.
+     */
+    public void clear() {
+        queue.clear();
+        pendingInputNanos = 0;
+    }
+
+    /*
+     * Gets the number of presses that were ignored as key auto-repeat.
+     */
+    public long getRepeatsFiltered() {
+        return repeatsFiltered;
+    }
+
+    /*
+     * Gets the number of presses lost because too many arrived within one tick.
+     */
+    public long getDropped() {
+        return queue.getDropped();
+    }
+}
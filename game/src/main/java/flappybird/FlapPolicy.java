@@ -0,0 +1,46 @@
+package flappybird;
+
+/*
+ * Decides, once per tick, whether the bird should flap.
+ * Used to play the game without a keyboard, for example by HeadlessRunner
+ * when it simulates many sessions back to back.
+ */
+public interface FlapPolicy {
+
+    /*
+     * Returns true if the bird should flap on the next step of the given engine.
+     */
+    boolean shouldFlap(GameEngine engine);
+
+    /*
+     * A policy that never flaps. The bird stays at rest until the first pipe reaches it.
+     */
+    static FlapPolicy idle() {
+        return engine -> false;
+    }
+
+    /*
+     * A simple policy that flaps whenever the bird is falling below the middle
+     * of the gap of the next pipe it has not yet passed.
+     */
+    static FlapPolicy followGap() {
+        return followGap(10);
+    }
+
+    /*
+     * Like followGap(), but flaps once the middle of the bird is more than offset
+     * pixels below the middle of the gap, so different offsets play different games.
+     */
+    static FlapPolicy followGap(int offset) {
+        return engine -> {
+            Bird bird = engine.getBird();
+            int target = GameEngine.HEIGHT / 2;
+            PipeStore pipes = engine.getPipes();
+            int next = engine.getNextPipe();
+            if (next < pipes.size()) {
+                target = pipes.height(next) + Pipe.GAP / 2;
+            }
+            return bird.getVelocity() >= 0 && bird.getY() + Bird.SIZE / 2 > target + offset;
+        };
+    }
+}
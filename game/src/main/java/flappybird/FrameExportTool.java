@@ -0,0 +1,86 @@
+package flappybird;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+ * Command-line tool that turns a recorded game into frames, without a display
+ * and as fast as the encoders allow.
+ *
+ * Plays one replay of an archive (the first by default) tick by tick, captures
+ * every tick with a FrameExporter, waiting for the encoders rather than
+ * dropping frames, and writes an animated GIF if the output ends in .gif or
+ * otherwise a directory of PNG files. Prints the exporter's statistics and how
+ * many times faster than the game itself the frames were made, which makes it
+ * a handy way to attach a game from a bug report's --record archive as a GIF.
+ *
+ * Usage:
+ *   java -Djava.awt.headless=true -cp game/target/classes flappybird.FrameExportTool <archive> <out.gif|outDir> [replay] [encoders] [poolSize]
+ */
+public class FrameExportTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: FrameExportTool <archive> <out.gif|outDir> [replay] [encoders] [poolSize]");
+            System.exit(2);
+        }
+        Path archive = Paths.get(args[0]);
+        Path out = Paths.get(args[1]);
+        int index = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        int encoders = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, Runtime.getRuntime().availableProcessors());
+        int poolSize = args.length > 4 ? Integer.parseInt(args[4]) : 2 * encoders + 2;
+
+        Replay replay = read(archive, index);
+        if (replay == null) {
+            System.out.println(archive + " has no replay " + index);
+            System.exit(1);
+        }
+        GameRenderer renderer = new GameRenderer();
+        GameEngine engine = new GameEngine(replay.getSeed());
+        long start = System.nanoTime();
+        FrameExporter exporter = new FrameExporter(out, encoders, poolSize, false);
+        try {
+            export(replay, engine, renderer, exporter);
+        } finally {
+            exporter.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double gameSeconds = engine.getTick() / (double) SimulationRate.BASE_HZ;
+        System.out.printf("Exported replay %d (seed %d, %d ticks, score %d) to %s: %.1f s of game in %.2f s, %.1fx real time%n",
+                index, replay.getSeed(), engine.getTick(), engine.getScore(), out, gameSeconds, seconds, gameSeconds / seconds);
+        System.out.println(exporter.summary());
+    }
+
+    /*
+     * Reads the replay with the given index from an archive, or returns null if
+     * the archive has fewer replays.
+     */
+    private static Replay read(Path archive, int index) throws IOException {
+        try (ReplayReader reader = ReplayReader.open(archive)) {
+            Replay replay = reader.next();
+            for (int i = 0; i < index && replay != null; i++) {
+                replay = reader.next();
+            }
+            return replay;
+        }
+    }
+
+    /*
+     * Plays the replay like Replay.play, capturing the first state and the state
+     * after every tick.
+     */
+    private static void export(Replay replay, GameEngine engine, GameRenderer renderer, FrameExporter exporter) {
+        engine.reset(replay.getSeed());
+        exporter.capture(renderer, engine);
+        int next = 0;
+        while (!engine.isGameOver() && engine.getTick() < replay.getTicks()) {
+            boolean flap = next < replay.getFlapCount() && replay.getFlapTick(next) == engine.getTick();
+            if (flap) {
+                next++;
+            }
+            engine.step(flap);
+            exporter.capture(renderer, engine);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package flappybird;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.ImageIO;
+
+/*
+ * Saves frames of the game as a sequence of PNG files or as an animated GIF,
+ * encoding them on threads of its own so the thread playing the game only draws.
+ *
+ * capture() draws the scene (background, ghosts, bird and pipes) into one of a
+ * fixed pool of images and queues it for the encoder threads, which put the image
+ * back in the pool once it is written, so a long capture allocates no images after
+ * the first few frames. PNG frames go to files of their own and are encoded by
+ * all encoders at once. GIF frames are reduced to a shared palette by all encoders
+ * at once (see GifSequence), and whichever encoder holds the next frame in order
+ * appends it to the file.
+ *
+ * When every image of the pool is queued or being encoded, capture() either
+ * waits for one, so that no frame is lost, or drops the frame, so that a game
+ * being played never waits for the encoders. summary() reports the frames
+ * encoded per second and how much the encoders held back the capturing thread:
+ * the waits and the time spent in them, the frames dropped and the longest the
+ * queue got.
+ */
+public final class FrameExporter implements AutoCloseable {
+
+    static final int WIDTH = GameEngine.WIDTH;  // Size of a frame, the size of the playing field
+    static final int HEIGHT = GameEngine.HEIGHT;
+    static final int GIF_DELAY_CENTIS = 2;  // Each GIF frame is one 20 ms tick
+
+    /*
+     * An image of the pool, with what an encoder needs to know about the frame in it.
+     */
+    private static final class Frame {
+        final BufferedImage image;  // The scene, drawn by the capturing thread
+        final Graphics2D graphics;  // Draws into the image, used only by the capturing thread
+        BufferedImage indexed;  // The image reduced to the GIF's palette, created by the first encoder to need it
+        long index;  // Number of the frame in the capture, from 0
+
+        Frame(BufferedImage image) {
+            this.image = image;
+            this.graphics = image == null ? null : image.createGraphics();
+        }
+    }
+
+    private static final Frame END = new Frame(null);  // Tells an encoder to stop
+
+    private final Path target;  // Directory of the PNG files, or the GIF file
+    private final GifSequence gif;  // The GIF being written, or null when writing PNG files
+    private final boolean dropWhenFull;  // Whether capture() drops frames instead of waiting for an image
+    private final ArrayBlockingQueue<Frame> free;  // Images of the pool not queued or being encoded
+    private final ArrayBlockingQueue<Frame> queue;  // Frames waiting for an encoder, then one END per encoder
+    private final Thread[] encoders;  // The encoder threads
+    private final CountDownLatch paletteChosen = new CountDownLatch(1);  // Opened once frame 0 has chosen the GIF's palette
+    private final Frame[] ready;  // GIF frames reduced to the palette and waiting for the frames before them, by index
+    private long nextToWrite;  // Index of the next GIF frame to append, guarded by ready
+    private boolean writing;  // Whether an encoder is appending GIF frames, guarded by ready
+    private final AtomicReference<IOException> failure = new AtomicReference<>();  // First error of an encoder
+
+    private long captured;  // Frames queued, counted by the capturing thread
+    private long dropped;  // Frames dropped because the pool was empty
+    private long waits;  // Captures that waited for an image
+    private long waitNanos;  // Time those captures waited
+    private int maxQueued;  // Most frames queued at once
+    private long startNanos;  // When the first frame was captured
+    private volatile long endNanos;  // When the last frame was encoded, once closed
+    private final AtomicLong encoded = new AtomicLong();  // Frames written
+    private final AtomicLong encodeNanos = new AtomicLong();  // Time the encoders spent encoding
+    private boolean closed;  // Whether close() has been called, guarded by this
+
+    /*
+     * Starts an export to the target: an animated GIF if its name ends in .gif,
+     * and otherwise a directory of files frame-000000.png, frame-000001.png, ...
+     * poolSize images are drawn into in turn, and encoders threads encode them.
+     * When dropWhenFull, capture() drops frames instead of waiting for an image.
+     */
+    public FrameExporter(Path target, int encoders, int poolSize, boolean dropWhenFull) throws IOException {
+        if (encoders < 1 || poolSize < 1) {
+            throw new IllegalArgumentException("encoders and poolSize must be at least 1");
+        }
+        this.target = target;
+        this.dropWhenFull = dropWhenFull;
+        if (target.getFileName().toString().toLowerCase().endsWith(".gif")) {
+            gif = new GifSequence(target, GIF_DELAY_CENTIS);
+        } else {
+            gif = null;
+            Files.createDirectories(target);
+        }
+        free = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new Frame(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB)));
+        }
+        queue = new ArrayBlockingQueue<>(poolSize + encoders);  // Never full: the pool's frames and the ENDs
+        ready = new Frame[poolSize];
+        this.encoders = new Thread[encoders];
+        for (int i = 0; i < encoders; i++) {
+            Thread thread = new Thread(this::encode, "frame-encoder-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            this.encoders[i] = thread;
+        }
+    }
+
+    /*
+     * Starts an export with one encoder per core but one, leaving a core to the
+     * game, and two images per encoder and two more to draw into meanwhile.
+     */
+    public static FrameExporter open(Path target, boolean dropWhenFull) throws IOException {
+        int encoders = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new FrameExporter(target, encoders, 2 * encoders + 2, dropWhenFull);
+    }
+
+    /*
+     * Draws the current state of the engine with the renderer and queues it to be
+     * encoded. Must always be called from the same thread. Returns false if the
+     * frame was dropped because every image was in use.
+     */
+    public boolean capture(GameRenderer renderer, GameEngine engine) {
+        if (startNanos == 0) {
+            startNanos = System.nanoTime();
+        }
+        Frame frame = free.poll();
+        if (frame == null) {
+            if (dropWhenFull) {
+                dropped++;
+                return false;
+            }
+            long start = System.nanoTime();
+            try {
+                frame = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped++;
+                return false;
+            }
+            waits++;
+            waitNanos += System.nanoTime() - start;
+        }
+        renderer.render(frame.graphics, engine, WIDTH, HEIGHT);
+        frame.index = captured++;
+        queue.add(frame);
+        maxQueued = Math.max(maxQueued, queue.size());
+        return true;
+    }
+
+    /*
+     * Encodes the frames still queued, waits for the encoders to finish and closes
+     * the GIF. Throws the first error an encoder ran into, if any.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        for (int i = 0; i < encoders.length; i++) {
+            queue.add(END);
+        }
+        for (Thread encoder : encoders) {
+            try {
+                encoder.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        endNanos = System.nanoTime();
+        if (gif != null) {
+            if (encoded.get() == 0) {
+                failure.compareAndSet(null, new IOException("no frames were captured for " + target));
+            }
+            gif.close();
+        }
+        IOException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    public long getCaptured() {
+        return captured;
+    }
+
+    public long getEncoded() {
+        return encoded.get();
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getWaits() {
+        return waits;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /*
+     * Gets the frames encoded per second, from the first capture until close() or now.
+     */
+    public double getEncodedPerSecond() {
+        return encoded.get() / elapsedSeconds();
+    }
+
+    /*
+     * Describes the export in one line: frames captured, encoded and dropped, the
+     * rate of encoding, how busy the encoders were and how much they held back
+     * the capturing thread.
+     */
+    public String summary() {
+        double seconds = elapsedSeconds();
+        return String.format("frames=%d encoded=%d dropped=%d elapsed=%.2f s frames/s=%.1f encoders=%d busy=%.0f%%"
+                        + " queue max=%d of %d waits=%d waited=%.1f ms",
+                captured, encoded.get(), dropped, seconds, encoded.get() / seconds, encoders.length,
+                100.0 * encodeNanos.get() / 1e9 / seconds / encoders.length,
+                maxQueued, ready.length, waits, waitNanos / 1e6);
+    }
+
+    private double elapsedSeconds() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return Math.max(1e-9, (end - startNanos) / 1e9);
+    }
+
+    /*
+     * Body of an encoder thread: encodes queued frames until it takes an END.
+     * After an error the frames are no longer written but still go back to the
+     * pool, so the capturing thread is never left waiting.
+     */
+    private void encode() {
+        while (true) {
+            Frame frame;
+            try {
+                frame = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (frame == END) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                if (gif == null) {
+                    if (failure.get() == null) {
+                        writePng(frame);
+                        encoded.incrementAndGet();
+                    }
+                } else {
+                    quantize(frame);
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+            if (gif == null) {
+                free.add(frame);
+            } else {
+                appendInOrder(frame);
+            }
+            encodeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /*
+     * Records the first error of the encoders, to be thrown by close().
+     */
+    private void fail(Exception e) {
+        failure.compareAndSet(null, e instanceof IOException ? (IOException) e : new IOException(e));
+    }
+
+    private void writePng(Frame frame) throws IOException {
+        Path file = target.resolve(String.format("frame-%06d.png", frame.index));
+        if (!ImageIO.write(frame.image, "png", file.toFile())) {
+            throw new IOException("no PNG writer available");
+        }
+    }
+
+    /*
+     * Reduces a frame to the GIF's palette. Frame 0 chooses the palette; the
+     * frames after it wait until it has, and are skipped if it could not, since
+     * the GIF will not be written then.
+     */
+    private void quantize(Frame frame) {
+        if (frame.index == 0) {
+            try {
+                gif.choosePalette(frame.image);
+            } catch (RuntimeException e) {
+                fail(e); // Before the waiting encoders are let go, so they see it
+                throw e;
+            } finally {
+                paletteChosen.countDown();
+            }
+        } else {
+            try {
+                paletteChosen.await();
+            } catch (InterruptedException e) {
+                fail(new IOException("interrupted while waiting for the palette"));
+                return;
+            }
+            if (failure.get() != null) {
+                return;
+            }
+        }
+        if (frame.indexed == null) {
+            frame.indexed = gif.createIndexedImage(WIDTH, HEIGHT);
+        }
+        gif.quantize(frame.image, frame.indexed);
+    }
+
+    /*
+     * Hands over a frame reduced to the palette. If no other encoder is appending
+     * frames, appends this one and every frame after it that is ready, in order;
+     * otherwise leaves it to the encoder that is.
+     */
+    private void appendInOrder(Frame frame) {
+        synchronized (ready) {
+            ready[(int) (frame.index % ready.length)] = frame;
+            if (writing) {
+                return;
+            }
+            writing = true;
+        }
+        while (true) {
+            Frame next;
+            synchronized (ready) {
+                // At most the pool's frames are between the next to write and the last captured, so slots never clash
+                int slot = (int) (nextToWrite % ready.length);
+                next = ready[slot];
+                if (next == null || next.index != nextToWrite) {
+                    writing = false;
+                    return;
+                }
+                ready[slot] = null;
+                nextToWrite++;
+            }
+            try {
+                if (failure.get() == null) {
+                    gif.write(next.indexed);
+                    encoded.incrementAndGet();
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+            free.add(next);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package flappybird;
+
+/*
+ * Keeps track of how long each frame of the game loop spent updating the game
+ * and how long it spent rendering it. Values are averaged over a one-second
+ * window so they can be reported while the game is running.
+ *
+ * The loop thread records frames while other threads may read the averages,
+ * so the published values are volatile.
+ */
+public class FrameStats {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;  // Length of the averaging window
+
+    private long windowStart = System.nanoTime();  // Start of the current window
+    private int windowFrames;  // Frames recorded in the current window
+    private long windowUpdateNanos;  // Update time recorded in the current window
+    private long windowRenderNanos;  // Render time recorded in the current window
+
+    private volatile long lastUpdateNanos;  // Update time of the most recent frame
+    private volatile long lastRenderNanos;  // Render time of the most recent frame
+    private volatile double framesPerSecond;  // Frames rendered during the last complete window
+    private volatile double averageUpdateMicros;  // Mean update time during the last complete window
+    private volatile double averageRenderMicros;  // Mean render time during the last complete window
+
+    /*
+     * Records one frame. Returns true when a window has just been completed and
+     * the averages were refreshed.
+     */
+    public boolean record(long updateNanos, long renderNanos) {
+        lastUpdateNanos = updateNanos;
+        lastRenderNanos = renderNanos;
+        windowFrames++;
+        windowUpdateNanos += updateNanos;
+        windowRenderNanos += renderNanos;
+
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return false;
+        }
+        framesPerSecond = windowFrames * 1e9 / elapsed;
+        averageUpdateMicros = windowUpdateNanos / 1e3 / windowFrames;
+        averageRenderMicros = windowRenderNanos / 1e3 / windowFrames;
+        windowStart = now;
+        windowFrames = 0;
+        windowUpdateNanos = 0;
+        windowRenderNanos = 0;
+        return true;
+    }
+
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+
+    public long getLastRenderNanos() {
+        return lastRenderNanos;
+    }
+
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public double getAverageUpdateMicros() {
+        return averageUpdateMicros;
+    }
+
+    public double getAverageRenderMicros() {
+        return averageRenderMicros;
+    }
+
+    /*
+     * Returns a one-line summary of the last complete window.
+     */
+    public String summary() {
+        return String.format("fps=%.1f update=%.1f us render=%.1f us",
+                framesPerSecond, averageUpdateMicros, averageRenderMicros);
+    }
+}
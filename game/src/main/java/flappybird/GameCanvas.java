@@ -0,0 +1,439 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+
+/*
+ * The active-rendering version of the game screen.
+ * Instead of ticking from a javax.swing.Timer and asking Swing to repaint, a
+ * dedicated loop thread updates the game at a fixed tick and renders
+ * straight into a page-flipped BufferStrategy. Frames are paced with
+ * System.nanoTime() towards a target frame rate (or as fast as possible when
+ * the target is 0), and the time each frame spent updating and rendering is
+ * recorded in a FrameStats.
+ *
+ * The tick is 20 ms by default, or one step of the chosen SimulationRate, and
+ * does not depend on the frame rate. Each frame is drawn as far between the last
+ * tick and the next one as the time it is drawn at, so at 144 fps the game moves
+ * smoothly without being simulated any faster than its tick.
+ *
+ * Every frame is drawn at the game's logical 500x500 resolution into a
+ * LogicalScreen, which scales it to the canvas in a single copy, so the game
+ * fills a window (or screen) of any size.
+ *
+ * Since a Canvas is a heavyweight component, the score and the bird position
+ * bar are drawn by the canvas itself rather than by a JLabel and JProgressBar.
+ * The loop keeps running after game over to draw the overlay, and a restart
+ * resets the engine in place on the loop thread.
+ */
+public class GameCanvas extends Canvas implements KeyListener, GameScreen {
+
+    static final long TICK_NANOS = 20_000_000L;  // One 20 ms tick, the Swing timer's and the game server's
+    static final long MAX_CATCH_UP_NANOS = 5 * TICK_NANOS;  // Most game time simulated before a frame after a stall
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Color SCORE_COLOR = new Color(0, 100, 0);
+    private static final Color BAR_BACKGROUND = new Color(246, 255, 101);
+    private static final Color BAR_FOREGROUND = new Color(100, 100, 100);
+
+    private final int targetFps;  // Frames per second to aim for, or 0 for uncapped
+    private final boolean logStats;  // Whether to print the frame statistics once per second
+    private final SimulationRate rate;  // How often the engine is stepped
+    private final GameEngine engine;  // The simulation holding the bird, pipes and score
+    private final GameRenderer renderer;  // Draws the engine's state
+    private final LogicalScreen screen;  // Logical-resolution back buffer, scaled to the canvas
+    private final FrameStats stats;  // Update and render time per frame
+    private final PerfMonitor monitor;  // Times the ticks and frames of the current game
+    private final PerfOverlay perfOverlay;  // Shows the monitor's statistics, toggled with F3
+    private final FlapInput flapInput;  // Queued by the EDT on a key press, consumed by the loop thread
+    private ReplayRecorder replayRecorder;  // Records the flaps of the current game, when recording
+    private ReplayLog replayLog;  // Where finished games are saved, or null
+    private RunLog runLog;  // Where the result of every finished game is appended, or null
+    private int[] bestScores = new int[0];  // Best human scores in the run log, shown after game over
+    private GhostRace ghostRace;  // Race whose ghosts fly next to the bird, or null
+    private FlapPolicy autopilot;  // Flies the bird instead of the space bar, or null
+    private FrameExporter exporter;  // Captures the state once per 20 ms of game time, or null
+    private volatile boolean restartRequested;  // Set by start(), consumed by the loop thread
+    private volatile long restartStartNanos;  // When start() was last called, until its first frame is shown
+    private volatile long lastRestartNanos;  // Time from the last start() to its first shown frame
+    private volatile boolean running;  // Whether the loop thread should keep going
+    private Thread loopThread;  // The thread running the game loop
+
+    /*
+     * Creates the game canvas with smooth scaling. The loop starts with the first call to start().
+     */
+    public GameCanvas(int targetFps, boolean logStats) {
+        this(targetFps, logStats, LogicalScreen.Scaling.SMOOTH);
+    }
+
+    /*
+     * Creates the game canvas, scaling its frames to the canvas size as given.
+     */
+    public GameCanvas(int targetFps, boolean logStats, LogicalScreen.Scaling scaling) {
+        this(targetFps, logStats, scaling, SimulationRate.BASE);
+    }
+
+    /*
+     * Creates the game canvas, stepping the game's physics at the given rate.
+     */
+    public GameCanvas(int targetFps, boolean logStats, LogicalScreen.Scaling scaling, SimulationRate rate) {
+        this.screen = new LogicalScreen(scaling);
+        this.targetFps = targetFps;
+        this.logStats = logStats;
+        this.rate = rate;
+        this.engine = new GameEngine(SeededRandom.newSeed(), rate);
+        this.renderer = new GameRenderer();
+        this.stats = new FrameStats();
+        this.monitor = new PerfMonitor(rate.getStepNanos());
+        this.perfOverlay = new PerfOverlay(monitor);
+        this.flapInput = new FlapInput(monitor);
+        engine.setMonitor(monitor);
+        renderer.setMonitor(monitor);
+        this.setPreferredSize(new Dimension(LogicalScreen.WIDTH, LogicalScreen.HEIGHT));
+        this.setBackground(Scenery.SKY);
+        this.setIgnoreRepaint(true); // All painting happens on the loop thread
+        this.setFocusable(true);
+        this.addKeyListener(this);
+        // Clicking the restart button of the game over overlay starts a new game
+        this.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Point point = new Point();
+                if (engine.isGameOver() && screen.toLogical(e.getX(), e.getY(), point)
+                        && GameOverScreen.isOnRestartButton(point.x, point.y, LogicalScreen.WIDTH, LogicalScreen.HEIGHT)) {
+                    start();
+                }
+            }
+        });
+    }
+
+    /*
+     * Gets the frame statistics of the running loop.
+     */
+    public FrameStats getStats() {
+        return stats;
+    }
+
+    /*
+     * Creates the buffer strategy once the canvas is displayable.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(2);
+    }
+
+    /*
+     * Stops the loop thread before the canvas loses its native peer.
+     */
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    /*
+     * Starts a fresh game. The engine is reset in place by the loop thread, which
+     * is started if it is not running yet.
+     */
+    @Override
+    public synchronized void start() {
+        restartStartNanos = System.nanoTime();
+        restartRequested = true;
+        if (!running) {
+            awaitLoopExit(); // Only left running if a stop() was interrupted; two loops must never step the engine
+            running = true;
+            loopThread = new Thread(this::runLoop, "game-loop");
+            loopThread.setDaemon(true);
+            loopThread.start();
+        }
+        requestFocus();
+    }
+
+    /*
+     * Stops the loop thread and waits for it to finish its frame and exit, so the
+     * canvas is never drawn to after it returns.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        awaitLoopExit();
+    }
+
+    /*
+     * Waits for a loop thread told to stop to exit. If interrupted, the thread is
+     * kept so that the next start() or stop() waits for it again.
+     */
+    private void awaitLoopExit() {
+        if (loopThread == null || loopThread == Thread.currentThread()) {
+            return;
+        }
+        try {
+            loopThread.join();
+            loopThread = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Records every game played from now on and appends its replay to the log when it ends.
+     */
+    @Override
+    public void recordTo(ReplayLog log) {
+        replayRecorder = new ReplayRecorder();
+        replayLog = log;
+        engine.setRecorder(replayRecorder);
+    }
+
+    @Override
+    public void recordRunsTo(RunLog log) {
+        runLog = log;
+    }
+
+    /*
+     * Races against the ghosts. Must be called before the screen is first started,
+     * since the engine and renderer belong to the loop thread once it runs.
+     */
+    @Override
+    public void raceAgainst(GhostRace race) {
+        ghostRace = race;
+        renderer.setGhosts(race);
+        engine.reset(race.getSeed());
+    }
+
+    /*
+     * Switches the background. Like raceAgainst, must be called before the screen is first started.
+     */
+    @Override
+    public void setParallax(boolean parallax) {
+        renderer.setParallax(parallax);
+    }
+
+    /*
+     * Hands the bird to the autopilot. Like raceAgainst, must be called before the
+     * screen is first started, since the autopilot then runs on the loop thread.
+     */
+    @Override
+    public void setAutopilot(FlapPolicy autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    /*
+     * Captures frames into the exporter. Like raceAgainst, must be called before
+     * the screen is first started, since the frames are then drawn on the loop thread.
+     */
+    @Override
+    public void captureTo(FrameExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public Component getComponent() {
+        return this;
+    }
+
+    @Override
+    public long getLastRestartNanos() {
+        return lastRestartNanos;
+    }
+
+    @Override
+    public PerfMonitor getPerfMonitor() {
+        return monitor;
+    }
+
+    /*
+     * The game loop. Each iteration runs every tick that has come due since the
+     * previous frame, renders one frame and then waits for the next frame slot.
+     * After game over nothing moves, so the overlay is redrawn at most once per 20 ms.
+     */
+    private void runLoop() {
+        long frameNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+        long nextTick = System.nanoTime();
+        long nextFrame = nextTick;
+
+        while (running) {
+            long restartStart = 0;
+            if (restartRequested) {
+                restartRequested = false;
+                restartStart = restartStartNanos;
+                if (engine.getTick() > 0 || engine.isGameOver()) {
+                    if (ghostRace != null) {
+                        engine.reset(ghostRace.getSeed());
+                    } else {
+                        engine.reset();
+                    }
+                }
+                flapInput.clear();
+                monitor.reset();
+                nextTick = System.nanoTime();
+            }
+
+            long updateStart = System.nanoTime();
+            // After a stall (a GC pause, a dragged window) the game slows down rather than running ticks for all of it
+            if (updateStart - nextTick > MAX_CATCH_UP_NANOS) {
+                nextTick = updateStart - MAX_CATCH_UP_NANOS;
+            }
+            while (updateStart - nextTick >= 0 && !engine.isGameOver()) {
+                boolean flap = flapInput.takeFlap();
+                monitor.beginTick();
+                if (autopilot != null) {
+                    flap = autopilot.shouldFlap(engine); // Presses are dropped while the autopilot flies
+                }
+                if (!engine.step(flap)) {
+                    gameOver();
+                }
+                // One frame per 20 ms of game time whatever the rate, so the capture plays at the game's speed
+                if (exporter != null && rate.toBaseTicks(engine.getTick()) != rate.toBaseTicks(engine.getTick() - 1)) {
+                    exporter.capture(renderer, engine);
+                }
+                monitor.endTick(engine.getTick());
+                nextTick += rate.getStepNanos();
+            }
+            long renderStart = System.nanoTime();
+            // How far this frame is from the last tick towards the next one; the final state once the game is over
+            double alpha = engine.isGameOver() ? 1
+                    : 1 - Math.min(1, Math.max(0, (double) (nextTick - renderStart) / rate.getStepNanos()));
+            BufferStrategy strategy = getBufferStrategy();
+            if (strategy != null) {
+                render(strategy, alpha);
+                flapInput.framePresented();
+            }
+            long renderEnd = monitor.record(PerfMonitor.Phase.PAINT, renderStart);
+
+            if (restartStart != 0) {
+                lastRestartNanos = renderEnd - restartStart;
+                StartupReport.shared().mark(StartupReport.Phase.GAME_FRAME);
+                if (logStats) {
+                    System.out.printf("Restart to first frame: %.0f us%n", lastRestartNanos / 1e3);
+                }
+            }
+            if (stats.record(renderStart - updateStart, renderEnd - renderStart) && logStats) {
+                System.out.println(stats.summary());
+            }
+
+            long pace = engine.isGameOver() ? Math.max(frameNanos, TICK_NANOS) : frameNanos;
+            if (pace > 0) {
+                nextFrame += pace;
+                waitUntil(nextFrame);
+                // If we fell more than a frame behind, start pacing again from now instead of bursting
+                if (System.nanoTime() - nextFrame > pace) {
+                    nextFrame = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    /*
+     * Saves the replay and the result of the game that has just ended.
+     */
+    private void gameOver() {
+        if (replayLog != null) {
+            replayLog.add(replayRecorder.finish(engine));
+        }
+        if (runLog != null) {
+            runLog.append(RunRecord.of(engine, autopilot == null ? RunRecord.Source.HUMAN : RunRecord.Source.SIMULATED));
+            bestScores = runLog.topScores(RunRecord.Source.HUMAN, GameOverScreen.BEST_SCORES_SHOWN);
+        }
+    }
+
+    /*
+     * Sleeps until shortly before the deadline and then yields until it is reached,
+     * since Thread.sleep alone is too coarse for frame pacing.
+     */
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 2_000_000L) {
+                try {
+                    Thread.sleep((remaining - 1_000_000L) / 1_000_000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /*
+     * Renders one frame, the given fraction of the way from the last tick to the
+     * next, into the logical buffer, scales it into the strategy's back buffer and
+     * flips that to the screen, repeating if either buffer lost its contents in
+     * the meantime.
+     */
+    private void render(BufferStrategy strategy, double alpha) {
+        do {
+            Graphics2D g2d = screen.beginFrame(getGraphicsConfiguration());
+            try {
+                renderer.render(g2d, engine, alpha, LogicalScreen.WIDTH, LogicalScreen.HEIGHT);
+                drawHud(g2d);
+                if (engine.isGameOver()) {
+                    GameOverScreen.draw(g2d, engine.getScore(), bestScores, LogicalScreen.WIDTH, LogicalScreen.HEIGHT);
+                }
+                perfOverlay.draw(g2d, LogicalScreen.WIDTH);
+            } finally {
+                g2d.dispose();
+            }
+            do {
+                do {
+                    Graphics2D target = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        screen.present(target, getWidth(), getHeight());
+                    } finally {
+                        target.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+        } while (screen.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /*
+     * Draws the score and the bird position bar, matching the layout of GamePanel.
+     */
+    private void drawHud(Graphics2D g2d) {
+        int range = GameEngine.GROUND_Y - Bird.SIZE;
+        int value = Math.max(0, Math.min(range, range - engine.getBird().getY()));
+        int filled = 420 * value / range;
+        g2d.setColor(BAR_BACKGROUND);
+        g2d.fillRect(5, 30, 20, 420);
+        g2d.setColor(BAR_FOREGROUND);
+        g2d.fillRect(5, 30 + 420 - filled, 20, filled);
+
+        g2d.setFont(SCORE_FONT);
+        g2d.setColor(SCORE_COLOR);
+        g2d.drawString("Score: " + engine.getScore(), 5, 26);
+    }
+
+    /*
+     * Responds to key presses. The flap is queued for the loop thread and applied on the next tick.
+     * F3 shows or hides the performance overlay.
+     */
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+            flapInput.pressed(e.getWhen());
+        } else if (e.getKeyCode() == KeyEvent.VK_ENTER && engine.isGameOver()) {
+            start(); // Enter does the same as the restart button
+        } else if (e.getKeyCode() == PerfOverlay.TOGGLE_KEY) {
+            perfOverlay.toggle();
+        }
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {} // Not used, but must be implemented
+
+    /*
+     * Lets go of the space bar, so the next press flaps again.
+     */
+    @Override
+    public void keyReleased(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+            flapInput.released(e.getWhen());
+        }
+    }
+}
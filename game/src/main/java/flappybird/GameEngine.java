@@ -0,0 +1,276 @@
+package flappybird;
+
+/*
+ * The simulation core of the Flappy Bird game.
+ * It holds the complete game state (the bird, the pipes, the score and whether the
+ * game is over) and advances it one tick at a time through step(). It has no
+ * dependency on AWT or Swing, so it can run on machines without a display and as
+ * fast as the CPU allows. GamePanel drives one engine from its timer and draws it,
+ * while HeadlessRunner steps many engines back to back.
+ *
+ * Every game is played with a seed, which fixes the pipe heights. Together with
+ * the ticks on which the bird flapped, the seed reproduces a game exactly; an
+ * attached ReplayRecorder collects those flaps.
+ *
+ * By default a tick is 20 ms, as the game was tuned. An engine can also step its
+ * physics at another SimulationRate, such as 120 or 240 Hz: a tick is then one
+ * step of that rate, the bird and pipes move a matching fraction of a 20 ms tick
+ * and the score grows at the same rate per second. Replays, ghosts and the game
+ * server always play at 50 Hz.
+ */
+public class GameEngine {
+
+    static final int WIDTH = 500;  // Width of the playing field
+    static final int HEIGHT = 500;  // Height of the playing field
+    static final int GROUND_Y = 470;  // The bird dies once its y-coordinate reaches the ground
+    static final int BIRD_X = 100;  // Fixed x-coordinate of the bird
+    static final int BIRD_START_Y = 250;  // The bird's y-coordinate at the start of a game
+    static final int POINTS_PER_PASS = 10;  // Points added on each 20 ms tick the bird is past a pipe
+
+    private final SimulationRate rate;  // How often step() is called
+    private final PipeCourse course;  // Source of the pipes
+    private long seed;  // Seed of the current game
+    private ReplayRecorder recorder;  // Records the flaps of each game, or null
+    private PerfMonitor monitor;  // Times movePipes and checkCollisions, or null
+    private final Bird bird;  // The bird object
+    private final PipeStore pipes;  // Pipes in the game, oldest first (owned by the course)
+    private int nextPipe;  // Index of the oldest pipe the bird has not passed yet (pipes.size() if none)
+    private int score;  // Player's score
+    private int passedRemainder;  // Time past a pipe not scored yet, in 1/hz of a 20 ms tick
+    private boolean gameOver;  // Flag to indicate whether the game is over
+    private long tick;  // Number of ticks simulated so far
+
+    /*
+     * Creates a new game with a freshly picked seed.
+     */
+    public GameEngine() {
+        this(SeededRandom.newSeed());
+    }
+
+    /*
+     * Creates a new game whose pipe heights are fixed by the given seed.
+     * The first pipe is placed at the right edge of the screen, like in the original game.
+     */
+    public GameEngine(long seed) {
+        this(seed, SimulationRate.BASE);
+    }
+
+    /*
+     * Creates a new game whose pipe heights are fixed by the given seed, with its
+     * physics stepped at the given rate.
+     */
+    public GameEngine(long seed, SimulationRate rate) {
+        this.rate = rate;
+        this.course = new PipeCourse(seed, rate);
+        this.bird = new Bird(BIRD_X, BIRD_START_Y, rate);
+        this.pipes = course.getPipes();
+        reset(seed);
+    }
+
+    /*
+     * Starts a new game in place with a freshly picked seed.
+     */
+    public void reset() {
+        reset(SeededRandom.newSeed());
+    }
+
+    /*
+     * Starts a new game in place with the given seed: the bird goes back to its
+     * starting position, the pipes are cleared and the first pipe is placed at the
+     * right edge of the screen. Nothing is allocated, so a restart is instant.
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        course.reset(seed);
+        if (recorder != null) {
+            recorder.begin(seed);
+        }
+        bird.reset(BIRD_START_Y);
+        nextPipe = 0;
+        score = 0;
+        passedRemainder = 0;
+        gameOver = false;
+        tick = 0;
+    }
+
+    /*
+     * Advances the game by one tick.
+     * If flap is true the bird flaps before it is moved, which is the same as a
+     * space bar press that arrives between two timer ticks. Returns false once the
+     * game is over; further calls have no effect.
+     */
+    public boolean step(boolean flap) {
+        if (gameOver) {
+            return false;
+        }
+        if (flap) {
+            flap();
+        }
+        bird.update(); // Update the bird's position
+        if (monitor == null) {
+            movePipes();
+            checkCollisions();
+        } else {
+            long start = System.nanoTime();
+            movePipes();
+            start = monitor.record(PerfMonitor.Phase.MOVE_PIPES, start);
+            checkCollisions();
+            monitor.record(PerfMonitor.Phase.COLLISIONS, start);
+        }
+        tick++;
+        return !gameOver;
+    }
+
+    /*
+     * Makes the bird flap right away, without advancing the game.
+     * Used when input arrives between ticks.
+     */
+    public void flap() {
+        if (!gameOver) {
+            bird.flap();
+            if (recorder != null) {
+                recorder.flap(tick);
+            }
+        }
+    }
+
+    /*
+     * Moves the pipes to the left and handles pipe recycling when they go off-screen.
+     */
+    private void movePipes() {
+        // Pipes removed from the front take the cursor along with them
+        nextPipe = Math.max(0, nextPipe - course.advance());
+    }
+
+    /*
+     * Checks for collisions between the bird and the pipes or the ground.
+     * If a collision occurs, the game ends. Otherwise the score is increased
+     * when the bird is past a pipe.
+     *
+     * Pipes only move left, so once the bird has passed a pipe it can never hit it
+     * again. The nextPipe cursor skips those pipes, and only the pipes from the
+     * cursor that are within the bird's reach are tested, which makes the check
+     * O(1) per tick and free of allocations.
+     */
+    private void checkCollisions() {
+        int birdX = bird.getX();
+        int birdY = bird.getY();
+        while (nextPipe < pipes.size() && Collision.passed(birdX, pipes.x(nextPipe))) {
+            nextPipe++;
+        }
+        for (int i = nextPipe; i < pipes.size() && Collision.inReach(birdX, pipes.x(i)); i++) {
+            if (Collision.hitsPipe(birdX, birdY, pipes.x(i), pipes.height(i))) {
+                gameOver = true;
+                return;
+            }
+        }
+        // Check if the bird hits the ground
+        if (Collision.hitsGround(birdY)) {
+            gameOver = true;
+            return;
+        }
+
+        // The bird scores on every tick while a pipe it has passed is still on screen
+        // (at most once per tick). Off-screen pipes were already removed by movePipes,
+        // so any pipe before the cursor counts. The points are per 20 ms of passing.
+        if (nextPipe > 0) {
+            passedRemainder += SimulationRate.BASE_HZ;
+            while (passedRemainder >= rate.hz) {
+                passedRemainder -= rate.hz;
+                score += POINTS_PER_PASS;
+            }
+        }
+    }
+
+    /*
+     * Attaches a recorder that is told about every new game and every flap from
+     * now on, or detaches it when given null. The current game is recorded from
+     * its start only if the recorder is attached before the first flap.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+        if (recorder != null) {
+            recorder.begin(seed);
+        }
+    }
+
+    /*
+     * Attaches a monitor that times the phases of every tick from now on, or
+     * detaches it when given null.
+     */
+    public void setMonitor(PerfMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /*
+     * Gets the seed of the current game.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /*
+     * Gets the bird being simulated.
+     */
+    public Bird getBird() {
+        return bird;
+    }
+
+    /*
+     * Gets the pipes currently in play, in the order they were spawned.
+     */
+    public PipeStore getPipes() {
+        return pipes;
+    }
+
+    /*
+     * Gets the index in getPipes() of the oldest pipe the bird has not passed yet,
+     * or getPipes().size() if the bird has passed every pipe in play.
+     */
+    public int getNextPipe() {
+        return nextPipe;
+    }
+
+    /*
+     * Gets the number of pixels the pipes moved left on the last tick.
+     */
+    public int getPipeShift() {
+        return course.getShift();
+    }
+
+    /*
+     * Gets the player's current score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /*
+     * Returns whether the game has ended.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /*
+     * Gets the number of ticks simulated so far.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /*
+     * Gets the rate the physics is stepped at.
+     */
+    public SimulationRate getRate() {
+        return rate;
+    }
+
+    /*
+     * Gets the game time, in 20 ms ticks, of a frame shown the given fraction
+     * (0 to 1) of the way from the last tick to the next one.
+     */
+    public double getTime(double alpha) {
+        return tick == 0 ? 0 : rate.toBaseTicks(tick - 1 + alpha);
+    }
+}
@@ -0,0 +1,101 @@
+package flappybird;
+
+import java.awt.*;
+
+/*
+ * The game over overlay. It is drawn on top of the last frame of the game by
+ * whichever game screen is in use, instead of replacing the screen with new
+ * Swing components. The fonts and colours are created once, so showing the
+ * overlay costs nothing beyond drawing it.
+ */
+public final class GameOverScreen {
+
+    static final int BEST_SCORES_SHOWN = 3;  // Best scores listed under the final score
+
+    private static final Color BACKGROUND = new Color(255, 200, 200, 220); // translucent pink over the game
+    private static final Font TITLE_FONT = new Font("Serif", Font.BOLD, 40);
+    private static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 18);
+    private static final Font SCORE_FONT = new Font("SansSerif", Font.BOLD, 20);
+    private static final Font BEST_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private static final Color NEW_BEST_COLOR = new Color(180, 0, 0);
+    private static final int[] NO_SCORES = new int[0];
+    private static final Color BUTTON_COLOR = new Color(255, 100, 100); // reddish background
+    private static final String TITLE = "Game Over!";
+    private static final String BUTTON_TEXT = "Restart?";
+
+    private GameOverScreen() {
+    }
+
+    /*
+     * Draws the game over overlay with the player's final score and a restart button
+     * over an area of width x height pixels.
+     */
+    public static void draw(Graphics2D g2d, int score, int width, int height) {
+        draw(g2d, score, NO_SCORES, width, height);
+    }
+
+    /*
+     * Draws the game over overlay like draw(g2d, score, width, height), with the best
+     * scores so far (best first, this game included) listed under the final score.
+     */
+    public static void draw(Graphics2D g2d, int score, int[] bestScores, int width, int height) {
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, width, height);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // "Game Over!" centred near the middle of the screen
+        g2d.setFont(TITLE_FONT);
+        g2d.setColor(Color.BLACK);
+        FontMetrics metrics = g2d.getFontMetrics();
+        g2d.drawString(TITLE, (width - metrics.stringWidth(TITLE)) / 2, height / 2 - 100 + metrics.getAscent());
+
+        String scoreText = "Score: " + score;
+        g2d.setFont(SCORE_FONT);
+        metrics = g2d.getFontMetrics();
+        g2d.drawString(scoreText, (width - metrics.stringWidth(scoreText)) / 2, height / 2 - 20);
+
+        if (bestScores.length > 0) {
+            StringBuilder best = new StringBuilder("Best:");
+            for (int bestScore : bestScores) {
+                best.append("  ").append(bestScore);
+            }
+            String bestText = best.toString();
+            g2d.setFont(BEST_FONT);
+            metrics = g2d.getFontMetrics();
+            g2d.drawString(bestText, (width - metrics.stringWidth(bestText)) / 2, height / 2 + 10);
+            if (score > 0 && score >= bestScores[0]) {
+                String newBest = "New best!";
+                g2d.setColor(NEW_BEST_COLOR);
+                g2d.drawString(newBest, (width - metrics.stringWidth(newBest)) / 2, height / 2 + 35);
+            }
+        }
+
+        // The restart button, where the old JButton used to be
+        int buttonX = buttonX(width);
+        int buttonY = buttonY(height);
+        g2d.setColor(BUTTON_COLOR);
+        g2d.fillRoundRect(buttonX, buttonY, 200, 70, 10, 10);
+        g2d.setFont(BUTTON_FONT);
+        g2d.setColor(Color.WHITE); // white text for readability
+        metrics = g2d.getFontMetrics();
+        g2d.drawString(BUTTON_TEXT, buttonX + (200 - metrics.stringWidth(BUTTON_TEXT)) / 2,
+                buttonY + (70 - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    /*
+     * Returns whether the point (x, y) is on the restart button of an overlay of width x height pixels.
+     */
+    public static boolean isOnRestartButton(int x, int y, int width, int height) {
+        int buttonX = buttonX(width);
+        int buttonY = buttonY(height);
+        return x >= buttonX && x < buttonX + 200 && y >= buttonY && y < buttonY + 70;
+    }
+
+    private static int buttonX(int width) {
+        return width / 2 - 100;
+    }
+
+    private static int buttonY(int height) {
+        return height - 170;
+    }
+}
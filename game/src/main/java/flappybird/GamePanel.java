@@ -0,0 +1,362 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.*;
+
+public class GamePanel extends JPanel implements KeyListener, GameScreen {
+
+    private final GameEngine engine;  // The simulation holding the bird, pipes and score
+    private final GameRenderer renderer;  // Draws the engine's state
+    private final Timer timer;  // Timer to update game at fixed intervals
+    private int shownScore;  // Score currently shown by the score label
+    private int shownBarValue;  // Value currently shown by the position bar
+    private final JLabel scoreLabel;  // Label to display the score
+    private JProgressBar birdPositionBar;  // Bar showing the bird's current position
+    private ReplayRecorder replayRecorder;  // Records the flaps of the current game, when recording
+    private ReplayLog replayLog;  // Where finished games are saved, or null
+    private RunLog runLog;  // Where the result of every finished game is appended, or null
+    private int[] bestScores = new int[0];  // Best human scores in the run log, shown after game over
+    private GhostRace ghostRace;  // Race whose ghosts fly next to the bird, or null
+    private final Rectangle ghostColumn = new Rectangle();  // Area the ghosts can be drawn in
+    private final boolean logRestarts;  // Whether to print the restart-to-first-frame time
+    private long restartStartNanos;  // When start() was last called, until its first frame is painted
+    private long lastRestartNanos;  // Time from the last start() to its first painted frame
+    private final PerfMonitor monitor;  // Times the ticks and frames of the current game
+    private final PerfOverlay perfOverlay;  // Shows the monitor's statistics, toggled with F3
+    private final FlapInput flapInput;  // Space bar presses waiting for the next tick
+    private final boolean dirtyRegions;  // Whether a tick repaints only what changed instead of the whole panel
+    private final DirtyRegionTracker dirtyTracker = new DirtyRegionTracker();  // Sprite bounds before the tick
+    private final Rectangle dirtyRegion = new Rectangle();  // Area repainted by the last tick
+    private boolean lastTickFullRepaint = true;  // Whether the last tick repainted the whole panel
+    private boolean parallax;  // Whether the background scrolls, which makes every tick repaint everything
+    private FlapPolicy autopilot;  // Flies the bird instead of the space bar, or null
+    private FrameExporter exporter;  // Captures the state after every tick, or null
+
+    /*
+     * Initializes the game panel, setting up the game engine and UI components.
+     * Sets up the timer to update the game and handle user input. The timer only
+     * runs between start() and game over (or stop()).
+     */
+    public GamePanel() {
+        this(false);
+    }
+
+    /*
+     * Initializes the game panel, optionally printing how long each restart takes
+     * to reach the screen.
+     */
+    public GamePanel(boolean logRestarts) {
+        this(logRestarts, true);
+    }
+
+    /*
+     * Initializes the game panel. With dirtyRegions, each tick repaints only the
+     * area the bird and pipes moved through (plus the score label and position
+     * bar when they change); without it, each tick repaints the whole panel.
+     */
+    public GamePanel(boolean logRestarts, boolean dirtyRegions) {
+        this.logRestarts = logRestarts;
+        this.dirtyRegions = dirtyRegions;
+        this.setPreferredSize(new Dimension(500, 500));
+        this.setBackground(new Color(0x59CCC9));
+        this.setLayout(null);
+
+        engine = new GameEngine(); // Create a new game with the bird and the first pipe
+        renderer = new GameRenderer();
+        monitor = new PerfMonitor(20_000_000L); // The timer's 20 ms
+        engine.setMonitor(monitor);
+        renderer.setMonitor(monitor);
+        perfOverlay = new PerfOverlay(monitor);
+        flapInput = new FlapInput(monitor);
+
+        this.addKeyListener(this);
+        this.setFocusable(true);
+        // Clicking the restart button of the game over overlay starts a new game
+        this.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (engine.isGameOver() && GameOverScreen.isOnRestartButton(e.getX(), e.getY(), getWidth(), getHeight())) {
+                    start();
+                }
+            }
+        });
+
+        shownScore = 0;
+
+        // Initialize and configure the score label
+        scoreLabel = new JLabel("Score: " + shownScore);
+        scoreLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        scoreLabel.setForeground(new Color (0,100,0));
+        scoreLabel.setBounds(5, 4, 150, 30);
+        this.add(scoreLabel);
+
+        // Initialize and configure the bird position progress bar
+        birdPositionBar = new JProgressBar(JProgressBar.VERTICAL, 0, 470 - 30); // range to fit screen
+        birdPositionBar.setBounds(5, 30, 20, 420);
+        birdPositionBar.setForeground(new Color(100,100,100)); 
+        birdPositionBar.setBackground(new Color(246, 255, 101));
+        this.add(birdPositionBar);
+
+        // Set up the game update timer
+        timer = new Timer(20, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                tick();
+            }
+        });
+    }
+
+    /*
+     * Runs one timer tick: applies the flaps pressed since the last tick, moves
+     * the bird and pipes, checks for collisions,
+     * updates the score label and position bar if their values changed and asks
+     * Swing to repaint what moved.
+     */
+    void tick() {
+        if (engine.isGameOver()) {
+            return;
+        }
+        monitor.beginTick();
+        dirtyTracker.capture(engine);
+        boolean flap = flapInput.takeFlap();
+        if (autopilot != null) {
+            flap = autopilot.shouldFlap(engine); // Presses are dropped while the autopilot flies
+        }
+        engine.step(flap); // Flap, move the bird and pipes and check for collisions
+        dirtyTracker.dirtyRegion(engine, getWidth(), getHeight(), dirtyRegion);
+        if (exporter != null) {
+            exporter.capture(renderer, engine); // Only draws; the encoding happens on the exporter's threads
+        }
+
+        int barValue = 470 - 30 - engine.getBird().getY();
+        if (barValue != shownBarValue) {
+            shownBarValue = barValue;
+            birdPositionBar.setValue(barValue); // Update the bird position bar
+            dirtyRegion.add(birdPositionBar.getBounds());
+        }
+        if (engine.getScore() != shownScore) {
+            shownScore = engine.getScore();
+            scoreLabel.setText("Score: " + shownScore); // Update the score label
+            dirtyRegion.add(scoreLabel.getBounds());
+        }
+        if (ghostRace != null) {
+            // The ghosts fly at the bird's x, anywhere from the top to the bottom
+            ghostColumn.setBounds(GameEngine.BIRD_X, 0, Bird.SIZE, getHeight());
+            dirtyRegion.add(ghostColumn);
+        }
+        if (engine.isGameOver()) {
+            gameOver();
+        }
+
+        // The game over and performance overlays cover the whole panel, and a scrolling background fills it
+        lastTickFullRepaint = !dirtyRegions || parallax || engine.isGameOver() || perfOverlay.isVisible();
+        if (lastTickFullRepaint) {
+            repaint();
+        } else if (!dirtyRegion.isEmpty()) {
+            repaint(dirtyRegion);
+        }
+        monitor.endTick(engine.getTick());
+    }
+
+    /*
+     * Gets the area repainted by the last tick, or null if it repainted the whole panel.
+     * The rectangle is reused by the next tick.
+     */
+    Rectangle getLastDirtyRegion() {
+        return lastTickFullRepaint ? null : dirtyRegion;
+    }
+
+    /*
+     * Handles the game over logic by stopping the game timer and saving the game's
+     * replay and result. The game over overlay is drawn by paint() on the next repaint.
+     */
+    private void gameOver() {
+        timer.stop();
+        if (replayLog != null) {
+            replayLog.add(replayRecorder.finish(engine));
+        }
+        if (runLog != null) {
+            runLog.append(RunRecord.of(engine, autopilot == null ? RunRecord.Source.HUMAN : RunRecord.Source.SIMULATED));
+            bestScores = runLog.topScores(RunRecord.Source.HUMAN, GameOverScreen.BEST_SCORES_SHOWN);
+        }
+    }
+
+    /*
+     * Starts a fresh game. The engine, labels and timer are reset in place,
+     * so restarting creates no components and loads nothing. The performance
+     * statistics start over with the new game.
+     */
+    @Override
+    public void start() {
+        if (engine.getTick() > 0 || engine.isGameOver()) {
+            if (ghostRace != null) {
+                engine.reset(ghostRace.getSeed());
+            } else {
+                engine.reset();
+            }
+        }
+        shownScore = 0;
+        scoreLabel.setText("Score: " + shownScore);
+        shownBarValue = 470 - 30 - engine.getBird().getY();
+        birdPositionBar.setValue(shownBarValue);
+        restartStartNanos = System.nanoTime();
+        monitor.reset();
+        flapInput.clear();
+        timer.restart();
+        repaint();
+        requestFocusInWindow();
+    }
+
+    /*
+     * Pauses the game timer.
+     */
+    @Override
+    public void stop() {
+        timer.stop();
+    }
+
+    /*
+     * Records every game played from now on and appends its replay to the log when it ends.
+     */
+    @Override
+    public void recordTo(ReplayLog log) {
+        replayRecorder = new ReplayRecorder();
+        replayLog = log;
+        engine.setRecorder(replayRecorder);
+    }
+
+    @Override
+    public void recordRunsTo(RunLog log) {
+        runLog = log;
+    }
+
+    @Override
+    public void raceAgainst(GhostRace race) {
+        ghostRace = race;
+        renderer.setGhosts(race);
+        engine.reset(race.getSeed());
+    }
+
+    @Override
+    public void setParallax(boolean parallax) {
+        this.parallax = parallax;
+        renderer.setParallax(parallax);
+        repaint();
+    }
+
+    @Override
+    public void setAutopilot(FlapPolicy autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    @Override
+    public void captureTo(FrameExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public Component getComponent() {
+        return this;
+    }
+
+    @Override
+    public long getLastRestartNanos() {
+        return lastRestartNanos;
+    }
+
+    @Override
+    public PerfMonitor getPerfMonitor() {
+        return monitor;
+    }
+
+    /*
+     * Draws the game elements (bird, pipes, background) to the screen.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        renderer.render(g2d, engine, getWidth(), getHeight());
+        monitor.record(PerfMonitor.Phase.PAINT, start);
+    }
+
+    /*
+     * Paints the panel and its score label and position bar, then the game over
+     * overlay on top of everything once the game has ended, and the performance
+     * overlay if it is shown. A flap counts as shown once this frame is painted.
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (engine.isGameOver()) {
+            GameOverScreen.draw((Graphics2D) g, engine.getScore(), bestScores, getWidth(), getHeight());
+        }
+        perfOverlay.draw((Graphics2D) g, getWidth());
+        flapInput.framePresented();
+        if (restartStartNanos != 0) {
+            lastRestartNanos = System.nanoTime() - restartStartNanos;
+            restartStartNanos = 0;
+            StartupReport.shared().mark(StartupReport.Phase.GAME_FRAME);
+            if (logRestarts) {
+                System.out.printf("Restart to first frame: %.0f us%n", lastRestartNanos / 1e3);
+            }
+        }
+    }
+
+    /*
+     * Responds to key presses. Specifically, handles the space bar for bird flapping:
+     * the press is queued and the bird flaps on the next tick. F3 shows or hides the
+     * performance overlay.
+     */
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+            flapInput.pressed(e.getWhen()); // Make the bird flap when the space bar is pressed
+        } else if (e.getKeyCode() == KeyEvent.VK_ENTER && engine.isGameOver()) {
+            start(); // Enter does the same as the restart button
+        } else if (e.getKeyCode() == PerfOverlay.TOGGLE_KEY) {
+            perfOverlay.toggle();
+            repaint();
+        }
+    }
+
+    @Override
+    public void keyTyped(KeyEvent e) {} // Not used, but must be implemented
+
+    /*
+     * Lets go of the space bar, so the next press flaps again.
+     */
+    @Override
+    public void keyReleased(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+            flapInput.released(e.getWhen());
+        }
+    }
+
+    /*
+     * Gets the engine this panel drives.
+     */
+    GameEngine getEngine() {
+        return engine;
+    }
+
+    /*
+     * Requests focus for the game panel so it can receive key events.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        requestFocusInWindow();
+    }
+
+    /*
+     * Stops the game timer when the panel is taken out of its window.
+     */
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package flappybird;
+
+import java.awt.*;
+
+/*
+ * Draws the state of a GameEngine: the background, the pipes and the bird, and
+ * the ghosts of a GhostRace when racing against one.
+ * All images come pre-scaled from Assets, so drawing a frame does no loading
+ * or scaling of its own.
+ *
+ * A frame can also be drawn part of the way between two ticks: the bird, the
+ * pipes and the background are then placed between where they were on the last
+ * tick and where they are now, so frames shown more often than the engine ticks
+ * still move smoothly.
+ */
+public class GameRenderer {
+
+    private final Image birdImage;  // Image of the bird, already scaled to the bird's size
+    private PerfMonitor monitor;  // Times drawBackground, or null
+    private GhostRace ghosts;  // Race drawn behind the bird, or null
+    private GhostRenderer ghostRenderer;  // Draws the race's ghosts, created with the first race
+    private boolean parallax;  // Whether the background scrolls (ParallaxBackground) instead of standing still
+
+    /*
+     * Looks up the images used to draw the bird and the pipes.
+     */
+    public GameRenderer() {
+        birdImage = Assets.scaled(Assets.BIRD, Bird.SIZE, Bird.SIZE);
+    }
+
+    /*
+     * Attaches a monitor that times every drawBackground from now on, or detaches it when given null.
+     */
+    public void setMonitor(PerfMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /*
+     * Draws the ghosts of the race behind the bird from now on, or stops drawing
+     * ghosts when given null. The race is played along with the engine being drawn.
+     */
+    public void setGhosts(GhostRace race) {
+        if (race != null && ghostRenderer == null) {
+            ghostRenderer = new GhostRenderer();
+        }
+        this.ghosts = race;
+    }
+
+    /*
+     * Switches between the scrolling parallax background and the still one.
+     */
+    public void setParallax(boolean parallax) {
+        this.parallax = parallax;
+    }
+
+    /*
+     * Draws the game elements (background, ghosts, bird, pipes) for the current state of the engine,
+     * covering an area of width x height pixels.
+     */
+    public void render(Graphics2D g2d, GameEngine engine, int width, int height) {
+        render(g2d, engine, 1, width, height);
+    }
+
+    /*
+     * Draws the game elements as they are the given fraction (0 to 1) of the way
+     * from the engine's previous tick to its current one.
+     */
+    public void render(Graphics2D g2d, GameEngine engine, double alpha, int width, int height) {
+        drawBackground(g2d, engine.getTime(alpha), width, height);
+        if (ghosts != null) {
+            ghosts.advanceTo(engine.getTick());
+            ghostRenderer.draw(g2d, ghosts);
+        }
+        drawBird(g2d, engine.getBird(), alpha);
+
+        // The pipes were shift pixels further right on the previous tick
+        int back = (int) Math.round((1 - alpha) * engine.getPipeShift());
+        PipeStore pipes = engine.getPipes();
+        for (int i = 0; i < pipes.size(); i++) {
+            drawPipe(g2d, pipes.x(i) + back, pipes.height(i));
+        }
+    }
+
+    /*
+     * Draws the bird on the screen at its current position.
+     * The bird is drawn using the stored image.
+     */
+    public void drawBird(Graphics2D g2d, Bird bird) {
+        drawBird(g2d, bird, 1);
+    }
+
+    /*
+     * Draws the bird the given fraction of the way from its previous position to its current one.
+     */
+    public void drawBird(Graphics2D g2d, Bird bird, double alpha) {
+        g2d.drawImage(birdImage, bird.getX(), bird.getY(alpha), null);
+    }
+
+    /*
+     * Draws both the top (flipped) and bottom sections of the pipe on the screen.
+     * The top section is drawn first (flipped upside down), followed by the
+     * bottom section, creating the appearance of a complete obstacle for the player.
+     * Both sections come from the per-height tables that Assets shares between
+     * every renderer.
+     */
+    public void drawPipe(Graphics2D g2d, int x, int height) {
+        Image top = Assets.pipeTop(height);
+        Image bottom = Assets.pipeBottom(height);
+        if (top != null) {
+            g2d.drawImage(top, x, 0, null);
+        }
+        if (bottom != null) {
+            g2d.drawImage(bottom, x, Pipe.bottomY(height), null);
+        }
+    }
+
+    /*
+     * Draws the background elements, such as the sky, clouds, and ground, as they
+     * are at the given game time, in (possibly fractional) 20 ms ticks. The still scenery comes pre-rendered from the shared
+     * BackgroundCache, so this is a single image copy; the parallax background only
+     * copies the pre-rendered strips of its layers.
+     */
+    public void drawBackground(Graphics2D g2d, double time, int width, int height) {
+        long start = monitor != null ? System.nanoTime() : 0;
+        if (parallax) {
+            ParallaxBackground.shared().draw(g2d, time, width);
+        } else {
+            BackgroundCache.shared().draw(g2d, Scenery.GAME, width, height);
+        }
+        if (monitor != null) {
+            monitor.record(PerfMonitor.Phase.BACKGROUND, start);
+        }
+    }
+}
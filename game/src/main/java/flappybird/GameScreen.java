@@ -0,0 +1,73 @@
+package flappybird;
+
+import java.awt.Component;
+
+/*
+ * A screen that plays the game. GamePanel (Swing timer and repaint) and
+ * GameCanvas (active rendering) both implement it, so SceneManager can keep
+ * either one alive and restart it in place.
+ */
+public interface GameScreen {
+
+    /*
+     * Gets the component that shows the game.
+     */
+    Component getComponent();
+
+    /*
+     * Starts a fresh game. If a game was played before, its state is reset in
+     * place, without creating new components or loading anything.
+     */
+    void start();
+
+    /*
+     * Pauses the game while the screen is not shown.
+     */
+    void stop();
+
+    /*
+     * Records every game played from now on and appends its replay to the log when it ends.
+     */
+    void recordTo(ReplayLog log);
+
+    /*
+     * Appends every game that ends from now on to the run log, and shows the best
+     * scores in it on the game over overlay.
+     */
+    void recordRunsTo(RunLog log);
+
+    /*
+     * Plays every game from now on with the race's seed, with its ghosts flying
+     * next to the bird.
+     */
+    void raceAgainst(GhostRace race);
+
+    /*
+     * Switches between the scrolling parallax background and the still one.
+     */
+    void setParallax(boolean parallax);
+
+    /*
+     * Lets the policy fly the bird in every game from now on instead of the space
+     * bar, or gives the bird back to the player when given null. Its games are
+     * logged as simulated runs.
+     */
+    void setAutopilot(FlapPolicy autopilot);
+
+    /*
+     * Captures a frame of every 20 ms tick from now on into the exporter, or stops
+     * capturing when given null. Must be called before the screen is first started.
+     */
+    void captureTo(FrameExporter exporter);
+
+    /*
+     * Gets the time from the most recent start() to the first frame of the new
+     * game being drawn, in nanoseconds, or 0 if no restart has been drawn yet.
+     */
+    long getLastRestartNanos();
+
+    /*
+     * Gets the monitor that times this screen's ticks and frames.
+     */
+    PerfMonitor getPerfMonitor();
+}
@@ -0,0 +1,464 @@
+package flappybird;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Hosts many independent games at once, with the physics run on the server.
+ *
+ * Every client connection is a session with its own GameEngine. Sessions do not
+ * get a thread each: they are spread over a few shards, and a scheduler with one
+ * thread per shard ticks all the sessions of a shard every 20 ms, so thousands of
+ * games cost a handful of threads. One I/O thread accepts connections and reads
+ * client messages with a selector; it only hands flaps and new games over to the
+ * session. Each tick the shard thread applies them, steps the engine and writes
+ * the tick's changes straight to the session's socket (see ServerProtocol), so a
+ * socket is only ever written by one thread. A client that stops reading is
+ * disconnected once a few kilobytes are waiting for it.
+ *
+ * Usage: java -cp game/target/classes flappybird.GameServer [port] [shards]
+ */
+public class GameServer implements Closeable {
+
+    static final int MAX_PENDING_BYTES = 4096;  // Output a client may leave unread before it is dropped
+
+    // Outcomes of a session's tick
+    private static final int OK = 0;  // The session carries on
+    private static final int GONE = 1;  // The client went away
+    private static final int SLOW = 2;  // The client stopped reading
+
+    private final ServerSocketChannel serverChannel;  // Listening socket
+    private final Selector selector;  // Watches the listening socket and every client for input
+    private final Thread ioThread;  // Thread running ioLoop
+    private final Shard[] shards;  // Groups of sessions, each ticked by one scheduler thread
+    private final ScheduledExecutorService scheduler;  // Runs every shard once per tick
+    private final AtomicInteger nextSessionId = new AtomicInteger();
+    private final long startNanos;  // When the server started
+    private volatile boolean running = true;  // Whether the I/O thread should keep going
+
+    /*
+     * Starts a server on the given port (0 picks a free one) whose sessions are
+     * spread over the given number of shards.
+     */
+    public GameServer(int port, int shardCount) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shard count must be positive: " + shardCount);
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        selector = Selector.open();
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        shards = new Shard[shardCount];
+        AtomicInteger threadNumber = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "game-tick-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        startNanos = System.nanoTime();
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+            scheduler.scheduleAtFixedRate(shards[i], 0, GameCanvas.TICK_NANOS, TimeUnit.NANOSECONDS);
+        }
+
+        ioThread = new Thread(this::ioLoop, "game-server-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /*
+     * Gets the port the server listens on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /*
+     * Collects the statistics of every shard so far.
+     */
+    public Stats stats() {
+        Stats stats = new Stats(System.nanoTime() - startNanos, shards.length);
+        for (Shard shard : shards) {
+            shard.addTo(stats);
+        }
+        return stats;
+    }
+
+    /*
+     * Stops ticking, disconnects every client and closes the listening socket.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        selector.wakeup();
+        try {
+            ioThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+        serverChannel.close();
+    }
+
+    /*
+     * The I/O thread: accepts new clients and reads client messages.
+     */
+    private void ioLoop() {
+        ByteBuffer in = ByteBuffer.allocate(1024);
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read(key, in);
+                        }
+                    } catch (RuntimeException e) {
+                        // One bad session must never stop the thread that serves every client
+                        System.err.println("Dropping a client after an error: " + e);
+                        if (key.attachment() instanceof Session) {
+                            disconnect(key, (Session) key.attachment());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("Game server stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(nextSessionId.getAndIncrement(), channel);
+            channel.register(selector, SelectionKey.OP_READ, session);
+            shards[Math.floorMod(session.id, shards.length)].joining.add(session);
+        }
+    }
+
+    /*
+     * Reads what a client sent and passes complete messages on to its session.
+     * A client that closes its connection or sends something that is not a
+     * client message is disconnected.
+     */
+    private void read(SelectionKey key, ByteBuffer in) {
+        Session session = (Session) key.attachment();
+        in.clear();
+        in.put(session.partial, 0, session.partialLength);
+        int read;
+        try {
+            read = ((SocketChannel) key.channel()).read(in);
+        } catch (IOException e) {
+            read = -1;
+        }
+        in.flip();
+        while (in.hasRemaining()) {
+            int length = ServerProtocol.clientMessageLength(in.get(in.position()));
+            if (length < 0) {
+                // Not a client message: drop the client without keeping any of what it sent
+                disconnect(key, session);
+                return;
+            }
+            if (in.remaining() < length) {
+                break;
+            }
+            if (in.get() == ServerProtocol.JOIN) {
+                session.join(in.getLong());
+            } else {
+                session.flaps.incrementAndGet();
+            }
+        }
+        session.partialLength = in.remaining();
+        in.get(session.partial, 0, session.partialLength);
+        if (read < 0) {
+            disconnect(key, session);
+        }
+    }
+
+    /*
+     * Stops reading from a client and closes its connection. The shard removes
+     * the session on its next tick.
+     */
+    private static void disconnect(SelectionKey key, Session session) {
+        key.cancel();
+        session.closed = true;
+        close(session);
+    }
+
+    /*
+     * One client's game. The I/O thread only sets the requests (flaps, joinSeed,
+     * joinRequested, closed); everything else belongs to the shard thread.
+     */
+    private static final class Session {
+        final int id;
+        final SocketChannel channel;
+        final byte[] partial = new byte[ServerProtocol.MAX_MESSAGE_SIZE];  // Start of a message that has not fully arrived (I/O thread)
+        int partialLength;
+        final AtomicInteger flaps = new AtomicInteger();  // Flap messages since the last tick
+        volatile long joinSeed;  // Seed of the requested new game, written before joinRequested
+        volatile boolean joinRequested;  // Whether the client asked for a new game
+        volatile boolean closed;  // Whether the client went away
+
+        final GameEngine engine = new GameEngine(0);
+        final ByteBuffer out = ByteBuffer.allocate(MAX_PENDING_BYTES);  // Messages not yet taken by the socket
+        boolean playing;  // Whether a game is running
+        int lastY;  // Bird position last sent
+        int lastScore;  // Score last sent
+
+        Session(int id, SocketChannel channel) {
+            this.id = id;
+            this.channel = channel;
+        }
+
+        void join(long seed) {
+            joinSeed = seed;
+            joinRequested = true;
+        }
+    }
+
+    /*
+     * A group of sessions ticked together by one scheduler thread.
+     */
+    private static final class Shard implements Runnable {
+        final ConcurrentLinkedQueue<Session> joining = new ConcurrentLinkedQueue<>();  // Sessions accepted since the last tick
+        private final ArrayList<Session> sessions = new ArrayList<>();  // Sessions of the shard (shard thread only)
+        private final long origin = System.nanoTime();  // When the first tick was due
+        private long tickCount;  // Ticks run so far
+
+        // Statistics, guarded by this
+        private final LatencyHistogram tickTimes = new LatencyHistogram();  // Time to tick every session of the shard
+        private final LatencyHistogram lateness = new LatencyHistogram();  // How late each tick started
+        private long busyNanos;  // Total time spent ticking
+        private long sessionTicks;  // Session ticks simulated
+        private long overruns;  // Ticks that took longer than the tick period
+        private long ignoredFlaps;  // Flaps beyond the first one in a tick
+        private long dropped;  // Clients disconnected for not reading
+        private int sessionCount;  // Sessions at the last tick
+        private int playingCount;  // Sessions playing a game at the last tick
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long late = start - (origin + tickCount * GameCanvas.TICK_NANOS);
+            tickCount++;
+            Session joined;
+            while ((joined = joining.poll()) != null) {
+                sessions.add(joined);
+            }
+
+            long ticked = 0;
+            long ignored = 0;
+            long slow = 0;
+            int playing = 0;
+            for (int i = sessions.size() - 1; i >= 0; i--) {
+                Session session = sessions.get(i);
+                if (session.playing || session.joinRequested) {
+                    ticked++;
+                }
+                int flaps = session.flaps.getAndSet(0);
+                ignored += Math.max(0, flaps - 1);
+                int result;
+                try {
+                    result = tick(session, flaps > 0);
+                } catch (RuntimeException e) {
+                    // An exception leaving run() would make the scheduler stop ticking every session of the shard
+                    System.err.println("Dropping session " + session.id + " after an error: " + e);
+                    session.closed = true;
+                    result = GONE;
+                }
+                if (result != OK) {
+                    if (result == SLOW) {
+                        slow++;
+                    }
+                    close(session);
+                    // The order of the sessions does not matter, so fill the gap with the last one
+                    Session last = sessions.remove(sessions.size() - 1);
+                    if (i < sessions.size()) {
+                        sessions.set(i, last);
+                    }
+                } else if (session.playing) {
+                    playing++;
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            synchronized (this) {
+                tickTimes.record(elapsed);
+                lateness.record(late);
+                busyNanos += elapsed;
+                sessionTicks += ticked;
+                ignoredFlaps += ignored;
+                dropped += slow;
+                sessionCount = sessions.size();
+                playingCount = playing;
+                if (elapsed > GameCanvas.TICK_NANOS) {
+                    overruns++;
+                }
+            }
+        }
+
+        synchronized void addTo(Stats stats) {
+            stats.tickTimes.add(tickTimes);
+            stats.lateness.add(lateness);
+            stats.busyNanos += busyNanos;
+            stats.sessionTicks += sessionTicks;
+            stats.overruns += overruns;
+            stats.ignoredFlaps += ignoredFlaps;
+            stats.dropped += dropped;
+            stats.sessions += sessionCount;
+            stats.playing += playingCount;
+        }
+    }
+
+    /*
+     * Runs one tick of a session: starts a requested game, steps the engine,
+     * queues the tick's changes and writes what the socket will take.
+     */
+    private static int tick(Session session, boolean flap) {
+        if (session.closed) {
+            return GONE;
+        }
+        ByteBuffer out = session.out;
+        GameEngine engine = session.engine;
+        if (session.joinRequested) {
+            session.joinRequested = false;
+            engine.reset(session.joinSeed);
+            session.playing = true;
+            session.lastY = engine.getBird().getY();
+            session.lastScore = 0;
+            if (out.remaining() < ServerProtocol.MAX_MESSAGE_SIZE) {
+                return SLOW;
+            }
+            ServerProtocol.putWelcome(out, session.id, engine.getSeed(), engine.getPipes().height(0));
+        }
+        if (session.playing) {
+            engine.step(flap);
+            if (out.remaining() < 2 * ServerProtocol.MAX_MESSAGE_SIZE) {
+                return SLOW;
+            }
+            int y = engine.getBird().getY();
+            int score = engine.getScore();
+            PipeStore pipes = engine.getPipes();
+            int newest = pipes.size() - 1;
+            // A pipe that spawned on this tick is still at the right edge
+            boolean spawned = pipes.x(newest) == GameEngine.WIDTH;
+            int mask = (y != session.lastY ? ServerProtocol.Y : 0)
+                    | (score != session.lastScore ? ServerProtocol.SCORE : 0)
+                    | (spawned ? ServerProtocol.PIPE : 0)
+                    | (flap ? ServerProtocol.FLAPPED : 0);
+            ServerProtocol.putState(out, (int) engine.getTick(), mask, y, score, pipes.height(newest));
+            session.lastY = y;
+            session.lastScore = score;
+            if (engine.isGameOver()) {
+                ServerProtocol.putGameOver(out, (int) engine.getTick(), score);
+                session.playing = false;
+            }
+        }
+        if (out.position() > 0) {
+            out.flip();
+            try {
+                session.channel.write(out);
+            } catch (IOException e) {
+                return GONE;
+            } finally {
+                out.compact();
+            }
+        }
+        return OK;
+    }
+
+    private static void close(Session session) {
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Nothing more to do for a client that is gone
+        }
+    }
+
+    /*
+     * Statistics of all shards since the server started.
+     */
+    public static final class Stats {
+        public final long elapsedNanos;  // Time since the server started
+        public final int shards;  // Number of shards
+        public final LatencyHistogram tickTimes = new LatencyHistogram();  // Time to tick one shard
+        public final LatencyHistogram lateness = new LatencyHistogram();  // How late shard ticks started
+        public long busyNanos;  // Total time the shard threads spent ticking
+        public long sessionTicks;  // Game ticks simulated over all sessions
+        public long overruns;  // Shard ticks longer than the tick period
+        public long ignoredFlaps;  // Flaps dropped because a client flapped more than once in a tick
+        public long dropped;  // Clients disconnected for not reading their messages
+        public int sessions;  // Connected sessions
+        public int playing;  // Sessions playing a game
+
+        Stats(long elapsedNanos, int shards) {
+            this.elapsedNanos = elapsedNanos;
+            this.shards = shards;
+        }
+
+        /*
+         * Gets the fraction of the shard threads' time spent ticking, from 0 to 1.
+         */
+        public double utilization() {
+            return elapsedNanos == 0 ? 0 : (double) busyNanos / elapsedNanos / shards;
+        }
+
+        public String summary() {
+            return String.format("sessions=%d playing=%d session ticks/s=%,.0f utilization=%.1f%%%n"
+                            + "  shard tick %s%n  tick lateness %s%n  overruns=%d ignoredFlaps=%d dropped=%d%n",
+                    sessions, playing, sessionTicks * 1e9 / Math.max(1, elapsedNanos), 100 * utilization(),
+                    tickTimes.summary(), lateness.summary(), overruns, ignoredFlaps, dropped);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ServerProtocol.DEFAULT_PORT;
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(port, shards);
+        System.out.printf("Game server listening on port %d with %d shards%n", server.getPort(), shards);
+        while (true) {
+            Thread.sleep(5000);
+            System.out.print(server.stats().summary());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package flappybird;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * Plays recorded games of one course as ghost birds, next to a live game on the
+ * same seed.
+ *
+ * The replay archive is memory-mapped, and opening a race only notes where each
+ * ghost's flaps start in it. The flaps themselves are decoded one at a time as the
+ * race reaches them, so a race keeps a few numbers per ghost however long the
+ * recorded games are, and the operating system only reads the parts of the
+ * archive that are actually played. A ghost's height only depends on its flaps,
+ * so each ghost is just a Bird: there is no course to simulate, and the ghost
+ * disappears after the tick on which its game ended.
+ *
+ * A race is not thread-safe; it is stepped by the thread that draws it.
+ */
+public class GhostRace {
+
+    private final MappedByteBuffer archive;  // The whole archive file
+    private final long seed;  // Seed every ghost was played with
+    private final int size;  // Number of ghosts
+    private final Bird[] birds;  // The ghosts
+    private final int[] firstFlaps;  // Offset of each ghost's first flap gap in the archive
+    private final int[] flapCounts;  // Number of flaps of each ghost
+    private final long[] endTicks;  // Tick on which each ghost's game ended
+    private final int[] positions;  // Offset of each ghost's next undecoded flap gap
+    private final int[] flapsLeft;  // Flaps of each ghost not decoded yet
+    private final long[] nextFlaps;  // Tick of each ghost's next flap, or Long.MAX_VALUE
+    private long tick;  // Ticks played so far
+    private int cursor;  // Read position of readVarLong
+
+    /*
+     * Opens a race against the first maxGhosts replays of the archive that were
+     * played with the seed of its first replay.
+     */
+    public static GhostRace open(Path file, int maxGhosts) throws IOException {
+        return open(file, true, 0, maxGhosts);
+    }
+
+    /*
+     * Opens a race against the first maxGhosts replays of the archive that were
+     * played with the given seed.
+     */
+    public static GhostRace open(Path file, long seed, int maxGhosts) throws IOException {
+        return open(file, false, seed, maxGhosts);
+    }
+
+    private static GhostRace open(Path file, boolean firstSeed, long seed, int maxGhosts) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to race against (over 2 GB)");
+            }
+            return new GhostRace(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), firstSeed, seed, maxGhosts);
+        }
+    }
+
+    /*
+     * Finds the ghosts in the archive, reading only the record headers and
+     * skipping over the flaps without decoding them. A record cut off at the end
+     * of the file, such as one the game is still writing, is left out.
+     */
+    private GhostRace(MappedByteBuffer archive, boolean firstSeed, long wantedSeed, int maxGhosts) throws IOException {
+        this.archive = archive;
+        int limit = archive.limit();
+        for (int i = 0; i < ReplayWriter.MAGIC.length; i++) {
+            if (limit <= i || archive.get(i) != ReplayWriter.MAGIC[i]) {
+                throw new IOException("not a replay archive");
+            }
+        }
+        cursor = ReplayWriter.MAGIC.length;
+        long raceSeed = firstSeed && cursor + Long.BYTES <= limit ? archive.getLong(cursor) : wantedSeed;
+
+        int[] starts = new int[Math.min(maxGhosts, 64)];
+        int[] counts = new int[starts.length];
+        long[] ends = new long[starts.length];
+        int found = 0;
+        while (found < maxGhosts && cursor + Long.BYTES <= limit) {
+            long recordSeed = archive.getLong(cursor);
+            cursor += Long.BYTES;
+            long ticks;
+            int flapCount;
+            int start;
+            try {
+                ticks = readVarLong();
+                readVarLong(); // score
+                flapCount = (int) readVarLong();
+                start = cursor;
+                for (int i = 0; i < flapCount; i++) {
+                    skipVarLong();
+                }
+            } catch (IndexOutOfBoundsException e) {
+                break;
+            }
+            if (recordSeed == raceSeed) {
+                if (found == starts.length) {
+                    starts = Arrays.copyOf(starts, Math.min(maxGhosts, 2 * found));
+                    counts = Arrays.copyOf(counts, starts.length);
+                    ends = Arrays.copyOf(ends, starts.length);
+                }
+                starts[found] = start;
+                counts[found] = flapCount;
+                ends[found] = ticks;
+                found++;
+            }
+        }
+
+        this.seed = raceSeed;
+        this.size = found;
+        this.firstFlaps = starts;
+        this.flapCounts = counts;
+        this.endTicks = ends;
+        this.birds = new Bird[found];
+        for (int i = 0; i < found; i++) {
+            birds[i] = new Bird(GameEngine.BIRD_X, GameEngine.BIRD_START_Y);
+        }
+        this.positions = new int[found];
+        this.flapsLeft = new int[found];
+        this.nextFlaps = new long[found];
+        reset();
+    }
+
+    /*
+     * Puts every ghost back at the start of its game.
+     */
+    public void reset() {
+        tick = 0;
+        for (int i = 0; i < size; i++) {
+            birds[i].reset(GameEngine.BIRD_START_Y);
+            positions[i] = firstFlaps[i];
+            flapsLeft[i] = flapCounts[i];
+            nextFlaps[i] = 0;
+            decodeNextFlap(i);
+        }
+    }
+
+    /*
+     * Plays one tick of every ghost whose game has not ended, exactly as
+     * GameEngine.step plays the bird.
+     */
+    public void step() {
+        for (int i = 0; i < size; i++) {
+            if (tick < endTicks[i]) {
+                Bird bird = birds[i];
+                if (nextFlaps[i] == tick) {
+                    bird.flap();
+                    decodeNextFlap(i);
+                }
+                bird.update();
+            }
+        }
+        tick++;
+    }
+
+    /*
+     * Plays the race up to the given tick of a live game, starting over first if
+     * the live game restarted.
+     */
+    public void advanceTo(long liveTick) {
+        if (liveTick < tick) {
+            reset();
+        }
+        while (tick < liveTick) {
+            step();
+        }
+    }
+
+    /*
+     * Stores the y-coordinate of every ghost that is still shown in ys, which
+     * must hold size() values, and returns how many were stored. A ghost is shown
+     * up to the tick its game ended on.
+     */
+    public int visibleYs(int[] ys) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (tick <= endTicks[i]) {
+                ys[count++] = birds[i].getY();
+            }
+        }
+        return count;
+    }
+
+    /*
+     * Gets the seed every ghost was played with; the live game must use it too.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /*
+     * Gets the number of ghosts in the race.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /*
+     * Turns the next flap gap of ghost i into the tick of its next flap.
+     * Gaps count from the previous flap, and the first one from tick 0.
+     */
+    private void decodeNextFlap(int i) {
+        if (flapsLeft[i] == 0) {
+            nextFlaps[i] = Long.MAX_VALUE;
+            return;
+        }
+        cursor = positions[i];
+        nextFlaps[i] += readVarLong();
+        positions[i] = cursor;
+        flapsLeft[i]--;
+    }
+
+    /*
+     * Reads an unsigned LEB128 varint at the cursor.
+     */
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = archive.get(cursor++) & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed varint at " + cursor);
+    }
+
+    private void skipVarLong() {
+        while ((archive.get(cursor++) & 0x80) != 0) {
+            // Continuation bytes have the top bit set
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package flappybird;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/*
+ * Draws the ghosts of a GhostRace as translucent birds.
+ *
+ * Every ghost flies at the same x as the live bird, so ghosts that are at the
+ * same height are drawn on exactly the same pixels. Drawing n translucent copies
+ * of a sprite at one spot gives the same result as drawing it once with its
+ * alpha raised to 1 - (1 - alpha)^n, so the renderer counts the ghosts at each
+ * height and draws one pre-made sprite per height instead of one per ghost.
+ * The sprites for 1 to MAX_STACK ghosts are made once, already scaled and with
+ * the stacked alpha baked in, so a frame is a few dozen to a few hundred plain
+ * image copies however many ghosts there are.
+ */
+public class GhostRenderer {
+
+    static final float GHOST_ALPHA = 0.35f;  // Opacity of a single ghost
+    static final int MAX_STACK = 12;  // More ghosts at one height than this look the same (1 - 0.65^12 > 99.4%)
+
+    private final Image[] stacks = new Image[MAX_STACK];  // stacks[n - 1] looks like n ghosts at one spot
+    private final int[] counts = new int[2 * GameEngine.HEIGHT];  // Ghosts at each height of the current frame
+    private int[] heights = new int[0];  // Heights with at least one ghost in the current frame
+    private int[] ys = new int[0];  // Positions of the visible ghosts
+
+    public GhostRenderer() {
+        BufferedImage bird = Assets.scaled(Assets.BIRD, Bird.SIZE, Bird.SIZE);
+        int[] pixels = bird.getRGB(0, 0, Bird.SIZE, Bird.SIZE, null, 0, Bird.SIZE);
+        int[] stacked = new int[pixels.length];
+        for (int n = 1; n <= MAX_STACK; n++) {
+            for (int i = 0; i < pixels.length; i++) {
+                double alpha = GHOST_ALPHA * (pixels[i] >>> 24) / 255.0;
+                int stackedAlpha = (int) Math.round(255 * (1 - Math.pow(1 - alpha, n)));
+                stacked[i] = stackedAlpha << 24 | pixels[i] & 0xFFFFFF;
+            }
+            BufferedImage sprite = Assets.createCompatible(Bird.SIZE, Bird.SIZE, Transparency.TRANSLUCENT);
+            sprite.setRGB(0, 0, Bird.SIZE, Bird.SIZE, stacked, 0, Bird.SIZE);
+            stacks[n - 1] = sprite;
+        }
+    }
+
+    /*
+     * Draws every visible ghost of the race at its current position.
+     */
+    public void draw(Graphics2D g2d, GhostRace race) {
+        if (ys.length < race.size()) {
+            ys = new int[race.size()];
+            heights = new int[race.size()];
+        }
+        int visible = race.visibleYs(ys);
+        int heightCount = 0;
+        for (int i = 0; i < visible; i++) {
+            int y = ys[i];
+            if (y < 0 || y >= counts.length) {
+                continue;
+            }
+            if (counts[y]++ == 0) {
+                heights[heightCount++] = y;
+            }
+        }
+        for (int i = 0; i < heightCount; i++) {
+            int y = heights[i];
+            g2d.drawImage(stacks[Math.min(counts[y], MAX_STACK) - 1], GameEngine.BIRD_X, y, null);
+            counts[y] = 0;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package flappybird;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/*
+ * Writes frames of the game to an animated GIF that loops forever.
+ *
+ * A GIF has at most 256 colors per frame. ImageIO would pick a palette for every
+ * frame as it writes it, on the one thread that writes the file, so instead all
+ * frames share one palette and are reduced to it beforehand by quantize(), which
+ * any number of threads can run at once. The palette is chosen from the first
+ * frame: its most common colors (the sky, the ground, the pipes) are kept
+ * exactly, and a 6x6x6 color cube covers the rest. It is written once, as the
+ * file's global color table. The nearest palette color of every color, to 6 bits
+ * per channel, is looked up once and then kept in a table.
+ *
+ * quantize() can be called from many threads; write() must be called from one
+ * thread at a time, in the order of the frames.
+ */
+final class GifSequence implements AutoCloseable {
+
+    private static final int CUBE_LEVELS = 6;  // Levels per channel of the color cube
+    private static final int EXACT_COLORS = 256 - CUBE_LEVELS * CUBE_LEVELS * CUBE_LEVELS;  // Colors of the first frame kept exactly
+    private static final int UNKNOWN = -1;  // Table entry of a color not looked up yet
+
+    private final ImageWriter writer;  // ImageIO's GIF writer
+    private final ImageOutputStream output;  // The file being written
+    private final int delayCentis;  // Time each frame is shown, in 1/100 s
+    private volatile IndexColorModel palette;  // Colors of every frame, once chosen
+    private final short[] nearest = new short[1 << 18];  // Palette index of each color to 6 bits per channel, or UNKNOWN
+    private IIOMetadata firstMetadata;  // Frame delay and looping, for the first frame
+    private IIOMetadata metadata;  // Frame delay, for the other frames
+    private int frames;  // Frames written so far
+
+    /*
+     * Creates the file, replacing any file of that name, to show each frame for
+     * delayCentis hundredths of a second.
+     */
+    GifSequence(Path file, int delayCentis) throws IOException {
+        this.writer = ImageIO.getImageWritersByFormatName("gif").next();
+        Files.deleteIfExists(file);
+        this.output = ImageIO.createImageOutputStream(file.toFile());
+        this.delayCentis = delayCentis;
+        writer.setOutput(output);
+        Arrays.fill(nearest, (short) UNKNOWN);
+    }
+
+    /*
+     * Chooses the palette from the first frame. Must be called once, before any
+     * frame is quantized.
+     */
+    void choosePalette(BufferedImage first) {
+        int[] pixels = ((DataBufferInt) first.getRaster().getDataBuffer()).getData();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int pixel : pixels) {
+            counts.merge(pixel & 0xFFFFFF, 1, Integer::sum);
+        }
+        int[] common = counts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(EXACT_COLORS)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+
+        byte[] red = new byte[256];
+        byte[] green = new byte[256];
+        byte[] blue = new byte[256];
+        int size = 0;
+        for (int color : common) {
+            red[size] = (byte) (color >> 16);
+            green[size] = (byte) (color >> 8);
+            blue[size] = (byte) color;
+            // The color's own table entry is the color itself, so it is reproduced exactly
+            int cell = cell(color);
+            if (nearest[cell] == UNKNOWN) {
+                nearest[cell] = (short) size;
+            }
+            size++;
+        }
+        for (int r = 0; r < CUBE_LEVELS; r++) {
+            for (int g = 0; g < CUBE_LEVELS; g++) {
+                for (int b = 0; b < CUBE_LEVELS; b++) {
+                    red[size] = (byte) (r * 255 / (CUBE_LEVELS - 1));
+                    green[size] = (byte) (g * 255 / (CUBE_LEVELS - 1));
+                    blue[size] = (byte) (b * 255 / (CUBE_LEVELS - 1));
+                    size++;
+                }
+            }
+        }
+        palette = new IndexColorModel(8, 256, red, green, blue);  // Any entries left over are black; a GIF's table has a power of two
+    }
+
+    /*
+     * Creates an image in the palette, to quantize frames into.
+     */
+    BufferedImage createIndexedImage(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, palette);
+    }
+
+    /*
+     * Reduces a TYPE_INT_RGB frame to the palette, into an image of the same size
+     * made by createIndexedImage.
+     */
+    void quantize(BufferedImage frame, BufferedImage indexed) {
+        int[] pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        byte[] indices = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length; i++) {
+            int cell = cell(pixels[i]);
+            int index = nearest[cell];
+            if (index == UNKNOWN) {
+                // Threads that race here find the same color, so the table stays the same
+                index = closest(cell);
+                nearest[cell] = (short) index;
+            }
+            indices[i] = (byte) index;
+        }
+    }
+
+    /*
+     * Appends a quantized frame to the file.
+     */
+    void write(BufferedImage indexed) throws IOException {
+        if (metadata == null) {
+            writer.prepareWriteSequence(streamMetadata());
+            firstMetadata = frameMetadata(indexed, true);
+            metadata = frameMetadata(indexed, false);
+        }
+        writer.writeToSequence(new IIOImage(indexed, null, frames == 0 ? firstMetadata : metadata), null);
+        frames++;
+    }
+
+    /*
+     * Finishes the file and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (metadata != null) {
+                writer.endWriteSequence();
+            }
+        } finally {
+            output.close();
+            writer.dispose();
+        }
+    }
+
+    /*
+     * Gets the table entry of a color: its top 6 bits of red, green and blue.
+     */
+    private static int cell(int rgb) {
+        return (rgb >> 6 & 0x3F000) | (rgb >> 4 & 0xFC0) | (rgb >> 2 & 0x3F);
+    }
+
+    /*
+     * Finds the palette color nearest to the middle of a table entry.
+     */
+    private int closest(int cell) {
+        int r = (cell >> 12 << 2) + 2;
+        int g = ((cell >> 6 & 0x3F) << 2) + 2;
+        int b = ((cell & 0x3F) << 2) + 2;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.getMapSize(); i++) {
+            int dr = palette.getRed(i) - r;
+            int dg = palette.getGreen(i) - g;
+            int db = palette.getBlue(i) - b;
+            int distance = 2 * dr * dr + 4 * dg * dg + 3 * db * db;  // Weighted roughly by how the eye sees each channel
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Builds the metadata of the file, with the palette as its global color table.
+     */
+    private IIOMetadata streamMetadata() throws IOException {
+        IIOMetadata data = writer.getDefaultStreamMetadata(null);
+        String format = data.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) data.getAsTree(format);
+
+        IIOMetadataNode table = child(root, "GlobalColorTable");
+        colorTable(table);
+        table.setAttribute("sizeOfGlobalColorTable", Integer.toString(palette.getMapSize()));
+        table.setAttribute("backgroundColorIndex", "0");
+        data.setFromTree(format, root);
+        return data;
+    }
+
+    /*
+     * Replaces the entries of a color table node with the palette.
+     */
+    private void colorTable(IIOMetadataNode table) {
+        while (table.hasChildNodes()) {
+            table.removeChild(table.getFirstChild());
+        }
+        table.setAttribute("sortFlag", "FALSE");
+        for (int i = 0; i < palette.getMapSize(); i++) {
+            IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+            entry.setAttribute("index", Integer.toString(i));
+            entry.setAttribute("red", Integer.toString(palette.getRed(i)));
+            entry.setAttribute("green", Integer.toString(palette.getGreen(i)));
+            entry.setAttribute("blue", Integer.toString(palette.getBlue(i)));
+            table.appendChild(entry);
+        }
+    }
+
+    /*
+     * Builds the metadata of a frame: shown for the delay, then left in place,
+     * and for the first frame the extension that makes the animation loop.
+     */
+    private IIOMetadata frameMetadata(BufferedImage image, boolean first) throws IOException {
+        IIOMetadata data = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String format = data.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) data.getAsTree(format);
+
+        child(root, "ImageDescriptor").setAttribute("interlaceFlag", "FALSE");  // Interlacing only helps slow downloads
+        colorTable(child(root, "LocalColorTable"));  // The default is a generic palette; one matching the global table is left out
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(delayCentis));
+        control.setAttribute("transparentColorIndex", "0");
+
+        if (first) {
+            IIOMetadataNode extensions = child(root, "ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});  // Loop forever
+            extensions.appendChild(loop);
+        }
+        data.setFromTree(format, root);
+        return data;
+    }
+
+    /*
+     * Gets the child of a metadata node with the given name, adding it if there is none.
+     */
+    private static IIOMetadataNode child(IIOMetadataNode node, String name) {
+        for (int i = 0; i < node.getLength(); i++) {
+            if (node.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) node.item(i);
+            }
+        }
+        IIOMetadataNode child = new IIOMetadataNode(name);
+        node.appendChild(child);
+        return child;
+    }
+}
@@ -0,0 +1,111 @@
+package flappybird;
+
+/*
+ * Runs game sessions without a display, as fast as the CPU allows.
+ * Each session is a GameEngine driven by a FlapPolicy until the bird dies or a
+ * tick limit is reached. At the end the runner prints how many ticks were
+ * simulated per second, so it can be used to batch-simulate and benchmark the
+ * game on machines without a screen.
+ *
+ * Usage: java -cp game/target/classes flappybird.HeadlessRunner [sessions] [maxTicks] [seed] [idle|follow]
+ */
+public class HeadlessRunner {
+
+    /*
+     * Result of a batch of sessions.
+     */
+    public static final class Result {
+        public final int sessions;  // Number of sessions that were played
+        public final long ticks;  // Total number of ticks simulated over all sessions
+        public final long totalScore;  // Sum of the final scores of all sessions
+        public final int bestScore;  // Highest final score of any session
+        public final long elapsedNanos;  // Wall-clock time the batch took
+
+        Result(int sessions, long ticks, long totalScore, int bestScore, long elapsedNanos) {
+            this.sessions = sessions;
+            this.ticks = ticks;
+            this.totalScore = totalScore;
+            this.bestScore = bestScore;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /*
+         * Gets the number of simulated ticks per second of wall-clock time.
+         */
+        public double ticksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+        }
+    }
+
+    /*
+     * Plays a single session until the game is over or maxTicks ticks have been simulated.
+     * Returns the engine so the caller can inspect the final state.
+     */
+    public static GameEngine play(GameEngine engine, FlapPolicy policy, long maxTicks) {
+        while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+            engine.step(policy.shouldFlap(engine));
+        }
+        return engine;
+    }
+
+    /*
+     * Plays a single session like play(), timing every tick and its phases with the monitor.
+     */
+    public static GameEngine play(GameEngine engine, FlapPolicy policy, long maxTicks, PerfMonitor monitor) {
+        engine.setMonitor(monitor);
+        while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+            monitor.beginTick();
+            engine.step(policy.shouldFlap(engine));
+            monitor.endTick(engine.getTick());
+        }
+        engine.setMonitor(null);
+        return engine;
+    }
+
+    /*
+     * Plays the given number of sessions one after another. Session i is played
+     * with seed + i, so a batch can be repeated.
+     */
+    public static Result run(int sessions, long maxTicks, long seed, FlapPolicy policy) {
+        return run(sessions, maxTicks, seed, policy, null);
+    }
+
+    /*
+     * Plays a batch like run(), recording the ticks in the monitor unless it is null.
+     */
+    public static Result run(int sessions, long maxTicks, long seed, FlapPolicy policy, PerfMonitor monitor) {
+        long ticks = 0;
+        long totalScore = 0;
+        int bestScore = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            GameEngine engine = new GameEngine(seed + i);
+            if (monitor == null) {
+                play(engine, policy, maxTicks);
+            } else {
+                play(engine, policy, maxTicks, monitor);
+            }
+            ticks += engine.getTick();
+            totalScore += engine.getScore();
+            bestScore = Math.max(bestScore, engine.getScore());
+        }
+        return new Result(sessions, ticks, totalScore, bestScore, System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        FlapPolicy policy = args.length > 3 && args[3].equals("idle") ? FlapPolicy.idle() : FlapPolicy.followGap();
+
+        // With -Dflappybird.perf=true every tick is timed and the statistics are printed at the end
+        PerfMonitor monitor = Boolean.getBoolean("flappybird.perf") ? new PerfMonitor(0) : null;
+        Result result = run(sessions, maxTicks, seed, policy, monitor);
+        System.out.printf("sessions=%d ticks=%d elapsed=%.1f ms ticks/s=%,.0f meanScore=%.1f bestScore=%d%n",
+                result.sessions, result.ticks, result.elapsedNanos / 1e6, result.ticksPerSecond(),
+                (double) result.totalScore / result.sessions, result.bestScore);
+        if (monitor != null) {
+            System.out.print(monitor.snapshot().summary());
+        }
+    }
+}
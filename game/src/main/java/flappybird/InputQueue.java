@@ -0,0 +1,75 @@
+package flappybird;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * A lock-free queue of input timestamps between one producer thread (the EDT,
+ * where key events arrive) and one consumer thread (the thread that runs the
+ * game ticks).
+ *
+ * The timestamps live in a fixed ring of longs. The producer writes a slot and
+ * then publishes it by advancing tail; the consumer reads slots up to tail and
+ * frees them by advancing head. Each index is written by one thread only, so
+ * neither side ever waits for the other. When the ring is full, new inputs are
+ * dropped and counted.
+ */
+public class InputQueue {
+
+    static final long EMPTY = Long.MIN_VALUE;  // Returned by poll() when there is nothing queued
+
+    private final long[] stamps;  // Ring of queued timestamps
+    private final int mask;  // Capacity - 1, for wrapping indexes
+    private final AtomicLong head = new AtomicLong();  // Next slot to read; written by the consumer only
+    private final AtomicLong tail = new AtomicLong();  // Next slot to write; written by the producer only
+    private volatile long dropped;  // Inputs lost because the ring was full; written by the producer only
+
+    /*
+     * Creates a queue holding up to capacity timestamps; capacity must be a power of two.
+     */
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        stamps = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /*
+     * Queues a timestamp. Called by the producer thread only. Returns false if the
+     * queue was full and the input was dropped.
+     */
+    public boolean offer(long nanos) {
+        long t = tail.get();
+        if (t - head.get() == stamps.length) {
+            dropped++;
+            return false;
+        }
+        stamps[(int) t & mask] = nanos;
+        tail.set(t + 1); // Publishes the slot to the consumer
+        return true;
+    }
+
+    /*
+     * Takes the oldest queued timestamp, or returns EMPTY. Called by the consumer thread only.
+     */
+    public long poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return EMPTY;
+        }
+        long nanos = stamps[(int) h & mask];
+        head.set(h + 1); // Hands the slot back to the producer
+        return nanos;
+    }
+
+    /*
+     * Drops everything queued. Called by the consumer thread only.
+     */
+    public void clear() {
+        head.set(tail.get());
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,133 @@
+package flappybird;
+
+import java.util.Arrays;
+
+/*
+ * A histogram of durations in nanoseconds with a fixed number of buckets.
+ *
+ * Values below 32 ns get a bucket each; above that every power of two is split
+ * into 16 buckets, so a percentile is reported to within about 6% of the true
+ * value while the histogram stays at a fixed, small size for any duration.
+ * Recording a value is a few arithmetic operations and an array increment, with
+ * no allocation. The histogram is not thread-safe; PerfMonitor guards it.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // Buckets per power of two
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;  // Enough for any positive long
+
+    private final long[] counts = new long[BUCKETS];  // Number of values that fell in each bucket
+    private long count;  // Number of values recorded
+    private long sum;  // Sum of the values recorded
+    private long max;  // Largest value recorded
+
+    /*
+     * Records one duration. Negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /*
+     * Gets the value below which the given fraction (0 to 1) of the recorded
+     * values fall, or 0 if nothing was recorded.
+     */
+    public long percentile(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /*
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /*
+     * Adds every value recorded by another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /*
+     * Returns an independent copy of this histogram.
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(counts, 0, copy.counts, 0, BUCKETS);
+        copy.count = count;
+        copy.sum = sum;
+        copy.max = max;
+        return copy;
+    }
+
+    /*
+     * Returns "p50/p99/max" in microseconds.
+     */
+    public String summary() {
+        return String.format("p50=%.1f p99=%.1f max=%.1f us", percentile(0.5) / 1e3, percentile(0.99) / 1e3, max / 1e3);
+    }
+
+    /*
+     * Gets the bucket of a non-negative value: the value itself below 2 * SUB_BUCKETS,
+     * otherwise its top SUB_BUCKET_BITS + 1 bits and its magnitude.
+     */
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /*
+     * Gets the largest value that falls in a bucket.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,211 @@
+package flappybird;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/*
+ * Plays many games against a GameServer at once to measure how many sessions
+ * one machine can host.
+ *
+ * Every client is a connection handled by a single selector thread. A client
+ * starts a game, flaps whenever its bird sinks below the middle of the screen
+ * and starts the next game as soon as one ends, so every session is always
+ * playing. The generator measures the time from sending a flap until the state
+ * of the tick that applied it arrives, and how far apart the states of a session
+ * arrive compared to the 20 ms tick.
+ *
+ * With "local" instead of host:port the server runs in the same process, and its
+ * shard tick times and utilization are reported too, which gives the number of
+ * sessions one core can keep ticking.
+ *
+ * Usage: java -cp game/target/classes flappybird.LoadGenerator [sessions] [seconds] [local|host:port] [shards]
+ */
+public class LoadGenerator {
+
+    private static final int FLAP_BELOW_Y = GameEngine.HEIGHT / 2;  // Clients flap when the bird is at or below this
+
+    /*
+     * One simulated player.
+     */
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(GameServer.MAX_PENDING_BYTES);  // Received bytes not parsed yet
+        long seed;  // Seed of the next game
+        int y;  // Bird position from the last state
+        long flapSentNanos;  // When the unanswered flap was sent, or 0
+        long lastStateNanos;  // When the last state arrived, or 0
+
+        Client(SocketChannel channel, long seed) {
+            this.channel = channel;
+            this.seed = seed;
+        }
+    }
+
+    private final LatencyHistogram flapLatency = new LatencyHistogram();  // Flap sent to state showing it
+    private final LatencyHistogram stateJitter = new LatencyHistogram();  // Distance of state gaps from the tick period
+    private final ByteBuffer out = ByteBuffer.allocate(ServerProtocol.MAX_MESSAGE_SIZE);
+    private long states;  // STATE messages received
+    private long games;  // Games finished
+    private long bytes;  // Bytes received
+    private Client[] clients = new Client[0];  // Connected clients
+
+    /*
+     * Connects the clients, plays for the given time and returns the elapsed
+     * nanoseconds. The clients stay connected until close().
+     */
+    long run(InetSocketAddress address, int sessions, long seed, long durationNanos) throws IOException {
+        try (Selector selector = Selector.open()) {
+            clients = new Client[sessions];
+            for (int i = 0; i < sessions; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                clients[i] = new Client(channel, seed + i);
+                channel.register(selector, SelectionKey.OP_READ, clients[i]);
+                join(clients[i]);
+            }
+
+            long start = System.nanoTime();
+            long end = start + durationNanos;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                selector.select(Math.max(1, (end - now) / 1_000_000));
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Client client = (Client) key.attachment();
+                    int read = client.channel.read(client.in);
+                    if (read < 0) {
+                        throw new IOException("server closed the connection");
+                    }
+                    bytes += read;
+                    receive(client, System.nanoTime());
+                }
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    /*
+     * Disconnects every client.
+     */
+    void close() throws IOException {
+        for (Client client : clients) {
+            client.channel.close();
+        }
+    }
+
+    /*
+     * Handles every complete message a client has received.
+     */
+    private void receive(Client client, long now) throws IOException {
+        ByteBuffer in = client.in;
+        in.flip();
+        int length;
+        while (in.hasRemaining() && (length = ServerProtocol.serverMessageLength(in)) != 0) {
+            if (length < 0) {
+                throw new IOException("unknown message type " + in.get(in.position()));
+            }
+            if (in.remaining() < length) {
+                break;
+            }
+            int next = in.position() + length;
+            byte type = in.get();
+            if (type == ServerProtocol.STATE) {
+                in.getInt();
+                int mask = in.get();
+                if ((mask & ServerProtocol.Y) != 0) {
+                    client.y = in.getShort();
+                }
+                state(client, mask, now);
+            } else if (type == ServerProtocol.WELCOME) {
+                client.y = GameEngine.BIRD_START_Y;
+                client.lastStateNanos = 0;
+            } else if (type == ServerProtocol.GAME_OVER) {
+                games++;
+                join(client);
+            }
+            in.position(next);
+        }
+        in.compact();
+    }
+
+    /*
+     * Records the timing of a state and decides whether to flap.
+     */
+    private void state(Client client, int mask, long now) throws IOException {
+        states++;
+        if (client.lastStateNanos != 0) {
+            stateJitter.record(Math.abs(now - client.lastStateNanos - GameCanvas.TICK_NANOS));
+        }
+        client.lastStateNanos = now;
+        if ((mask & ServerProtocol.FLAPPED) != 0 && client.flapSentNanos != 0) {
+            flapLatency.record(now - client.flapSentNanos);
+            client.flapSentNanos = 0;
+        }
+        if (client.y >= FLAP_BELOW_Y && client.flapSentNanos == 0) {
+            out.clear();
+            out.put(ServerProtocol.FLAP);
+            send(client);
+            client.flapSentNanos = now;
+        }
+    }
+
+    private void join(Client client) throws IOException {
+        out.clear();
+        out.put(ServerProtocol.JOIN).putLong(client.seed++);
+        send(client);
+        client.flapSentNanos = 0;
+    }
+
+    private void send(Client client) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            client.channel.write(out);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+        String target = args.length > 2 ? args[2] : "local";
+        int shards = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        GameServer server = null;
+        InetSocketAddress address;
+        if (target.equals("local")) {
+            server = new GameServer(0, shards);
+            address = new InetSocketAddress("localhost", server.getPort());
+        } else {
+            int colon = target.lastIndexOf(':');
+            address = new InetSocketAddress(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)));
+        }
+
+        LoadGenerator generator = new LoadGenerator();
+        long elapsed = generator.run(address, sessions, 1, (long) (seconds * 1e9));
+        System.out.printf("sessions=%d elapsed=%.1f s states/s=%,.0f games=%d bytes/state=%.1f%n",
+                sessions, elapsed / 1e9, generator.states * 1e9 / elapsed, generator.games,
+                (double) generator.bytes / Math.max(1, generator.states));
+        System.out.println("  flap to state " + generator.flapLatency.summary());
+        System.out.println("  state interval jitter " + generator.stateJitter.summary());
+        if (server != null) {
+            GameServer.Stats stats = server.stats();
+            System.out.print(stats.summary());
+            // The load generator shares the machine, so only the server's own busy time counts
+            int cores = Runtime.getRuntime().availableProcessors();
+            System.out.printf("  cores=%d sessions per core=%.0f (%.0f at full utilization)%n", cores,
+                    (double) sessions / cores, sessions / Math.max(1e-9, stats.utilization() * stats.shards));
+        }
+        generator.close();
+        if (server != null) {
+            server.close();
+        }
+    }
+}
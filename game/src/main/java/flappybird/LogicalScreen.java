@@ -0,0 +1,171 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/*
+ * A back buffer at the game's logical resolution (GameEngine.WIDTH x HEIGHT)
+ * that is shown at any window size with one scaled image copy.
+ *
+ * Every frame is drawn into the buffer exactly as it would be drawn into a
+ * 500x500 window, so the renderer, the HUD and the overlays never deal with the
+ * real window size. present() then copies the buffer into the window in one
+ * drawImage call, centred, keeping its aspect ratio and filling the rest with
+ * black bars. The buffer is a VolatileImage when the screen allows it, so the
+ * copy, scaling included, can run on the graphics card and costs about the same
+ * at any window size.
+ *
+ * The scaling is worked out in device pixels, so on a HiDPI screen the buffer is
+ * scaled once to the real pixels instead of Swing scaling each draw call.
+ * INTEGER scaling uses the largest whole factor that fits and nearest-neighbour
+ * sampling, which keeps the sprites sharp; SMOOTH scaling fills as much of the
+ * window as possible with bilinear filtering. A window smaller than the logical
+ * size is always scaled down smoothly.
+ */
+public class LogicalScreen {
+
+    /*
+     * How the buffer is scaled to the window.
+     */
+    public enum Scaling {
+        INTEGER,
+        SMOOTH
+    }
+
+    static final int WIDTH = GameEngine.WIDTH;  // Logical width of every frame
+    static final int HEIGHT = GameEngine.HEIGHT;  // Logical height of every frame
+
+    private final Scaling scaling;
+    private Image buffer;  // The logical frame
+    private GraphicsConfiguration config;  // Configuration the buffer was made for
+
+    // Where the last frame was shown, in device pixels, and the device scale of the window
+    private int viewX;
+    private int viewY;
+    private int viewWidth = WIDTH;
+    private int viewHeight = HEIGHT;
+    private double deviceScaleX = 1;
+    private double deviceScaleY = 1;
+
+    public LogicalScreen(Scaling scaling) {
+        this.scaling = scaling;
+    }
+
+    /*
+     * Gets a graphics context for drawing the next frame into the buffer, in
+     * logical coordinates. The caller disposes it, and draws the frame again if
+     * contentsLost() returns true afterwards.
+     */
+    public Graphics2D beginFrame(GraphicsConfiguration gc) {
+        if (buffer == null || config != gc) {
+            create(gc);
+        }
+        if (buffer instanceof VolatileImage && ((VolatileImage) buffer).validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+            create(gc);
+        }
+        return (Graphics2D) buffer.getGraphics();
+    }
+
+    /*
+     * Returns whether the buffer lost its contents since beginFrame(), in which
+     * case the frame has to be drawn again.
+     */
+    public boolean contentsLost() {
+        return buffer instanceof VolatileImage && ((VolatileImage) buffer).contentsLost();
+    }
+
+    /*
+     * Copies the last frame into a target of width x height (in the target's own
+     * coordinates) with a single scaled drawImage, and paints the bars around it.
+     */
+    public void present(Graphics2D target, int width, int height) {
+        if (buffer == null) {
+            return;
+        }
+        AffineTransform transform = target.getTransform();
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+        int deviceWidth = (int) Math.round(width * scaleX);
+        int deviceHeight = (int) Math.round(height * scaleY);
+
+        int factor = Math.min(deviceWidth / WIDTH, deviceHeight / HEIGHT);
+        boolean integer = scaling == Scaling.INTEGER && factor >= 1;
+        int w;
+        int h;
+        if (integer) {
+            w = WIDTH * factor;
+            h = HEIGHT * factor;
+        } else {
+            double scale = Math.min((double) deviceWidth / WIDTH, (double) deviceHeight / HEIGHT);
+            w = Math.max(1, (int) Math.round(WIDTH * scale));
+            h = Math.max(1, (int) Math.round(HEIGHT * scale));
+        }
+        int x = (deviceWidth - w) / 2;
+        int y = (deviceHeight - h) / 2;
+        synchronized (this) {
+            viewX = x;
+            viewY = y;
+            viewWidth = w;
+            viewHeight = h;
+            deviceScaleX = scaleX;
+            deviceScaleY = scaleY;
+        }
+
+        // Draw in device pixels, keeping only the translation of the target
+        target.setTransform(AffineTransform.getTranslateInstance(transform.getTranslateX(), transform.getTranslateY()));
+        target.setColor(Color.BLACK);
+        if (y > 0) {
+            target.fillRect(0, 0, deviceWidth, y);
+            target.fillRect(0, y + h, deviceWidth, deviceHeight - y - h);
+        }
+        if (x > 0) {
+            target.fillRect(0, y, x, h);
+            target.fillRect(x + w, y, deviceWidth - x - w, h);
+        }
+        target.setRenderingHint(RenderingHints.KEY_INTERPOLATION, integer
+                ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+                : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        target.drawImage(buffer, x, y, w, h, null);
+        target.setTransform(transform);
+    }
+
+    /*
+     * Converts a point of the target (such as a mouse position) to logical
+     * coordinates, storing it in into. Returns false if the point lies outside
+     * the frame, on the bars.
+     */
+    public synchronized boolean toLogical(int x, int y, Point into) {
+        double deviceX = x * deviceScaleX - viewX;
+        double deviceY = y * deviceScaleY - viewY;
+        into.x = (int) Math.floor(deviceX * WIDTH / viewWidth);
+        into.y = (int) Math.floor(deviceY * HEIGHT / viewHeight);
+        return into.x >= 0 && into.y >= 0 && into.x < WIDTH && into.y < HEIGHT;
+    }
+
+    public Scaling getScaling() {
+        return scaling;
+    }
+
+    /*
+     * Creates the buffer, accelerated when the configuration allows it.
+     */
+    private void create(GraphicsConfiguration gc) {
+        if (buffer != null) {
+            buffer.flush();
+        }
+        buffer = null;
+        if (gc != null) {
+            try {
+                buffer = gc.createCompatibleVolatileImage(WIDTH, HEIGHT, Transparency.OPAQUE);
+            } catch (UnsupportedOperationException e) {
+                buffer = null; // Fall back to a plain image below
+            }
+        }
+        if (buffer == null) {
+            buffer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        }
+        config = gc;
+    }
+}
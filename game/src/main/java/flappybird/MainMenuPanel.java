@@ -0,0 +1,107 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.*;
+
+/**
+ * Represents the main menu panel of the Flappy Bird game.
+ * This panel displays the game title and a start button. The background and layout
+ * are thoughtfully designed to resemble the game’s initial screen.
+ * When the start button is clicked, the game screen is displayed.
+ *
+ * The menu is shown while the game's images are still being decoded, so it
+ * starts with just its background: the title and the button appear once the
+ * images are ready (showImages), and the button works once the game is (setReady).
+ */
+public class MainMenuPanel extends JPanel {
+
+    private final JLabel titleLabel;
+    private final JButton startButton;
+    private final SceneManager scenes;
+    
+    /*
+     * Constructor to set up the main menu screen.
+     * Initializes the background, title label, and start button, which stay hidden until showImages().
+     * The start button is linked to an action that transitions to the game screen.
+     * 
+     * The background of the menu consists of a sky, clouds, and grass, 
+     * with a central title and start button.
+     */
+    public MainMenuPanel(SceneManager scenes) {
+        this.scenes = scenes;
+        this.setPreferredSize(new Dimension(500, 500));
+        this.setBackground(new Color(0x59CCC9));
+        this.setLayout(null);
+
+        // Set up the title label; its image and position in the center of the panel come with showImages()
+        titleLabel = new JLabel();
+        titleLabel.setVisible(false);
+        this.add(titleLabel);
+
+        // Set up the start button near the bottom, disabled until the game is ready
+        startButton = new JButton();
+        startButton.setBounds(157, 300, 156, 60);
+        startButton.setVisible(false);
+        startButton.setEnabled(false);
+        this.add(startButton);
+
+        // Add an ActionListener to the start button that triggers the transition to the game screen
+        startButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                playSound(SoundEffect.CLICK);
+                scenes.startGame(); // Switch to the game screen, which is kept alive between games
+            }
+        });
+    }
+
+    /*
+     * Shows the title and the start button, once their images have been decoded. Must be called on the EDT.
+     */
+    public void showImages() {
+        titleLabel.setIcon(new ImageIcon(Assets.image(Assets.TITLE)));
+        titleLabel.setBounds(107, 50, titleLabel.getPreferredSize().width, titleLabel.getPreferredSize().height);
+        titleLabel.setVisible(true);
+        ImageIcon startIcon = new ImageIcon(Assets.image(Assets.START_BUTTON));
+        startButton.setIcon(startIcon);
+        startButton.setDisabledIcon(startIcon);
+        startButton.setVisible(true);
+    }
+
+    /*
+     * Lets the start button start a game. Must be called on the EDT.
+     */
+    public void setReady() {
+        startButton.setEnabled(true);
+    }
+
+    /**
+     * Plays a sound effect when an action occurs (clicking the start button).
+     *
+     * The effect was decoded once when the game started and is mixed by the shared
+     * AudioEngine on its own thread, so this returns immediately.
+     */
+    private void playSound(SoundEffect effect) {
+        AudioEngine.shared().play(effect);
+    }
+
+    /**
+     * Custom paint method to render the background and other visual elements of the main menu.
+     * This method handles drawing the sky, clouds, ground, and grass, creating a aesthetic background 
+     * for the player while they are on the main menu screen.
+     * 
+     * The background elements are drawn in layers to simulate a 2D landscape with rolling clouds
+     * and layered hills. They are painted once into the shared BackgroundCache (see Scenery.MENU)
+     * and copied from there on every repaint.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+
+        // Draw the sky, hills, ground and clouds from the shared pre-rendered background
+        BackgroundCache.shared().draw(g2d, Scenery.MENU, getWidth(), getHeight());
+        StartupReport.shared().mark(StartupReport.Phase.MENU_FRAME);
+    }
+}
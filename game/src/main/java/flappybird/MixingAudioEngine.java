@@ -0,0 +1,269 @@
+package flappybird;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sound.sampled.*;
+
+/*
+ * An AudioEngine that mixes its sound effects itself on a dedicated audio thread.
+ *
+ * Every SoundEffect is decoded once, when the engine is created, into 16-bit PCM
+ * samples in a single mixing format. Playing an effect only queues a trigger. The
+ * audio thread turns each trigger into a voice, adds up all active voices in short
+ * periods and writes the result to one SourceDataLine that stays open for the life
+ * of the engine. This avoids opening a new Clip (and leaking its line) for every
+ * sound. Overlapping effects are mixed together up to a voice cap; when the cap is
+ * reached the oldest voice is dropped.
+ *
+ * For every voice the engine measures the trigger-to-playback latency: the time
+ * from play() until the voice's first samples are written, plus the audio already
+ * queued in the line ahead of them.
+ */
+public class MixingAudioEngine implements AudioEngine {
+
+    static final int DEFAULT_MAX_VOICES = 8;  // Most effects that can sound at once
+    static final AudioFormat MIX_FORMAT = new AudioFormat(44_100f, 16, 2, true, false);  // Format of click.wav
+    private static final int PERIOD_FRAMES = 441;  // Frames mixed per write (10 ms)
+    private static final int LINE_PERIODS = 4;  // Size of the line's buffer, in periods
+
+    private final short[][] samples;  // Decoded interleaved samples of each effect, by ordinal
+    private final int maxVoices;  // Voice cap
+    private final LinkedBlockingQueue<Trigger> triggers = new LinkedBlockingQueue<>();  // Effects waiting to start
+    private final SourceDataLine line;  // The single line everything is mixed into
+    private final Thread mixerThread;  // Thread running mixLoop
+    private volatile boolean running = true;  // Whether the mixer thread should keep going
+
+    // Mixer-thread state, reused for every period
+    private final short[][] voiceSamples;  // Samples of each active voice
+    private final int[] voicePositions;  // Next sample of each active voice
+    private final long[] voiceTriggers;  // Trigger time of each active voice, or 0 once its latency was recorded
+    private int voiceCount;  // Number of active voices
+    private final int[] mix = new int[PERIOD_FRAMES * 2];  // Sum of all voices for one period
+    private final byte[] out = new byte[PERIOD_FRAMES * 4];  // The period as bytes for the line
+
+    // Latency statistics, written by the mixer thread
+    private final AtomicLong played = new AtomicLong();  // Voices that reached the line
+    private final AtomicLong dropped = new AtomicLong();  // Voices cut off by the voice cap
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private volatile long maxLatencyNanos;
+    private volatile long lastLatencyNanos;
+
+    /*
+     * A request to start an effect, stamped with the time play() was called.
+     */
+    private static final class Trigger {
+        final SoundEffect effect;
+        final long nanos;
+
+        Trigger(SoundEffect effect, long nanos) {
+            this.effect = effect;
+            this.nanos = nanos;
+        }
+    }
+
+    /*
+     * Decodes every effect, opens the audio line and starts the mixer thread.
+     * Throws IllegalStateException if an effect cannot be decoded or no line is available.
+     */
+    public MixingAudioEngine(int maxVoices) {
+        this.maxVoices = maxVoices;
+        this.voiceSamples = new short[maxVoices][];
+        this.voicePositions = new int[maxVoices];
+        this.voiceTriggers = new long[maxVoices];
+
+        SoundEffect[] effects = SoundEffect.values();
+        samples = new short[effects.length][];
+        for (SoundEffect effect : effects) {
+            samples[effect.ordinal()] = decode(effect);
+        }
+
+        try {
+            line = AudioSystem.getSourceDataLine(MIX_FORMAT);
+            line.open(MIX_FORMAT, PERIOD_FRAMES * 4 * LINE_PERIODS);
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            throw new IllegalStateException("no audio line for " + MIX_FORMAT, e);
+        }
+
+        mixerThread = new Thread(this::mixLoop, "audio-mixer");
+        mixerThread.setDaemon(true);
+        mixerThread.setPriority(Thread.MAX_PRIORITY);
+        mixerThread.start();
+    }
+
+    @Override
+    public void play(SoundEffect effect) {
+        if (running) {
+            triggers.offer(new Trigger(effect, System.nanoTime()));
+        }
+    }
+
+    /*
+     * Gets the number of voices that have reached the audio line.
+     */
+    public long getPlayedCount() {
+        return played.get();
+    }
+
+    /*
+     * Gets the number of voices that were cut off because too many were playing.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /*
+     * Gets the mean trigger-to-playback latency in microseconds.
+     */
+    public double getAverageLatencyMicros() {
+        long count = played.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / 1e3 / count;
+    }
+
+    public double getMaxLatencyMicros() {
+        return maxLatencyNanos / 1e3;
+    }
+
+    public double getLastLatencyMicros() {
+        return lastLatencyNanos / 1e3;
+    }
+
+    @Override
+    public String latencySummary() {
+        return String.format("played=%d dropped=%d latency avg=%.0f us max=%.0f us last=%.0f us",
+                getPlayedCount(), getDroppedCount(), getAverageLatencyMicros(), getMaxLatencyMicros(), getLastLatencyMicros());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        mixerThread.interrupt();
+        try {
+            mixerThread.join(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        line.stop();
+        line.close();
+    }
+
+    /*
+     * The mixer thread. While nothing is playing it waits for a trigger, so a new
+     * effect is written to an empty line and starts as soon as possible. While
+     * voices are active it mixes and writes one period at a time; the blocking
+     * write keeps the loop in step with the sound card.
+     */
+    private void mixLoop() {
+        try {
+            while (running) {
+                if (voiceCount == 0) {
+                    start(triggers.take());
+                }
+                Trigger trigger;
+                while ((trigger = triggers.poll()) != null) {
+                    start(trigger);
+                }
+                int queuedBytes = line.getBufferSize() - line.available();
+                mixPeriod(queuedBytes);
+                line.write(out, 0, out.length);
+            }
+        } catch (InterruptedException e) {
+            // close() was called
+        }
+    }
+
+    /*
+     * Turns a trigger into an active voice, dropping the oldest voice if the cap is reached.
+     */
+    private void start(Trigger trigger) {
+        if (voiceCount == maxVoices) {
+            removeVoice(0);
+            dropped.incrementAndGet();
+        }
+        voiceSamples[voiceCount] = samples[trigger.effect.ordinal()];
+        voicePositions[voiceCount] = 0;
+        voiceTriggers[voiceCount] = trigger.nanos;
+        voiceCount++;
+    }
+
+    /*
+     * Mixes the next period of every active voice into out, recording the latency
+     * of voices that are heard for the first time and removing finished ones.
+     */
+    private void mixPeriod(int queuedBytes) {
+        Arrays.fill(mix, 0);
+        long now = System.nanoTime();
+        long queuedNanos = (long) (queuedBytes / 4 * 1e9 / MIX_FORMAT.getSampleRate());
+        for (int v = voiceCount - 1; v >= 0; v--) {
+            short[] voice = voiceSamples[v];
+            int position = voicePositions[v];
+            int count = Math.min(mix.length, voice.length - position);
+            for (int i = 0; i < count; i++) {
+                mix[i] += voice[position + i];
+            }
+            if (voiceTriggers[v] != 0) {
+                recordLatency(now - voiceTriggers[v] + queuedNanos);
+                voiceTriggers[v] = 0;
+            }
+            voicePositions[v] = position + count;
+            if (voicePositions[v] >= voice.length) {
+                removeVoice(v);
+            }
+        }
+        for (int i = 0; i < mix.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            out[2 * i] = (byte) sample;
+            out[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /*
+     * Removes a voice, keeping the remaining voices in the order they were started.
+     */
+    private void removeVoice(int index) {
+        for (int i = index + 1; i < voiceCount; i++) {
+            voiceSamples[i - 1] = voiceSamples[i];
+            voicePositions[i - 1] = voicePositions[i];
+            voiceTriggers[i - 1] = voiceTriggers[i];
+        }
+        voiceCount--;
+        voiceSamples[voiceCount] = null;
+    }
+
+    private void recordLatency(long nanos) {
+        played.incrementAndGet();
+        totalLatencyNanos.addAndGet(nanos);
+        lastLatencyNanos = nanos;
+        if (nanos > maxLatencyNanos) {
+            maxLatencyNanos = nanos;
+        }
+    }
+
+    /*
+     * Decodes an effect's file into interleaved 16-bit samples in the mixing format.
+     */
+    static short[] decode(SoundEffect effect) {
+        URL url = Assets.url(effect.getFile());
+        if (url == null) {
+            throw new IllegalStateException("Missing asset: " + effect.getFile());
+        }
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(url);
+             InputStream pcm = AudioSystem.getAudioInputStream(MIX_FORMAT, source)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            pcm.transferTo(bytes);
+            byte[] data = bytes.toByteArray();
+            short[] decoded = new short[data.length / 2];
+            for (int i = 0; i < decoded.length; i++) {
+                decoded[i] = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8));
+            }
+            return decoded;
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("could not decode " + effect.getFile(), e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package flappybird;
+
+/*
+ * A FlapPolicy controlled by a tiny neural network, used as the autopilot that
+ * Trainer evolves.
+ *
+ * The network sees four numbers about the game (how far the bird is from the
+ * middle of the next gap, its velocity, how far away the next pipe is and its
+ * height on the screen), passes them through one hidden layer of tanh units and
+ * flaps when its single output is positive. The weights are a flat double[] of
+ * WEIGHT_COUNT values, so they can be mutated and crossed over as a genome.
+ *
+ * A policy keeps its hidden layer in a scratch array, so deciding allocates
+ * nothing, and one instance must not be shared between threads.
+ */
+public class NeuralPolicy implements FlapPolicy {
+
+    static final int INPUTS = 4;  // Values the network sees
+    static final int HIDDEN = 6;  // Units in the hidden layer
+    static final int WEIGHT_COUNT = (INPUTS + 1) * HIDDEN + HIDDEN + 1;  // Including one bias per unit
+
+    private double[] weights;  // Genome: hidden weights and biases, then output weights and bias
+    private final double[] inputs = new double[INPUTS];  // Scratch input layer
+    private final double[] hidden = new double[HIDDEN];  // Scratch hidden layer
+
+    public NeuralPolicy(double[] weights) {
+        setWeights(weights);
+    }
+
+    /*
+     * Replaces the genome, so one policy can evaluate many genomes in turn.
+     */
+    public void setWeights(double[] weights) {
+        if (weights.length != WEIGHT_COUNT) {
+            throw new IllegalArgumentException("expected " + WEIGHT_COUNT + " weights, got " + weights.length);
+        }
+        this.weights = weights;
+    }
+
+    @Override
+    public boolean shouldFlap(GameEngine engine) {
+        Bird bird = engine.getBird();
+        PipeStore pipes = engine.getPipes();
+        int next = engine.getNextPipe();
+        double gapCenter = GameEngine.HEIGHT / 2.0;
+        double distance = 1;
+        if (next < pipes.size()) {
+            gapCenter = pipes.height(next) + Pipe.GAP / 2.0;
+            distance = (pipes.x(next) + Pipe.WIDTH - bird.getX()) / (double) GameEngine.WIDTH;
+        }
+        inputs[0] = (gapCenter - bird.getY() - Bird.SIZE / 2.0) / (GameEngine.HEIGHT / 2.0);
+        inputs[1] = bird.getVelocity() / 10.0;
+        inputs[2] = distance;
+        inputs[3] = bird.getY() / (double) GameEngine.HEIGHT;
+        return output() > 0;
+    }
+
+    /*
+     * Runs the network on the current inputs.
+     */
+    private double output() {
+        int w = 0;
+        for (int h = 0; h < HIDDEN; h++) {
+            double sum = weights[w++];
+            for (int i = 0; i < INPUTS; i++) {
+                sum += weights[w++] * inputs[i];
+            }
+            hidden[h] = StrictMath.tanh(sum); // Math.tanh may differ between JVMs, and so would the Trainer's choices
+        }
+        double out = weights[w++];
+        for (int h = 0; h < HIDDEN; h++) {
+            out += weights[w++] * hidden[h];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,289 @@
+package flappybird;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * A scrolling background made of layers that move at different speeds: the sky
+ * with its clouds, three rows of hills and the brick ground, which moves with
+ * the pipes.
+ *
+ * Each layer is painted once, with plain 2D shapes, into a strip as wide as the
+ * screen that wraps around seamlessly: every shape is painted three times, one
+ * strip width apart, so whatever sticks out of one edge comes back in at the
+ * other. A strip only covers the rows its layer uses. Drawing a frame is then
+ * copying each strip twice, side by side, placed by how far the layer has
+ * scrolled at the current tick, and no shape is filled while the game is running.
+ *
+ * The hill strips are transparent above the hills, and copying an image with
+ * transparency costs several times more than an opaque copy when Java 2D has to
+ * blend in software. So each strip is cut into TILE_WIDTH wide columns, and each
+ * column is split into at most two images: the rows where the hill tops are
+ * jagged keep their transparency, the rows below them are opaque, and the empty
+ * sky above them is not drawn at all. Only a thin band along the skyline is then
+ * blended, for a few more (cheap) image copies per layer.
+ *
+ * The scroll position only depends on the game time, so the background stops
+ * when the game does and is the same in every replay of a game. One background
+ * is shared by every screen, and drawing may happen on the EDT or on the
+ * active-rendering loop thread, so draw() is synchronized.
+ */
+public class ParallaxBackground {
+
+    static final int STRIP_WIDTH = GameEngine.WIDTH;  // Width of every strip, and the period of the scenery
+    static final int TILE_WIDTH = 50;  // Width of the columns each strip is cut into
+
+    private static final ParallaxBackground SHARED = new ParallaxBackground();
+
+    /*
+     * The layers, back to front. Each one covers rows top to top + height and
+     * moves left by speed pixels per tick.
+     */
+    enum Layer {
+
+        /*
+         * The sky and its clouds, drifting slowly.
+         */
+        CLOUDS(0, 420, 0.5, Transparency.OPAQUE) {
+            @Override
+            void paint(Graphics2D g2d) {
+                g2d.setColor(Scenery.SKY);
+                g2d.fillRect(0, 0, STRIP_WIDTH, 420);
+                cloud(g2d, 10, 16, 1.0);
+                cloud(g2d, 180, 190, 0.7);
+                cloud(g2d, 407, 95, 0.75);
+            }
+        },
+
+        /*
+         * The palest, tallest hills at the back.
+         */
+        BACK_HILLS(150, 270, 1, Transparency.BITMASK) {
+            @Override
+            void paint(Graphics2D g2d) {
+                g2d.setColor(new Color(0x77F846));
+                g2d.fillArc(-50, 180, 300, 565, 0, 180);
+                g2d.fillArc(120, 230, 300, 525, 0, 180);
+                g2d.fillArc(300, 150, 300, 650, 0, 180);
+                g2d.fillOval(188, 252, 20, 30);
+                g2d.fillOval(398, 250, 20, 30);
+                g2d.fillOval(322, 250, 20, 30);
+                g2d.fillOval(332, 248, 20, 30);
+            }
+        },
+
+        MIDDLE_HILLS(250, 170, 2, Transparency.BITMASK) {
+            @Override
+            void paint(Graphics2D g2d) {
+                g2d.setColor(new Color(0x46EA09));
+                g2d.fillArc(-20, 250, 190, 350, 0, 200);
+                g2d.fillArc(300, 270, 220, 350, 0, 200);
+            }
+        },
+
+        FRONT_HILLS(270, 150, 3, Transparency.BITMASK) {
+            @Override
+            void paint(Graphics2D g2d) {
+                g2d.setColor(new Color(0x3FD108));
+                g2d.fillArc(-70, 310, 250, 500, 0, 180);
+                g2d.fillArc(120, 270, 270, 500, 0, 180);
+                g2d.fillArc(300, 320, 265, 400, 0, 180);
+            }
+        },
+
+        /*
+         * The brick ground, which moves with the pipes.
+         */
+        GROUND(420, 80, Pipe.SPEED, Transparency.OPAQUE) {
+            @Override
+            void paint(Graphics2D g2d) {
+                g2d.setColor(new Color(0xE6C28B));
+                g2d.fillRect(0, 420, STRIP_WIDTH, 20);
+                g2d.setColor(new Color(0xB98E5A));
+                g2d.fillRect(0, 440, STRIP_WIDTH, 60);
+                g2d.setColor(new Color(0x896B12));
+                // The strip is a whole number of bricks wide, so the bricks line up across the seam
+                for (int x = 5; x < STRIP_WIDTH; x += 25) {
+                    g2d.fillRect(x, 440, 5, 60);
+                }
+            }
+        };
+
+        final int top;  // First row the layer covers
+        final int height;  // Number of rows the layer covers
+        final double speed;  // Pixels the layer moves left per tick
+        final int transparency;  // Transparency of the layer's strip
+
+        Layer(int top, int height, double speed, int transparency) {
+            this.top = top;
+            this.height = height;
+            this.speed = speed;
+            this.transparency = transparency;
+        }
+
+        /*
+         * Paints the layer's shapes for one strip, in screen coordinates.
+         */
+        abstract void paint(Graphics2D g2d);
+
+        /*
+         * Gets how far the layer has scrolled at the given game time, in 20 ms
+         * ticks, from 0 to STRIP_WIDTH - 1.
+         */
+        int offset(double time) {
+            return (int) ((long) (time * speed) % STRIP_WIDTH);
+        }
+    }
+
+    private final Image[][] images = new Image[Layer.values().length][];  // Pieces of each layer's strip
+    private final int[][] xs = new int[images.length][];  // Column of each piece within its strip
+    private final int[][] ys = new int[images.length][];  // Screen row of each piece
+    private boolean created;  // Whether the strips have been painted
+
+    /*
+     * Gets the background shared by all screens of the game.
+     */
+    public static ParallaxBackground shared() {
+        return SHARED;
+    }
+
+    /*
+     * Draws every layer as scrolled at the given game time, in (possibly
+     * fractional) 20 ms ticks, with the top-left corner of the scenery at (0, 0),
+     * covering width pixels across.
+     */
+    public synchronized void draw(Graphics2D g2d, double time, int width) {
+        prepare();
+        for (Layer layer : Layer.values()) {
+            Image[] pieces = images[layer.ordinal()];
+            int[] pieceXs = xs[layer.ordinal()];
+            int[] pieceYs = ys[layer.ordinal()];
+            for (int x = -layer.offset(time); x < width; x += STRIP_WIDTH) {
+                for (int i = 0; i < pieces.length; i++) {
+                    int pieceX = x + pieceXs[i];
+                    if (pieceX < width && pieceX + TILE_WIDTH > 0) {
+                        g2d.drawImage(pieces[i], pieceX, pieceYs[i], null);
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Paints the strips of every layer, unless that was done before. The first
+     * draw() does it otherwise, so calling this early (say, while the game starts
+     * up) takes the work out of the first frame.
+     */
+    public synchronized void prepare() {
+        if (!created) {
+            for (Layer layer : Layer.values()) {
+                createStrip(layer);
+            }
+            created = true;
+        }
+    }
+
+    /*
+     * Paints a layer's strip, wrapping the shapes that cross either edge, and
+     * cuts it into its pieces: for each column, the rows with both transparent
+     * and covered pixels, then the fully covered rows below them.
+     */
+    private void createStrip(Layer layer) {
+        BufferedImage strip = new BufferedImage(STRIP_WIDTH, layer.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = strip.createGraphics();
+        try {
+            g2d.translate(-STRIP_WIDTH, -layer.top);
+            for (int copy = 0; copy < 3; copy++) {
+                layer.paint(g2d);
+                g2d.translate(STRIP_WIDTH, 0);
+            }
+        } finally {
+            g2d.dispose();
+        }
+
+        List<Image> pieces = new ArrayList<>();
+        List<Integer> pieceXs = new ArrayList<>();
+        List<Integer> pieceYs = new ArrayList<>();
+        int[] row = new int[TILE_WIDTH];
+        for (int x = 0; x < STRIP_WIDTH; x += TILE_WIDTH) {
+            // Skip the empty rows at the top, then find the first row from which every pixel down is opaque
+            int first = 0;
+            while (first < layer.height && alphas(strip, x, first, row) == 0) {
+                first++;
+            }
+            int split = layer.height;
+            while (split > first && alphas(strip, x, split - 1, row) == TILE_WIDTH) {
+                split--;
+            }
+            if (first < split) {
+                pieces.add(copy(strip, x, first, split - first, layer.transparency));
+                pieceXs.add(x);
+                pieceYs.add(layer.top + first);
+            }
+            if (split < layer.height) {
+                pieces.add(copy(strip, x, split, layer.height - split, Transparency.OPAQUE));
+                pieceXs.add(x);
+                pieceYs.add(layer.top + split);
+            }
+        }
+
+        int i = layer.ordinal();
+        images[i] = pieces.toArray(new Image[0]);
+        xs[i] = pieceXs.stream().mapToInt(Integer::intValue).toArray();
+        ys[i] = pieceYs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /*
+     * Counts the fully opaque pixels of one row of a strip's column, or returns 0
+     * if every pixel is fully transparent.
+     */
+    private static int alphas(BufferedImage strip, int x, int y, int[] row) {
+        strip.getRGB(x, y, TILE_WIDTH, 1, row, 0, TILE_WIDTH);
+        int opaque = 0;
+        boolean empty = true;
+        for (int pixel : row) {
+            if (pixel >>> 24 == 0xFF) {
+                opaque++;
+            }
+            empty &= pixel >>> 24 == 0;
+        }
+        return empty ? 0 : Math.max(opaque, 1);
+    }
+
+    /*
+     * Copies part of a strip's column into an image in the screen's format.
+     */
+    private static Image copy(BufferedImage strip, int x, int y, int height, int transparency) {
+        BufferedImage image = Assets.createCompatible(TILE_WIDTH, height, transparency);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.drawImage(strip, -x, -y, null);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    /*
+     * Draws a cloud of the game's scenery with its top-left corner near (x, y),
+     * scaled by the given factor.
+     */
+    private static void cloud(Graphics2D g2d, int x, int y, double scale) {
+        Graphics2D cloud = (Graphics2D) g2d.create();
+        try {
+            cloud.translate(x, y);
+            cloud.scale(scale, scale);
+            cloud.setColor(new Color(0xF9F5EA));
+            cloud.fillOval(12, 0, 65, 45);
+            cloud.fillOval(0, 17, 50, 37);
+            cloud.fillOval(40, 17, 50, 37);
+            cloud.fillRoundRect(2, 37, 85, 20, 40, 40);
+            cloud.setColor(new Color(0xDADAD9));
+            cloud.fillArc(10, 45, 75, 12, 200, 180);
+        } finally {
+            cloud.dispose();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package flappybird;
+
+import jdk.jfr.*;
+
+/*
+ * The custom JDK Flight Recorder events of the game, emitted by PerfMonitor.
+ * They show up under "Flappy Bird" in a recording, for example one started with
+ * -XX:StartFlightRecording. An event is only created while a recording has it
+ * enabled, so they cost nothing otherwise.
+ */
+final class PerfEvents {
+
+    private PerfEvents() {
+    }
+
+    /*
+     * One measured phase of a tick or a frame.
+     */
+    @Name("flappybird.Phase")
+    @Label("Game Phase")
+    @Category("Flappy Bird")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    /*
+     * One game tick: its duration, how far it was from the target interval and
+     * what it allocated.
+     */
+    @Name("flappybird.Tick")
+    @Label("Game Tick")
+    @Category("Flappy Bird")
+    @StackTrace(false)
+    static final class TickEvent extends Event {
+        @Label("Tick")
+        long tick;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+
+        @Label("Interval")
+        @Description("Time since the previous tick started")
+        @Timespan(Timespan.NANOSECONDS)
+        long interval;
+
+        @Label("Dropped Frames")
+        @Description("Ticks that should have run between this one and the previous one")
+        int droppedFrames;
+
+        @Label("Allocated")
+        @DataAmount(DataAmount.BYTES)
+        long allocated;
+    }
+
+    static final EventType PHASE = EventType.getEventType(PhaseEvent.class);
+    static final EventType TICK = EventType.getEventType(TickEvent.class);
+}
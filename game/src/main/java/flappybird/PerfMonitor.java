@@ -0,0 +1,231 @@
+package flappybird;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*
+ * Collects timing statistics for the game loop: a latency histogram for every
+ * Phase, how far each tick started from its target interval (jitter), ticks that
+ * were dropped because the loop fell behind and how many bytes each tick
+ * allocated. Each tick and phase is also emitted as a JFR event while a flight
+ * recording has the flappybird events enabled.
+ *
+ * The game thread calls beginTick() and endTick() around every tick and
+ * record() after every measured phase; the engine and the renderer record their
+ * own phases when a monitor is attached to them. Any thread can take a
+ * snapshot() at any time, for example the performance overlay or a headless run
+ * that prints its statistics at the end. Recording takes an uncontended lock and
+ * allocates nothing.
+ */
+public class PerfMonitor {
+
+    /*
+     * The measured parts of a tick and a frame.
+     */
+    public enum Phase {
+        TICK("tick"),  // Everything done for one tick: stepping the engine and updating the HUD
+        MOVE_PIPES("movePipes"),  // GameEngine.movePipes
+        COLLISIONS("checkCollisions"),  // GameEngine.checkCollisions
+        PAINT("paint"),  // Drawing a whole frame
+        BACKGROUND("drawBackground"),  // GameRenderer.drawBackground
+        INPUT_LATENCY("inputToFrame");  // From a flap key press to the first frame that shows the flap
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();  // null if unsupported
+
+    private final long targetIntervalNanos;  // Time between ticks the loop aims for, or 0 when it is not paced
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];  // By ordinal
+    private final LatencyHistogram jitter = new LatencyHistogram();  // |interval - target| of every tick
+    private long ticks;  // Ticks completed
+    private long droppedFrames;  // Ticks that should have run but did not
+    private long allocatedBytes;  // Bytes allocated by all ticks
+    private long maxAllocatedBytes;  // Most bytes allocated by one tick
+    private long tickStart;  // When the current tick began
+    private long tickAllocationStart;  // Allocation counter when the current tick began
+    private long lastTickStart;  // When the previous tick began, or 0
+
+    /*
+     * Creates a monitor for a loop that ticks every targetIntervalNanos, or for an
+     * unpaced loop (no jitter or dropped frames) when it is 0.
+     */
+    public PerfMonitor(long targetIntervalNanos) {
+        this.targetIntervalNanos = targetIntervalNanos;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    /*
+     * Marks the start of a tick on the game thread.
+     */
+    public synchronized void beginTick() {
+        tickStart = System.nanoTime();
+        tickAllocationStart = allocatedBytesOfThisThread();
+    }
+
+    /*
+     * Marks the end of the tick begun by the last beginTick(), given the engine's tick count.
+     */
+    public synchronized void endTick(long tick) {
+        long end = System.nanoTime();
+        long allocated = ALLOCATIONS == null ? 0 : allocatedBytesOfThisThread() - tickAllocationStart;
+        long interval = lastTickStart == 0 ? 0 : tickStart - lastTickStart;
+        int dropped = 0;
+        if (targetIntervalNanos > 0 && lastTickStart != 0) {
+            jitter.record(Math.abs(interval - targetIntervalNanos));
+            // An interval of about n targets means n - 1 ticks were skipped
+            dropped = (int) Math.max(0, (interval + targetIntervalNanos / 2) / targetIntervalNanos - 1);
+            droppedFrames += dropped;
+        }
+        lastTickStart = tickStart;
+        phases[Phase.TICK.ordinal()].record(end - tickStart);
+        ticks++;
+        allocatedBytes += allocated;
+        maxAllocatedBytes = Math.max(maxAllocatedBytes, allocated);
+
+        if (PerfEvents.TICK.isEnabled()) {
+            PerfEvents.TickEvent event = new PerfEvents.TickEvent();
+            event.tick = tick;
+            event.elapsed = end - tickStart;
+            event.interval = interval;
+            event.droppedFrames = dropped;
+            event.allocated = allocated;
+            event.commit();
+        }
+    }
+
+    /*
+     * Records a phase that started at startNanos (a System.nanoTime() value) and
+     * ends now. Returns the current time, so consecutive phases can be chained.
+     */
+    public synchronized long record(Phase phase, long startNanos) {
+        long end = System.nanoTime();
+        phases[phase.ordinal()].record(end - startNanos);
+        if (PerfEvents.PHASE.isEnabled()) {
+            PerfEvents.PhaseEvent event = new PerfEvents.PhaseEvent();
+            event.phase = phase.label;
+            event.elapsed = end - startNanos;
+            event.commit();
+        }
+        return end;
+    }
+
+    /*
+     * Forgets everything recorded so far, for example when a new game starts.
+     */
+    public synchronized void reset() {
+        for (LatencyHistogram histogram : phases) {
+            histogram.reset();
+        }
+        jitter.reset();
+        ticks = 0;
+        droppedFrames = 0;
+        allocatedBytes = 0;
+        maxAllocatedBytes = 0;
+        lastTickStart = 0;
+    }
+
+    /*
+     * Returns a copy of the statistics recorded so far.
+     */
+    public synchronized Snapshot snapshot() {
+        LatencyHistogram[] copies = new LatencyHistogram[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            copies[i] = phases[i].copy();
+        }
+        return new Snapshot(copies, jitter.copy(), targetIntervalNanos, ticks, droppedFrames,
+                allocatedBytes, maxAllocatedBytes, ALLOCATIONS != null);
+    }
+
+    /*
+     * Statistics of a PerfMonitor at one point in time.
+     */
+    public static final class Snapshot {
+        private final LatencyHistogram[] phases;  // By Phase ordinal
+        private final LatencyHistogram jitter;  // |interval - target| of every tick
+        public final long targetIntervalNanos;  // Target tick interval, or 0 when not paced
+        public final long ticks;  // Ticks completed
+        public final long droppedFrames;  // Ticks that should have run but did not
+        public final long allocatedBytes;  // Bytes allocated by all ticks
+        public final long maxAllocatedBytes;  // Most bytes allocated by one tick
+        public final boolean allocationsMeasured;  // Whether the JVM can count allocated bytes
+
+        Snapshot(LatencyHistogram[] phases, LatencyHistogram jitter, long targetIntervalNanos, long ticks,
+                 long droppedFrames, long allocatedBytes, long maxAllocatedBytes, boolean allocationsMeasured) {
+            this.phases = phases;
+            this.jitter = jitter;
+            this.targetIntervalNanos = targetIntervalNanos;
+            this.ticks = ticks;
+            this.droppedFrames = droppedFrames;
+            this.allocatedBytes = allocatedBytes;
+            this.maxAllocatedBytes = maxAllocatedBytes;
+            this.allocationsMeasured = allocationsMeasured;
+        }
+
+        /*
+         * Gets the latencies of one phase.
+         */
+        public LatencyHistogram get(Phase phase) {
+            return phases[phase.ordinal()];
+        }
+
+        /*
+         * Gets how far each tick started from the target interval after the previous one.
+         */
+        public LatencyHistogram getJitter() {
+            return jitter;
+        }
+
+        public double getAllocatedBytesPerTick() {
+            return ticks == 0 ? 0 : (double) allocatedBytes / ticks;
+        }
+
+        /*
+         * Returns a multi-line report of every phase and the tick statistics.
+         */
+        public String summary() {
+            StringBuilder text = new StringBuilder();
+            for (Phase phase : PHASES) {
+                if (get(phase).getCount() > 0) {
+                    text.append(String.format("%-16s n=%d %s%n", phase.label, get(phase).getCount(), get(phase).summary()));
+                }
+            }
+            if (targetIntervalNanos > 0) {
+                text.append(String.format("%-16s %s dropped=%d%n", "jitter", jitter.summary(), droppedFrames));
+            }
+            text.append(allocationsMeasured
+                    ? String.format("%-16s %.1f B/tick max=%d B%n", "allocated", getAllocatedBytesPerTick(), maxAllocatedBytes)
+                    : String.format("%-16s not supported by this JVM%n", "allocated"));
+            return text.toString();
+        }
+    }
+
+    private static long allocatedBytesOfThisThread() {
+        return ALLOCATIONS == null ? 0 : ALLOCATIONS.getCurrentThreadAllocatedBytes();
+    }
+
+    /*
+     * Gets the HotSpot extension of ThreadMXBean that counts allocated bytes per thread, if available.
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+}
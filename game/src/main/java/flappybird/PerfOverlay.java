@@ -0,0 +1,85 @@
+package flappybird;
+
+import java.awt.*;
+
+/*
+ * The performance HUD: a small panel in the top right corner with the
+ * statistics of a PerfMonitor. It is toggled with F3 by the game screens.
+ *
+ * The text is rebuilt from a snapshot at most twice a second, so the overlay
+ * stays readable and showing it does not disturb what it measures.
+ */
+public class PerfOverlay {
+
+    static final int TOGGLE_KEY = java.awt.event.KeyEvent.VK_F3;  // Key that shows and hides the overlay
+    private static final long REFRESH_NANOS = 500_000_000L;  // How often the text is rebuilt
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 10);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final int WIDTH = 300;  // Width of the panel
+    private static final int LINE_HEIGHT = 12;
+
+    private final PerfMonitor monitor;  // Source of the statistics
+    private volatile boolean visible;  // Whether the overlay is drawn
+    private String[] lines = new String[0];  // Text currently shown
+    private long lastRefresh;  // When the text was last rebuilt
+
+    public PerfOverlay(PerfMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /*
+     * Shows the overlay if it is hidden and hides it otherwise.
+     */
+    public void toggle() {
+        visible = !visible;
+        lastRefresh = 0;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /*
+     * Draws the overlay against the right edge of an area width pixels wide, if it is visible.
+     */
+    public void draw(Graphics2D g2d, int width) {
+        if (!visible) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastRefresh == 0 || now - lastRefresh >= REFRESH_NANOS) {
+            lines = format(monitor.snapshot());
+            lastRefresh = now;
+        }
+        int x = width - WIDTH - 5;
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(x, 5, WIDTH, lines.length * LINE_HEIGHT + 8);
+        g2d.setFont(FONT);
+        g2d.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g2d.drawString(lines[i], x + 5, 5 + (i + 1) * LINE_HEIGHT);
+        }
+    }
+
+    /*
+     * Turns a snapshot into the overlay's lines: one per phase in microseconds,
+     * then the jitter, dropped frames and allocation per tick.
+     */
+    private static String[] format(PerfMonitor.Snapshot snapshot) {
+        PerfMonitor.Phase[] phases = PerfMonitor.Phase.values();
+        String[] text = new String[phases.length + 3];
+        text[0] = String.format("%-16s%8s%8s%8s", "us", "p50", "p99", "max");
+        for (int i = 0; i < phases.length; i++) {
+            text[i + 1] = row(phases[i].getLabel(), snapshot.get(phases[i]));
+        }
+        text[phases.length + 1] = row("tick jitter", snapshot.getJitter());
+        text[phases.length + 2] = String.format("dropped %d  alloc %.0f B/tick", snapshot.droppedFrames,
+                snapshot.getAllocatedBytesPerTick());
+        return text;
+    }
+
+    private static String row(String label, LatencyHistogram histogram) {
+        return String.format("%-16s%8.1f%8.1f%8.1f", label, histogram.percentile(0.5) / 1e3,
+                histogram.percentile(0.99) / 1e3, histogram.getMax() / 1e3);
+    }
+}
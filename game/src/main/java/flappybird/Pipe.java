@@ -0,0 +1,42 @@
+package flappybird;
+
+/*
+ * Describes a pipe in the Flappy Bird game that the bird must navigate through.
+ * Each pipe consists of two sections: a top pipe (flipped upside down) and a bottom pipe.
+ * There is a gap between these two pipes, which the bird must pass through.
+ *
+ * The pipes in play are stored in a PipeStore as plain x-coordinates and heights,
+ * so this class only holds the pipe's dimensions and the rules that follow from them.
+ */
+public final class Pipe {
+
+    static final int WIDTH = 60; // Width of the pipe (fixed value)
+    static final int GAP = 150; // Vertical gap between the top and bottom pipes
+    static final int SPEED = 5; // Distance the pipes move left on every tick
+
+    private Pipe() {
+    }
+
+    /*
+     * Gets the y-coordinate where the bottom section of a pipe starts.
+     */
+    static int bottomY(int height) {
+        return height + GAP;
+    }
+
+    /*
+     * Gets the height of the bottom section of a pipe, which reaches down to the
+     * bottom of the screen.
+     */
+    static int bottomHeight(int height) {
+        return GameEngine.HEIGHT - height - GAP;
+    }
+
+    /*
+     * Checks if a pipe at the given x-coordinate has moved off the left side of the screen.
+     * This is used to determine when the pipe should be recycled for the next obstacle.
+     */
+    static boolean offScreen(int x) {
+        return x + WIDTH < 0;
+    }
+}
@@ -0,0 +1,103 @@
+package flappybird;
+
+/*
+ * The stream of pipes of one game.
+ *
+ * The pipes do not depend on the bird: given a seed they always spawn with the
+ * same heights and scroll left at Pipe.SPEED on every 20 ms tick. GameEngine plays
+ * one bird through a course, and PopulationSimulator plays a whole population of
+ * birds through the same one.
+ *
+ * At other simulation rates a step moves the pipes a fraction of Pipe.SPEED. The
+ * pipes move by the whole pixels the course has scrolled past on each step, so
+ * they stay on whole pixels and still keep pace exactly. A new pipe always starts
+ * PIPE_SPACING pixels after the previous one, so the course is laid out the same
+ * however far past the edge the step that spawned it went.
+ *
+ * The heights come from a CourseGenerator, which moves any pipe the bird could not
+ * get through. The generator only depends on the seed, so a course is the same at
+ * every simulation rate.
+ */
+public class PipeCourse {
+
+    // At 50 Hz a pipe enters at the right edge on the tick the previous one has left the screen
+    static final int PIPE_SPACING = GameEngine.WIDTH + Pipe.WIDTH + Pipe.SPEED;  // Distance between two pipes
+
+    private final SimulationRate rate;  // How often advance() is called
+    private final CourseGenerator generator;  // Source of the pipe heights
+    private final PipeStore pipes = new PipeStore();  // Pipes in play, oldest first
+    private int remainder;  // Distance scrolled past the last whole pixel, in 1/hz of a pixel
+    private int shift;  // Whole pixels the pipes moved on the last advance()
+
+    /*
+     * Creates the course of the given seed, with its first pipe at the right edge of the screen.
+     */
+    public PipeCourse(long seed) {
+        this(seed, SimulationRate.BASE);
+    }
+
+    /*
+     * Creates the course of the given seed, to be advanced at the given rate.
+     */
+    public PipeCourse(long seed, SimulationRate rate) {
+        this.rate = rate;
+        this.generator = new CourseGenerator(seed);
+        reset(seed);
+    }
+
+    /*
+     * Restarts the course of the given seed in place.
+     */
+    public void reset(long seed) {
+        generator.reset(seed);
+        remainder = 0;
+        shift = 0;
+        pipes.clear();
+        pipes.spawn(GameEngine.WIDTH, generator.nextHeight());
+    }
+
+    /*
+     * Moves the pipes one step to the left, frees the slots of pipes that have
+     * moved off-screen and adds a new pipe once the last one has gone.
+     * Returns the number of pipes that were removed from the front of getPipes().
+     */
+    public int advance() {
+        // A step is Pipe.SPEED * BASE_HZ / hz pixels; carry the fraction over to the next step
+        remainder += Pipe.SPEED * SimulationRate.BASE_HZ;
+        shift = remainder / rate.hz;
+        remainder -= shift * rate.hz;
+        pipes.moveAll(-shift);
+        int newest = pipes.x(pipes.size() - 1);
+        // All pipes move at the same speed, so they always leave in the order they were spawned
+        int removed = 0;
+        while (!pipes.isEmpty() && Pipe.offScreen(pipes.x(0))) {
+            pipes.removeOldest();
+            removed++;
+        }
+        if (Pipe.offScreen(newest)) {
+            pipes.spawn(newest + PIPE_SPACING, generator.nextHeight());
+        }
+        return removed;
+    }
+
+    /*
+     * Gets the pipes currently in play, in the order they were spawned.
+     */
+    public PipeStore getPipes() {
+        return pipes;
+    }
+
+    /*
+     * Gets the number of pixels the pipes moved left on the last advance().
+     */
+    public int getShift() {
+        return shift;
+    }
+
+    /*
+     * Gets the generator of the pipe heights, to see how many pipes it repaired.
+     */
+    public CourseGenerator getGenerator() {
+        return generator;
+    }
+}
@@ -0,0 +1,117 @@
+package flappybird;
+
+/*
+ * Holds the pipes currently in play without allocating an object per pipe.
+ *
+ * The pipes are kept in a fixed-capacity ring buffer backed by two primitive
+ * arrays, one for the x-coordinates and one for the heights of the top
+ * sections. Spawning a pipe reuses a free slot and removing the oldest pipe
+ * only moves the head of the ring, so a game of any length never allocates
+ * after the store is created.
+ *
+ * Pipes are addressed by their position in spawn order: index 0 is the oldest
+ * pipe (the one furthest to the left) and size() - 1 the newest. Looping over
+ * the indexes is the garbage-free way to visit every pipe.
+ */
+public class PipeStore {
+
+    static final int DEFAULT_CAPACITY = 4;  // Only one pipe is on screen at a time, so a few slots are plenty
+
+    private final int[] xs;  // x-coordinate of each slot
+    private final int[] heights;  // Height of the top pipe section of each slot
+    private int head;  // Slot holding the oldest pipe
+    private int size;  // Number of pipes in play
+
+    /*
+     * Creates an empty store with room for DEFAULT_CAPACITY pipes.
+     */
+    public PipeStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Creates an empty store with room for the given number of pipes.
+     */
+    public PipeStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        xs = new int[capacity];
+        heights = new int[capacity];
+    }
+
+    /*
+     * Adds a new pipe after the newest one, reusing a free slot.
+     */
+    public void spawn(int x, int height) {
+        if (size == xs.length) {
+            throw new IllegalStateException("pipe store is full (capacity " + xs.length + ")");
+        }
+        int slot = slot(size);
+        xs[slot] = x;
+        heights[slot] = height;
+        size++;
+    }
+
+    /*
+     * Moves every pipe horizontally by dx pixels (negative moves left).
+     */
+    public void moveAll(int dx) {
+        for (int i = 0; i < size; i++) {
+            xs[slot(i)] += dx;
+        }
+    }
+
+    /*
+     * Frees the slot of the oldest pipe.
+     */
+    public void removeOldest() {
+        if (size == 0) {
+            throw new IllegalStateException("pipe store is empty");
+        }
+        head = slot(1);
+        size--;
+    }
+
+    /*
+     * Removes every pipe. The slots are kept for reuse.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /*
+     * Gets the x-coordinate of the pipe at the given index (0 is the oldest).
+     */
+    public int x(int index) {
+        return xs[slot(index)];
+    }
+
+    /*
+     * Gets the height of the top section of the pipe at the given index (0 is the oldest).
+     */
+    public int height(int index) {
+        return heights[slot(index)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return xs.length;
+    }
+
+    /*
+     * Maps an index in spawn order to its slot in the arrays.
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot < xs.length ? slot : slot - xs.length;
+    }
+}
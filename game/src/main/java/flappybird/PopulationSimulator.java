@@ -0,0 +1,344 @@
+package flappybird;
+
+import java.util.Arrays;
+
+/*
+ * Plays a whole population of birds through one shared course of pipes.
+ *
+ * Every bird follows exactly the rules of a GameEngine session with the same
+ * seed, but instead of a Bird object and an engine per bird, the population is
+ * kept in primitive arrays (y, velocity, whether it has started and whether it is
+ * alive), indexed by bird number. The pipes are the same for every bird and all
+ * birds fly at the same x, so everything about the pipes is worked out once per
+ * tick: which pipes are in reach and how many points a surviving bird earns. What
+ * is left for each bird is its physics and a check that its y lies in the band
+ * between the pipes and above the ground, in one tight loop over the arrays.
+ *
+ * The loop is plain scalar Java that the JIT compiles to straight-line code; the
+ * incubating Vector API is not used, because it would need --add-modules on every
+ * compile and run.
+ *
+ * Usage: java -cp game/target/classes flappybird.PopulationSimulator bench [birds] [maxTicks] [seed]
+ *        java -cp game/target/classes flappybird.PopulationSimulator verify [birds] [seed] [courses]
+ */
+public class PopulationSimulator {
+
+    private final int size;  // Number of birds
+    private final int[] ys;  // y-coordinate of each bird
+    private final int[] velocities;  // Velocity of each bird
+    private final boolean[] started;  // Whether each bird has flapped yet
+    private final boolean[] alive;  // Whether each bird is still flying
+    private final int[] scores;  // Score of each dead bird when it died
+    private final long[] deathTicks;  // Tick count at which each dead bird died
+    private final PipeCourse course;  // The pipes every bird flies through
+    private final PipeStore pipes;  // The course's pipes
+    private int nextPipe;  // Index of the oldest pipe the birds have not passed yet
+    private int score;  // Score of every bird that is still alive
+    private int aliveCount;  // Number of birds still flying
+    private long tick;  // Number of ticks simulated so far
+
+    /*
+     * Creates a population of the given size on the course of the given seed.
+     */
+    public PopulationSimulator(int size, long seed) {
+        this.size = size;
+        this.ys = new int[size];
+        this.velocities = new int[size];
+        this.started = new boolean[size];
+        this.alive = new boolean[size];
+        this.scores = new int[size];
+        this.deathTicks = new long[size];
+        this.course = new PipeCourse(seed);
+        this.pipes = course.getPipes();
+        reset(seed);
+    }
+
+    /*
+     * Puts every bird back at its start and restarts the course of the given seed.
+     */
+    public void reset(long seed) {
+        course.reset(seed);
+        Arrays.fill(ys, GameEngine.BIRD_START_Y);
+        Arrays.fill(velocities, 0);
+        Arrays.fill(started, false);
+        Arrays.fill(alive, true);
+        Arrays.fill(scores, 0);
+        Arrays.fill(deathTicks, 0);
+        nextPipe = 0;
+        score = 0;
+        aliveCount = size;
+        tick = 0;
+    }
+
+    /*
+     * Advances every living bird by one tick. Bird i flaps first if flaps[i] is
+     * true; flaps may be null when no bird flaps. Returns the number of birds that
+     * are still alive afterwards.
+     */
+    public int step(boolean[] flaps) {
+        if (aliveCount == 0) {
+            return 0;
+        }
+        nextPipe = Math.max(0, nextPipe - course.advance());
+        while (nextPipe < pipes.size() && Collision.passed(GameEngine.BIRD_X, pipes.x(nextPipe))) {
+            nextPipe++;
+        }
+
+        // A bird at BIRD_X survives the tick exactly when its y lies in [top, bottom]:
+        // below the top section and above the bottom section of every pipe it
+        // overlaps, and above the ground.
+        int top = 0;
+        int bottom = GameEngine.GROUND_Y - 1;
+        for (int i = nextPipe; i < pipes.size() && Collision.inReach(GameEngine.BIRD_X, pipes.x(i)); i++) {
+            // A pipe whose right edge is at the bird's left edge is not passed yet but,
+            // as in Collision.hitsPipe, can no longer be hit
+            if (pipes.x(i) + Pipe.WIDTH > GameEngine.BIRD_X) {
+                top = Math.max(top, pipes.height(i));
+                bottom = Math.min(bottom, Pipe.bottomY(pipes.height(i)) - Bird.SIZE);
+            }
+        }
+        int scoreBefore = score;
+        if (nextPipe > 0) {
+            score += GameEngine.POINTS_PER_PASS;
+        }
+
+        int[] ys = this.ys;
+        int[] velocities = this.velocities;
+        boolean[] started = this.started;
+        boolean[] alive = this.alive;
+        int died = 0;
+        for (int i = 0; i < size; i++) {
+            if (!alive[i]) {
+                continue;
+            }
+            int y = ys[i];
+            int velocity = velocities[i];
+            if (flaps != null && flaps[i]) {
+                started[i] = true;
+                velocity = -Bird.FLAP_STRENGTH;
+            }
+            if (started[i]) {
+                velocity += Bird.GRAVITY;
+                y += velocity;
+            }
+            if (y < 0) {
+                y = 0;
+                velocity = 0;
+            }
+            ys[i] = y;
+            velocities[i] = velocity;
+            if (y < top || y > bottom) {
+                alive[i] = false;
+                scores[i] = scoreBefore;
+                deathTicks[i] = tick + 1;
+                died++;
+            }
+        }
+        aliveCount -= died;
+        tick++;
+        return aliveCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getY(int bird) {
+        return ys[bird];
+    }
+
+    public int getVelocity(int bird) {
+        return velocities[bird];
+    }
+
+    public boolean isAlive(int bird) {
+        return alive[bird];
+    }
+
+    /*
+     * Gets a bird's score: its current score while alive, its final score once dead.
+     */
+    public int getScore(int bird) {
+        return alive[bird] ? score : scores[bird];
+    }
+
+    /*
+     * Gets the number of ticks a bird has survived (including the tick it died on),
+     * the same as GameEngine.getTick() for a single game.
+     */
+    public long getTicks(int bird) {
+        return alive[bird] ? tick : deathTicks[bird];
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /*
+     * Gets the pipes every bird flies through.
+     */
+    public PipeStore getPipes() {
+        return pipes;
+    }
+
+    /*
+     * Gets the index in getPipes() of the oldest pipe the birds have not passed yet.
+     */
+    public int getNextPipe() {
+        return nextPipe;
+    }
+
+    /*
+     * Fills flaps with a gap-following decision for every living bird: bird i flaps
+     * when it is more than offsets[i] pixels below the middle of the next gap, so a
+     * population with spread-out offsets plays many different games.
+     */
+    void followGap(int[] offsets, boolean[] flaps) {
+        int target = GameEngine.HEIGHT / 2;
+        if (nextPipe < pipes.size()) {
+            target = pipes.height(nextPipe) + Pipe.GAP / 2 - Bird.SIZE / 2;
+        }
+        for (int i = 0; i < size; i++) {
+            flaps[i] = velocities[i] >= 0 && ys[i] > target + offsets[i];
+        }
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "bench";
+        int birds = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        if (command.equals("bench")) {
+            long maxTicks = args.length > 2 ? Long.parseLong(args[2]) : 10_000;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 7;
+            bench(birds, maxTicks, seed);
+        } else if (command.equals("verify")) {
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+            int courses = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+            System.exit(verify(birds, seed, courses) ? 0 : 1);
+        } else {
+            System.out.println("Usage: PopulationSimulator bench [birds] [maxTicks] [seed] | verify [birds] [seed] [courses]");
+        }
+    }
+
+    /*
+     * Plays a population of gap followers and prints the time per tick.
+     */
+    private static void bench(int birds, long maxTicks, long seed) {
+        PopulationSimulator population = new PopulationSimulator(birds, seed);
+        int[] offsets = offsets(birds, seed);
+        boolean[] flaps = new boolean[birds];
+        long stepNanos = 0;
+        long maxStepNanos = 0;
+        while (population.getAliveCount() > 0 && population.getTick() < maxTicks) {
+            population.followGap(offsets, flaps);
+            long start = System.nanoTime();
+            population.step(flaps);
+            long elapsed = System.nanoTime() - start;
+            stepNanos += elapsed;
+            maxStepNanos = Math.max(maxStepNanos, elapsed);
+        }
+        long ticks = population.getTick();
+        System.out.printf("birds=%d ticks=%d alive=%d step avg=%.3f ms max=%.3f ms bird-ticks/s=%,.0f%n",
+                birds, ticks, population.getAliveCount(), stepNanos / 1e6 / Math.max(1, ticks),
+                maxStepNanos / 1e6, (double) birds * ticks * 1e9 / Math.max(1, stepNanos));
+    }
+
+    /*
+     * Plays populations on the courses of seed, seed + 1, ... and checks every
+     * bird against its own GameEngine session (see verifyCourse).
+     */
+    private static boolean verify(int birds, long seed, int courses) {
+        int mismatches = 0;
+        int bestScore = 0;
+        for (int c = 0; c < courses; c++) {
+            PopulationSimulator population = new PopulationSimulator(birds, seed + c);
+            mismatches += verifyCourse(population, seed + c);
+            for (int i = 0; i < birds; i++) {
+                bestScore = Math.max(bestScore, population.getScore(i));
+            }
+        }
+        System.out.printf("courses=%d birds=%d best score=%d mismatches=%d%n", courses, birds, bestScore, mismatches);
+        return mismatches == 0;
+    }
+
+    /*
+     * Plays every bird of a population again as its own GameEngine session with the
+     * same flaps and checks that both agree on when it died and what it scored.
+     * The birds fly in different ways, so that they meet the pipes everywhere the
+     * two could disagree: every other bird keeps anywhere in the gap, close to the
+     * pipes' edges as well as in the middle, and every third bird also flaps on
+     * the tick each pipe's right edge slides past its left edge. Returns the
+     * number of birds that disagree.
+     */
+    private static int verifyCourse(PopulationSimulator population, long seed) {
+        int birds = population.size();
+        int[] offsets = offsets(birds, seed);
+        SeededRandom random = new SeededRandom(~seed);
+        for (int i = 1; i < birds; i += 2) {
+            offsets[i] = random.nextInt(Pipe.GAP) - Pipe.GAP / 2;
+        }
+        PipeStore pipes = population.getPipes();
+        boolean[] flaps = new boolean[birds];
+        long[][] flapTicks = new long[birds][];
+        int[] flapCounts = new int[birds];
+        long maxTicks = 20_000;
+        while (population.getAliveCount() > 0 && population.getTick() < maxTicks) {
+            population.followGap(offsets, flaps);
+            int next = population.getNextPipe();
+            // The pipe that is about to stop overlapping the bird, without being passed yet
+            boolean leaving = next < pipes.size() && pipes.x(next) - Pipe.SPEED + Pipe.WIDTH == GameEngine.BIRD_X;
+            for (int i = 0; i < birds; i += 3) {
+                flaps[i] |= leaving;
+            }
+            for (int i = 0; i < birds; i++) {
+                if (flaps[i] && population.isAlive(i)) {
+                    if (flapTicks[i] == null) {
+                        flapTicks[i] = new long[16];
+                    } else if (flapCounts[i] == flapTicks[i].length) {
+                        flapTicks[i] = Arrays.copyOf(flapTicks[i], flapCounts[i] * 2);
+                    }
+                    flapTicks[i][flapCounts[i]++] = population.getTick();
+                }
+            }
+            population.step(flaps);
+        }
+
+        GameEngine engine = new GameEngine(seed);
+        int mismatches = 0;
+        for (int i = 0; i < birds; i++) {
+            engine.reset(seed);
+            int f = 0;
+            while (!engine.isGameOver() && engine.getTick() < population.getTicks(i)) {
+                boolean flap = f < flapCounts[i] && flapTicks[i][f] == engine.getTick();
+                if (flap) {
+                    f++;
+                }
+                engine.step(flap);
+            }
+            if (engine.getTick() != population.getTicks(i) || engine.getScore() != population.getScore(i)
+                    || engine.isGameOver() == population.isAlive(i) || engine.getBird().getY() != population.getY(i)) {
+                if (mismatches++ < 3) {
+                    System.out.printf("seed %d bird %d: population ticks=%d score=%d alive=%b, engine ticks=%d score=%d over=%b%n",
+                            seed, i, population.getTicks(i), population.getScore(i), population.isAlive(i),
+                            engine.getTick(), engine.getScore(), engine.isGameOver());
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /*
+     * Spreads the birds' gap-following offsets over the middle half of the gap.
+     */
+    private static int[] offsets(int birds, long seed) {
+        SeededRandom random = new SeededRandom(seed);
+        int[] offsets = new int[birds];
+        for (int i = 0; i < birds; i++) {
+            offsets[i] = random.nextInt(Pipe.GAP / 2) - Pipe.GAP / 4;
+        }
+        return offsets;
+    }
+}
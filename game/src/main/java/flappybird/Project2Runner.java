@@ -0,0 +1,405 @@
+package flappybird;
+
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.*;
+/*
+ * Main class that initializes and launches the Flappy Bird game.
+ * This class sets up the JFrame, adds the main menu panel, and displays the game window.
+ */
+
+public class Project2Runner {
+
+        static boolean activeRendering = false;  // Whether to use GameCanvas (active rendering) instead of GamePanel
+        static int targetFps = 60;  // Frame rate the active renderer aims for, 0 for uncapped
+        static boolean logFrameStats = false;  // Whether to print frame statistics and restart times
+        static String replayArchive = null;  // Archive every finished game is appended to, or null
+        static boolean dirtyRegions = true;  // Whether GamePanel repaints only what moved on each tick
+        static LogicalScreen.Scaling scaling = LogicalScreen.Scaling.SMOOTH;  // How GameCanvas scales frames to the window
+        static boolean fullScreen = false;  // Whether to take over the screen in full-screen exclusive mode
+        static String runLogFile = Paths.get(System.getProperty("user.home"), ".flappybird", "runs.fbl").toString();  // Run log, or null for none
+        static String ghostArchive = null;  // Replay archive to race against, or null
+        static final int MAX_GHOSTS = 500;  // Most ghosts raced at once
+        static boolean parallax = false;  // Whether the game's background scrolls in layers
+        static SimulationRate simulationRate = SimulationRate.BASE;  // How often the active renderer steps the physics
+        static boolean startupStats = false;  // Whether to print how long each phase of the startup took
+        static boolean autopilot = false;  // Whether the Autopilot flies the bird instead of the player
+        static String captureTarget = null;  // GIF file or PNG directory the game's frames are saved to, or null
+        static final int LOADER_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));  // Threads decoding assets at startup
+        static SceneManager scenes;  // The window's scenes, created on the EDT
+
+/*
+* Name: <Pearl Ved>
+* Student ID: <501312930>
+*
+******** Project Description ********
+*
+* This program is a simple version of the Flappy Bird game created using Java Swing. In the game, you control a bird that must fly between pipes without hitting them. 
+* The bird starts at rest, but when you press the space bar, it flaps upwards. If you don’t press the space bar again, gravity pulls the bird down. The goal is to avoid 
+* crashing into the pipes or the ground and to keep the bird flying as long as possible. The game shows your score, which increases each time the bird successfully passes through 
+* a pipe. If you crash, the game ends, and you can restart it to try again.
+*
+* On the left-hand side of the game screen, there is a progress bar that shows the bird's position in the game. This progress bar helps you track how far the bird has flown, making it 
+* easier to position the bird to navigate through the pipes. It gives you a better sense of control over the bird's movement, helping you time your flaps and avoid obstacles. If the bird 
+* crashes into a pipe or the ground, the game ends, and a game-over screen appears with a restart button. You can click the restart button to begin a new game with a score of 0.
+*
+*
+******** Swing Requirement ********
+*
+* My program satisfies the requirement of including a JFrame and at least three unique Swing components. The JFrame is used as the main window for the game and 
+* is defined in the Project2Runner.java file, starting at line 85. To meet the requirement of three unique Swing components, the program uses a JLabel, JButton, 
+* and JProgressBar. The JLabel is used to display the score in the GamePanel.java file, starting at line 39. Two JButton components are utilized in the game: 
+* one as the start button in the MainMenuPanel.java file, starting at line 38, which transitions to the game screen, and another as the restart button in the GameOverScreen.java file, 
+* starting at line 28, which allows the player to restart the game after a game over. The JProgressBar is used in the GamePanel.java file, starting at line 46, to visually track the 
+* bird’s vertical position on the left side of the screen. These components play key roles in providing a functional and interactive user interface for the game
+*
+*
+******** 2D Graphics Requirement ********
+*
+*
+* The program satisfies the 2D graphics requirement by using JPanel as a canvas in both the MainMenuPanel and GamePanel classes. In the MainMenuPanel file (panel starting at line 13), 
+* the paintComponent(Graphics g) method (starting at line 85) is overridden to draw a variety of 2D shapes including arcs, ovals, rectangles, and round rectangles, creating the visual 
+* elements of the main menu. The background is drawn using different colours, and images are imported to enhance the appearance, such as the title image (title.jpg) and a start button 
+* image (startImage.png). Similarly, in the GamePanel file (panel starting at line 7), the paintComponent(Graphics g) method (starting at line 132) is also overridden to draw the background, 
+* the bird, and pipes using shapes like arcs and ovals. The game’s visual elements, such as the bird and pipes, are rendered with images (pipe.png, pipeflipped.png, bird.png) along with 
+* graphical elements for the background. Both panels make use of JPanel to render meaningful 2D graphics with a combination of colours, shapes, and images, fulfilling the requirement to use 
+* at least one JPanel for drawing something visually engaging.
+*
+*
+******** Event Listener Requirement ********
+*
+*
+* In my program, the ActionListener is attached to the startButton in the MainMenuPanel class. The listener is defined starting at line 44 in the MainMenuPanel.java file. When the startButton 
+* is clicked, it triggers an ActionEvent, and the ActionListener removes the current panel from the JFrame and replaces it with the GamePanel, which begins the game. The update to the JFrame 
+* is triggered by calling frame.revalidate() and frame.repaint() after the panel swap.The GamePanel class implements the KeyListener interface to listen for keyboard events. Specifically, 
+* the keyPressed method (defined on line 195) listens for the spacebar key (KeyEvent.VK_SPACE). When the spacebar is pressed, it triggers the bird's flap() method, causing the bird to move 
+* upwards. This user interaction updates the graphical display by modifying the bird's position on the screen. Additionally, the program uses a Timer (defined starting on line 53 of the GamePanel 
+* file) with an ActionListener that periodically updates the game state, moves the progress bar, moves pipes, checks for collisions, and repaints the panel. Finally, the GameOverScreen has its 
+* own ActionListener attached to the restartButton, defined within the show() method in the GameOverScreen class (line 35, GameOverScreen file). When the restartButton is clicked, it triggers the restartGame() method, 
+* which restarts the game by replacing the current GamePanel with a new instance of itself. These events collectively contribute to the graphical updates in the game.
+*
+*/
+
+/* Main Program Description:
+ * This program is a functional implementation of the Flappy Bird game using Java Swing. The player controls a bird that must navigate through an endless series of pipes, pressing the space bar 
+ * to make the bird flap and avoid colliding with the pipes or the ground. The game includes real-time rendering, where the bird’s position is dynamically updated based on gravity and user input, 
+ * and the pipes continuously move toward the bird, requiring quick reactions. As the bird flies through the pipes, the score increases by 200, and the game tracks the bird’s progress via a visual 
+ * progress bar.
+
+ * The program uses various Swing components such as JButton for start/restart buttons, JProgressBar to track progress, and JLabel to display the score. KeyListener is used to handle user input, enabling 
+ * the bird to flap when the space bar is pressed. The game also includes collision detection to determine when the bird hits a pipe or the ground, triggering a game-over screen. After the game 
+ * is over, a JButton appears on the game-over screen, allowing the player to restart the game with a score of 0. The goal is to navigate through as many pipes as possible while avoiding collisions, 
+ * and players can restart the game to try again after a game ends.
+ * 
+ */
+
+        /*
+         * The entry point for the application.
+         * This method sets up the JFrame for the game and initializes the MainMenuPanel.
+         * The MainMenuPanel is displayed when the application starts.
+         * 
+         * The method creates a window of size 500x500 pixels, with a title of "Flappy Bird",
+         * and positions the window in the center of the screen.
+         *
+         * The window is built on the EDT, as Swing requires, while the images and sound
+         * effects are decoded and the log files opened in parallel on a pool of loader
+         * threads. The menu shows its background right away, its title and button once
+         * the images are decoded, and the game screen is created on the EDT once
+         * everything has loaded, which enables the start button.
+         *
+         * Options: --active switches to the active-rendering game loop, --fps=N sets
+         * its target frame rate (60, 120, 144, ... or 0 for uncapped) and --frame-stats
+         * prints its update and render times once per second, and the restart-to-first-frame
+         * time of every new game. --record=FILE appends a replay of every finished game
+         * to the given archive (see ReplayTool). --full-repaint makes the Swing game panel
+         * repaint the whole screen on every tick instead of only the area that changed.
+         * --scale=integer|smooth picks how the active renderer scales its 500x500 frames
+         * to the window, and --fullscreen runs it in full-screen exclusive mode (Escape
+         * quits); both imply --active. --runs=FILE sets the run log that the result of
+         * every game is appended to and the best scores are read from (by default
+         * ~/.flappybird/runs.fbl), and --no-runs turns it off. --ghosts=FILE races
+         * against up to MAX_GHOSTS replays of the archive's first seed (see ReplayTool ghosts),
+         * drawn as translucent birds, and plays every game on that seed. --parallax
+         * scrolls the game's clouds, hills and ground at different speeds (the Swing
+         * game panel then repaints everything on every tick). --hz=N steps the
+         * physics N times per second instead of 50 (120 or 240, say), with the game
+         * moving at the same speed, and implies --active. Replays and ghosts are
+         * played at 50 Hz, so --record and --ghosts are ignored at other rates.
+         * --startup-stats prints how long each phase of the startup took, from the
+         * launch of the JVM to the first frame of the first game (see StartupReport).
+         * --autopilot lets the Autopilot fly the bird in every game: it searches the
+         * flaps for a way through every pipe in sight, within a time budget per
+         * decision, and its games are logged as simulated runs. It is created and
+         * warmed up on a loader thread. --capture=FILE.gif saves a
+         * frame of every tick to an animated GIF, and --capture=DIR to numbered PNG
+         * files in the directory; the frames are encoded on threads of their own,
+         * and dropped rather than holding up the tick if the encoders fall behind
+         * (see FrameExporter, and FrameExportTool to export a replay instead).
+        */
+        public static void main(String[] args) {
+                StartupReport startup = StartupReport.shared();
+                startup.mark(StartupReport.Phase.MAIN);
+                for (String arg : args) {
+                        if (arg.equals("--active")) {
+                                activeRendering = true;
+                        } else if (arg.startsWith("--fps=")) {
+                                targetFps = Integer.parseInt(arg.substring("--fps=".length()));
+                        } else if (arg.equals("--frame-stats")) {
+                                logFrameStats = true;
+                        } else if (arg.startsWith("--record=")) {
+                                replayArchive = arg.substring("--record=".length());
+                        } else if (arg.equals("--full-repaint")) {
+                                dirtyRegions = false;
+                        } else if (arg.startsWith("--scale=")) {
+                                scaling = LogicalScreen.Scaling.valueOf(arg.substring("--scale=".length()).toUpperCase());
+                                activeRendering = true;
+                        } else if (arg.equals("--fullscreen")) {
+                                fullScreen = true;
+                                activeRendering = true;
+                        } else if (arg.startsWith("--runs=")) {
+                                runLogFile = arg.substring("--runs=".length());
+                        } else if (arg.equals("--no-runs")) {
+                                runLogFile = null;
+                        } else if (arg.startsWith("--ghosts=")) {
+                                ghostArchive = arg.substring("--ghosts=".length());
+                        } else if (arg.equals("--parallax")) {
+                                parallax = true;
+                        } else if (arg.startsWith("--hz=")) {
+                                simulationRate = SimulationRate.of(Integer.parseInt(arg.substring("--hz=".length())));
+                                activeRendering = true;
+                        } else if (arg.equals("--startup-stats")) {
+                                startupStats = true;
+                        } else if (arg.equals("--autopilot")) {
+                                autopilot = true;
+                        } else if (arg.startsWith("--capture=")) {
+                                captureTarget = arg.substring("--capture=".length());
+                        }
+                }
+                startup.setPrinting(startupStats);
+                if (simulationRate != SimulationRate.BASE && (replayArchive != null || ghostArchive != null)) {
+                        System.err.println("Replays and ghosts are played at 50 Hz; ignoring --record and --ghosts at " + simulationRate);
+                        replayArchive = null;
+                        ghostArchive = null;
+                }
+
+
+                // Load everything the game needs in the background while the window comes up
+                ExecutorService loader = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+                        Thread thread = new Thread(runnable, "startup-loader");
+                        thread.setDaemon(true);
+                        return thread;
+                });
+                CompletableFuture<Void> images = Assets.preload(loader) // Decode every sprite, so starting a game does no image loading
+                                .thenRun(() -> startup.mark(StartupReport.Phase.IMAGES));
+                CompletableFuture<Void> audio = CompletableFuture.runAsync(() -> {
+                        long start = StartupReport.threadCpuNanos();
+                        AudioEngine.shared(); // Decode the sound effects and open the audio line before the first click
+                        startup.addWork(StartupReport.Phase.AUDIO, start);
+                        startup.mark(StartupReport.Phase.AUDIO);
+                }, loader);
+                CompletableFuture<Void> scenery = parallax
+                                ? CompletableFuture.runAsync(ParallaxBackground.shared()::prepare, loader)
+                                : CompletableFuture.completedFuture(null);
+                CompletableFuture<Void> courses = CompletableFuture.runAsync(Reachability::shared, loader); // Build the analysis that checks every pipe as it spawns
+                CompletableFuture<ReplayLog> replayLog = CompletableFuture.supplyAsync(Project2Runner::openReplayLog, loader);
+                CompletableFuture<RunLog> runLog = CompletableFuture.supplyAsync(Project2Runner::openRunLog, loader);
+                CompletableFuture<GhostRace> race = CompletableFuture.supplyAsync(Project2Runner::openGhostRace, loader);
+                CompletableFuture<FrameExporter> exporter = CompletableFuture.supplyAsync(Project2Runner::openExporter, loader);
+                CompletableFuture<Autopilot> pilot = CompletableFuture.supplyAsync(Project2Runner::createAutopilot, loader);
+
+                // The EDT runs these in order: the window, then the menu's images, then the game
+                SwingUtilities.invokeLater(Project2Runner::showWindow);
+                images.thenRun(() -> SwingUtilities.invokeLater(() -> scenes.showImages()));
+                CompletableFuture.allOf(images, audio, scenery, courses, replayLog, runLog, race, exporter, pilot).whenComplete((ignored, error) -> {
+                        loader.shutdown();
+                        if (error != null) {
+                                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                                System.err.println("Could not start the game: " + cause.getMessage());
+                                System.exit(1);
+                        }
+                        SwingUtilities.invokeLater(() -> showGame(replayLog.join(), runLog.join(), race.join(), exporter.join(), pilot.join()));
+                });
+        }
+
+        /*
+         * Creates the window with the main menu and shows it. Runs on the EDT, while
+         * the game is still loading.
+         */
+        static void showWindow() {
+                JFrame frame = new JFrame("Flappy Bird");
+                scenes = new SceneManager(frame); // Create the menu scene and show it; the game scene is added once it is ready
+                frame.setSize(GameEngine.WIDTH, GameEngine.HEIGHT);
+                frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+                frame.setLocationRelativeTo(null); // Center the frame
+                if (fullScreen) {
+                        showFullScreen(frame);
+                } else {
+                        frame.setVisible(true);
+                }
+                StartupReport.shared().mark(StartupReport.Phase.WINDOW);
+        }
+
+        /*
+         * Creates the game screen with the logs, race, exporter and autopilot that
+         * were prepared, and lets the menu start it. Runs on the EDT once everything
+         * has loaded.
+         */
+        static void showGame(ReplayLog replayLog, RunLog runLog, GhostRace race, FrameExporter exporter, Autopilot pilot) {
+                GameScreen gameScreen = createGameScreen();
+                gameScreen.setParallax(parallax);
+                if (pilot != null) {
+                        gameScreen.setAutopilot(pilot);
+                }
+                if (replayLog != null) {
+                        gameScreen.recordTo(replayLog);
+                }
+                if (runLog != null) {
+                        gameScreen.recordRunsTo(runLog);
+                }
+                if (race != null) {
+                        gameScreen.raceAgainst(race);
+                }
+                if (exporter != null) {
+                        gameScreen.captureTo(exporter);
+                }
+                scenes.setGameScreen(gameScreen);
+                StartupReport.shared().mark(StartupReport.Phase.GAME_READY);
+        }
+
+        /*
+         * Opens the replay archive to record to, or returns null if there is none or it cannot be opened.
+         */
+        static ReplayLog openReplayLog() {
+                if (replayArchive == null) {
+                        return null;
+                }
+                try {
+                        return new ReplayLog(Paths.get(replayArchive));
+                } catch (IOException e) {
+                        System.err.println("Cannot record replays to " + replayArchive + ": " + e.getMessage());
+                        return null;
+                }
+        }
+
+        /*
+         * Creates the autopilot, already warmed up at the game's rate, or returns
+         * null if the player flies the bird.
+         */
+        static Autopilot createAutopilot() {
+                if (!autopilot) {
+                        return null;
+                }
+                Autopilot pilot = new Autopilot();
+                pilot.warmUp(simulationRate);
+                return pilot;
+        }
+
+        /*
+         * Starts saving frames to the capture target, finishing the export and
+         * printing its statistics when the game exits, or returns null if there is
+         * none or it cannot be created.
+         */
+        static FrameExporter openExporter() {
+                if (captureTarget == null) {
+                        return null;
+                }
+                try {
+                        FrameExporter exporter = FrameExporter.open(Paths.get(captureTarget), true);
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                                try {
+                                        exporter.close();
+                                        System.out.println("Captured to " + captureTarget + ": " + exporter.summary());
+                                } catch (IOException e) {
+                                        System.err.println("Could not finish the capture: " + e.getMessage());
+                                }
+                        }));
+                        return exporter;
+                } catch (IOException e) {
+                        System.err.println("Cannot capture to " + captureTarget + ": " + e.getMessage());
+                        return null;
+                }
+        }
+
+        /*
+         * Opens the run log, closing it again when the game exits, or returns null
+         * if there is none or it cannot be opened.
+         */
+        static RunLog openRunLog() {
+                if (runLogFile == null) {
+                        return null;
+                }
+                try {
+                        RunLog runLog = new RunLog(Paths.get(runLogFile));
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                                try {
+                                        runLog.close();
+                                } catch (IOException e) {
+                                        System.err.println("Could not close run log: " + e.getMessage());
+                                }
+                        }));
+                        return runLog;
+                } catch (IOException e) {
+                        System.err.println("Cannot record runs to " + runLogFile + ": " + e.getMessage());
+                        return null;
+                }
+        }
+
+        /*
+         * Opens the ghost race, or returns null if there is none or it cannot be opened.
+         */
+        static GhostRace openGhostRace() {
+                if (ghostArchive == null) {
+                        return null;
+                }
+                try {
+                        return GhostRace.open(Paths.get(ghostArchive), MAX_GHOSTS);
+                } catch (IOException e) {
+                        System.err.println("Cannot race against " + ghostArchive + ": " + e.getMessage());
+                        return null;
+                }
+        }
+
+        /*
+         * Shows the frame in full-screen exclusive mode on the default screen, or
+         * maximized without decorations where that mode is not supported. The game
+         * canvas scales its frames to whatever resolution the screen has. Escape
+         * closes the game, since there is no title bar to close it with.
+         */
+        static void showFullScreen(JFrame frame) {
+                frame.setUndecorated(true);
+                KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(e -> {
+                        if (e.getID() == KeyEvent.KEY_PRESSED && e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                                frame.dispatchEvent(new WindowEvent(frame, WindowEvent.WINDOW_CLOSING));
+                                return true;
+                        }
+                        return false;
+                });
+                GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+                if (device.isFullScreenSupported()) {
+                        device.setFullScreenWindow(frame);
+                } else {
+                        frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+                        frame.setVisible(true);
+                }
+        }
+
+        /*
+         * Creates the screen that plays the game, according to the selected rendering mode.
+         */
+        static GameScreen createGameScreen() {
+                if (activeRendering) {
+                        return new GameCanvas(targetFps, logFrameStats, scaling, simulationRate);
+                }
+                return new GamePanel(logFrameStats, dirtyRegions);
+        }
+
+}
\ No newline at end of file
@@ -0,0 +1,450 @@
+package flappybird;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Works out where the bird can be after each pipe of a course, so a course can
+ * be checked for pipes that no sequence of flaps gets through.
+ *
+ * The analysis follows the 50 Hz game exactly. At 50 Hz the bird is always on
+ * whole pixels and its speed is a whole number of pixels per tick, so its state
+ * is a pair (y, velocity), plus whether it has flapped yet. A flap sets the speed
+ * to -FLAP_STRENGTH, gravity adds GRAVITY on every tick, and a bird that has not
+ * flapped stays where it is. The set of states the bird can be in is kept as one
+ * bitset of heights per velocity, so a tick is a few shifts and masks per velocity
+ * rather than a step per state.
+ *
+ * Pipes are PipeCourse.PIPE_SPACING apart and move Pipe.SPEED pixels a tick, so a
+ * new pipe spawns every SEGMENT_TICKS ticks, at the right edge, on the tick the
+ * previous one leaves the screen. Each pipe thus passes the bird at the same ticks
+ * of its segment, and the states at the end of a segment only depend on the
+ * states at its start and the height of its pipe. Those sets are called regions
+ * here.
+ *
+ * The first two thirds of a segment, before the pipe reaches the bird, do not
+ * depend on the height of the pipe: the states the bird can be in when the pipe
+ * reaches it (its approach) only depend on the region. With the game's pipes,
+ * the approach hardly depends on the region either, since the bird has most of
+ * a segment to get anywhere: the hundreds of regions the game's courses lead to
+ * have only a few approaches between them. So each region keeps its approach,
+ * approaches are interned, and each approach remembers the region that follows it
+ * for every pipe height. Once a pair has been worked out, checking a pipe is two
+ * lookups, and with the game's gap some 700 pairs cover every course. Regions are interned too;
+ * past MAX_REGIONS new regions or approaches are still worked out but not kept.
+ *
+ * Every state moves on by itself, so the approach of a region is the union of the
+ * approaches of its states, and a bigger region has a bigger approach. No
+ * approach is bigger than that of a bird that has flapped and could be anywhere,
+ * and a few single states (a bird at rest in the middle of the screen) already
+ * have that approach on their own. Any region of a bird that has flapped and that
+ * holds such a key state then has that approach too, which one bit tells.
+ *
+ * At other simulation rates the bird passes through the same pixels but is
+ * checked for collisions between them too, so a course is only known to be
+ * survivable at 50 Hz. Replays, ghosts and the game server all play at 50 Hz.
+ *
+ * A Reachability can be shared by any number of threads.
+ */
+public final class Reachability {
+
+    static final int SEGMENT_TICKS = PipeCourse.PIPE_SPACING / Pipe.SPEED;  // Ticks between two pipes spawning
+    static final int MIN_VELOCITY = Bird.GRAVITY - Bird.FLAP_STRENGTH;  // Speed after the tick of a flap
+    static final int MAX_VELOCITY = maxVelocity();  // Fastest a bird above the ground can fall
+    static final int ROWS = MAX_VELOCITY - MIN_VELOCITY + 1;  // Velocities a live bird can have
+    static final int WORDS = (GameEngine.GROUND_Y + 63) >>> 6;  // Longs per velocity, one bit per height
+    static final int WAITING = ROWS * WORDS;  // Index of the word that is 1 while the bird may not have flapped
+    static final int MAX_REGIONS = 1 << 12;  // Regions, and approaches, kept in the tables
+    private static final int KEY_CANDIDATES = 16;  // States tried as the key state
+
+    private static final Reachability SHARED = new Reachability(Pipe.GAP);
+
+    final int gap;  // Gap between the top and bottom sections of a pipe
+    final int heights;  // Number of heights a pipe's top section can have
+    private final long[] free;  // Heights above the ground
+    private final long[][] bands;  // For each pipe height, the heights at which the bird fits through the gap
+    private final boolean[] crossing = new boolean[SEGMENT_TICKS + 1];  // Ticks of a segment the bird is level with the pipe
+    private final int firstCrossing;  // First of those ticks
+    private final Approach widest;  // Approach of a bird that has flapped and could be anywhere
+    private final int key;  // Bit of a state whose approach alone is the widest, or -1 if none was found
+    private final ConcurrentHashMap<Region, Region> regions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Approach, Approach> approaches = new ConcurrentHashMap<>();
+    private final Region empty;  // The region of a bird that cannot get through
+    private final Region start;  // The bird at the start of a game
+    private final Region anywhere;  // The bird at any height and velocity
+    private final AtomicLong transitions = new AtomicLong();  // Segments worked out so far
+
+    /*
+     * A set of states the bird can be in at the start of a segment.
+     */
+    public static final class Region {
+        final long[] bits;  // ROWS rows of WORDS longs, then the WAITING word
+        private final int hash;
+        private volatile Approach approach;  // States when the pipe reaches the bird, once worked out
+
+        private Region(long[] bits) {
+            this.bits = bits;
+            this.hash = Arrays.hashCode(bits);
+        }
+
+        /*
+         * Counts the states in the region.
+         */
+        public int size() {
+            int size = 0;
+            for (long word : bits) {
+                size += Long.bitCount(word);
+            }
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Region && Arrays.equals(bits, ((Region) other).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /*
+     * A set of states the bird can be in on the tick before the pipe reaches it.
+     */
+    private static final class Approach {
+        final long[] bits;  // Laid out as in a region
+        private final int hash;
+        private final AtomicReferenceArray<Region> next;  // Region after each pipe height, once worked out; null if not interned
+
+        Approach(long[] bits, AtomicReferenceArray<Region> next) {
+            this.bits = bits;
+            this.hash = Arrays.hashCode(bits);
+            this.next = next;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Approach && Arrays.equals(bits, ((Approach) other).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /*
+     * Creates the analysis of courses whose pipes have the given gap.
+     */
+    public Reachability(int gap) {
+        if (gap <= Bird.SIZE || gap >= GameEngine.HEIGHT) {
+            throw new IllegalArgumentException("gap must be " + (Bird.SIZE + 1) + " to " + (GameEngine.HEIGHT - 1) + ": " + gap);
+        }
+        this.gap = gap;
+        this.heights = GameEngine.HEIGHT - gap;
+        free = new long[WORDS];
+        for (int y = 0; y < GameEngine.GROUND_Y; y++) {
+            free[y >>> 6] |= 1L << y;
+        }
+        bands = new long[heights][WORDS];
+        for (int height = 0; height < heights; height++) {
+            for (int y = 0; y < GameEngine.GROUND_Y; y++) {
+                // The same test as Collision.hitsPipe, with this gap, for a pipe level with the bird
+                boolean hits = Collision.intersects(0, y, Bird.SIZE, Bird.SIZE, 0, 0, Pipe.WIDTH, height)
+                        || Collision.intersects(0, y, Bird.SIZE, Bird.SIZE, 0, height + gap, Pipe.WIDTH, GameEngine.HEIGHT - height - gap);
+                if (!hits) {
+                    bands[height][y >>> 6] |= 1L << y;
+                }
+            }
+        }
+        int first = SEGMENT_TICKS + 1;
+        for (int tick = SEGMENT_TICKS; tick >= 1; tick--) {
+            int pipeX = GameEngine.WIDTH - Pipe.SPEED * tick;
+            crossing[tick] = Collision.intersects(GameEngine.BIRD_X, 0, Bird.SIZE, 1, pipeX, 0, Pipe.WIDTH, 1);
+            if (crossing[tick]) {
+                first = tick;
+            }
+        }
+        firstCrossing = first;
+
+        empty = internRegion(new long[WAITING + 1]);
+        long[] waiting = new long[WAITING + 1];
+        waiting[WAITING] = 1;
+        start = internRegion(waiting);
+        long[] all = new long[WAITING + 1];
+        for (int row = 0; row < ROWS; row++) {
+            System.arraycopy(free, 0, all, row * WORDS, WORDS);
+        }
+        anywhere = internRegion(all);
+        widest = internApproach(play(all.clone(), 0, firstCrossing - 1, 0, null));
+        anywhere.approach = widest;
+        key = keyState();
+    }
+
+    /*
+     * Gets the analysis of the game's own courses, shared by every PipeCourse.
+     */
+    public static Reachability shared() {
+        return SHARED;
+    }
+
+    /*
+     * Gets the region of the bird at the start of a game: at rest at its starting
+     * height, before its first flap.
+     */
+    public Region start() {
+        return start;
+    }
+
+    /*
+     * Gets the region of a bird that could be at any height with any velocity,
+     * to carry on from after a pipe nothing gets through.
+     */
+    public Region anywhere() {
+        return anywhere;
+    }
+
+    /*
+     * Gets where the bird can be when the next pipe spawns, if it was somewhere in
+     * the given region when a pipe of the given height spawned and then got past
+     * that pipe. Returns null if no state of the region gets past it.
+     */
+    public Region clear(Region from, int height) {
+        if (height < 0 || height >= heights) {
+            throw new IllegalArgumentException("height must be 0 to " + (heights - 1) + ": " + height);
+        }
+        Approach approach = approach(from);
+        if (approach.next == null) {
+            Region to = internRegion(pass(approach, height));
+            return to == empty ? null : to;
+        }
+        Region to = approach.next.get(height);
+        if (to == null) {
+            to = internRegion(pass(approach, height));
+            approach.next.set(height, to);  // Threads that race here work out the same region
+        }
+        return to == empty ? null : to;
+    }
+
+    /*
+     * Finds the pipe height closest to the given one that the bird gets past from
+     * the given region, trying lower before higher at the same distance. Returns
+     * -1 if it gets past no height at all.
+     */
+    public int repair(Region from, int height) {
+        for (int distance = 1; distance < heights; distance++) {
+            if (height - distance >= 0 && clear(from, height - distance) != null) {
+                return height - distance;
+            }
+            if (height + distance < heights && clear(from, height + distance) != null) {
+                return height + distance;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Gets the states the bird can be in after each tick of a segment, starting
+     * in the given region with a pipe of the given height: element 0 is the
+     * region itself and element SEGMENT_TICKS the region at the next spawn.
+     */
+    long[][] trace(Region from, int height) {
+        long[][] ticks = new long[SEGMENT_TICKS + 1][];
+        ticks[0] = from.bits.clone();
+        play(from.bits.clone(), 0, SEGMENT_TICKS, height, ticks);
+        return ticks;
+    }
+
+    /*
+     * Gets the number of regions kept in the table.
+     */
+    public int regionCount() {
+        return regions.size();
+    }
+
+    /*
+     * Gets the number of approaches kept in the table.
+     */
+    public int approachCount() {
+        return approaches.size();
+    }
+
+    /*
+     * Gets the number of times the rest of a segment was worked out for a pipe
+     * height, rather than looked up.
+     */
+    public long transitionCount() {
+        return transitions.get();
+    }
+
+    /*
+     * Gets the approach of a region, working it out the first time.
+     */
+    private Approach approach(Region from) {
+        Approach approach = from.approach;
+        if (approach == null) {
+            if (key >= 0 && from.bits[WAITING] == 0 && (from.bits[key >>> 6] & 1L << key) != 0) {
+                approach = widest;
+            } else {
+                approach = internApproach(play(from.bits.clone(), 0, firstCrossing - 1, 0, null));
+            }
+            from.approach = approach;  // Threads that race here work out the same approach
+        }
+        return approach;
+    }
+
+    /*
+     * Looks for a state whose approach alone is the widest, among birds at rest
+     * from the middle of the screen outwards, and returns its bit, or -1.
+     */
+    private int keyState() {
+        int middle = GameEngine.GROUND_Y / 2;
+        for (int distance = 0; distance < KEY_CANDIDATES; distance++) {
+            int y = middle + (distance % 2 == 0 ? distance / 2 : -(distance + 1) / 2);
+            int bit = -MIN_VELOCITY * WORDS * 64 + y;
+            long[] state = new long[WAITING + 1];
+            state[bit >>> 6] |= 1L << bit;
+            if (Arrays.equals(play(state, 0, firstCrossing - 1, 0, null), widest.bits)) {
+                return bit;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Plays the rest of a segment from an approach, past a pipe of the given height.
+     */
+    private long[] pass(Approach approach, int height) {
+        transitions.incrementAndGet();
+        return play(approach.bits.clone(), firstCrossing - 1, SEGMENT_TICKS, height, null);
+    }
+
+    /*
+     * Plays a stretch of a segment for every state at once: each tick, every
+     * state either flaps or does not, and the states that hit the pipe or the
+     * ground are dropped. Plays the ticks after tick up to and including last,
+     * with a pipe of the given height, and returns the states after the last;
+     * fills in ticks, if given, with the states after each of them.
+     */
+    private long[] play(long[] current, int tick, int last, int height, long[][] ticks) {
+        long[] next = new long[current.length];
+        long[] flapped = new long[WORDS];
+        while (tick < last) {
+            tick++;
+            step(current, next, flapped, crossing[tick] ? bands[height] : free);
+            long[] swap = current;
+            current = next;
+            next = swap;
+            if (ticks != null) {
+                ticks[tick] = current.clone();
+            }
+        }
+        return current;
+    }
+
+    /*
+     * Moves every state in from on by one tick into to, keeping only the heights
+     * in mask. flapped is scratch space.
+     */
+    private static void step(long[] from, long[] to, long[] flapped, long[] mask) {
+        Arrays.fill(flapped, 0);
+        Arrays.fill(to, WORDS, Bird.GRAVITY * WORDS, 0);  // Speeds that only a flap could give, other than a flap's own
+        boolean clamped = false;  // Whether a state went above the top and was stopped there
+        for (int row = 0; row < ROWS; row++) {
+            int offset = row * WORDS;
+            for (int i = 0; i < WORDS; i++) {
+                flapped[i] |= from[offset + i];
+            }
+            // Without a flap, gravity speeds the bird up and it moves by its new speed
+            int velocity = row + MIN_VELOCITY + Bird.GRAVITY;
+            if (row + Bird.GRAVITY < ROWS) {
+                shift(from, offset, to, offset + Bird.GRAVITY * WORDS, velocity, mask);
+                clamped |= velocity < 0 && (from[offset] & ((1L << -velocity) - 1)) != 0;
+            }
+        }
+        // A flap gives every state the same speed, whatever its speed was
+        boolean waiting = from[WAITING] != 0;
+        if (waiting) {
+            flapped[GameEngine.BIRD_START_Y >>> 6] |= 1L << GameEngine.BIRD_START_Y;
+        }
+        shift(flapped, 0, to, 0, MIN_VELOCITY, mask);
+        clamped |= (flapped[0] & ((1L << -MIN_VELOCITY) - 1)) != 0;
+        if (clamped) {
+            to[-MIN_VELOCITY * WORDS] |= mask[0] & 1;  // At the top, at rest
+        }
+        // A bird that has not flapped stays where it started
+        to[WAITING] = waiting && (mask[GameEngine.BIRD_START_Y >>> 6] & 1L << GameEngine.BIRD_START_Y) != 0 ? 1 : 0;
+    }
+
+    /*
+     * Sets the row of WORDS longs at to[toOffset] to the row at from[fromOffset]
+     * moved down by distance heights (up if negative), keeping only the heights in
+     * mask. The distance is less than 64 either way, like every speed of the bird.
+     * Bits moved past either end are lost.
+     */
+    private static void shift(long[] from, int fromOffset, long[] to, int toOffset, int distance, long[] mask) {
+        long carry = 0;
+        if (distance >= 0) {
+            for (int i = 0; i < WORDS; i++) {
+                long word = from[fromOffset + i];
+                to[toOffset + i] = (word << distance | carry) & mask[i];
+                carry = word >>> 1 >>> (63 - distance);  // No carry at all when distance is 0
+            }
+        } else {
+            for (int i = WORDS - 1; i >= 0; i--) {
+                long word = from[fromOffset + i];
+                to[toOffset + i] = (word >>> -distance | carry) & mask[i];
+                carry = word << (64 + distance);
+            }
+        }
+    }
+
+    /*
+     * Gets the region of the given states from the table, adding it if there is room.
+     */
+    private Region internRegion(long[] bits) {
+        Region region = new Region(bits);
+        Region known = regions.get(region);
+        if (known != null || regions.size() >= MAX_REGIONS) {
+            return known != null ? known : region;
+        }
+        known = regions.putIfAbsent(region, region);
+        return known != null ? known : region;
+    }
+
+    /*
+     * Gets the approach of the given states from the table, adding it if there is room.
+     */
+    private Approach internApproach(long[] bits) {
+        Approach probe = new Approach(bits, null);
+        Approach known = approaches.get(probe);
+        if (known != null) {
+            return known;
+        }
+        if (approaches.size() >= MAX_REGIONS) {
+            return probe;
+        }
+        Approach approach = new Approach(bits, new AtomicReferenceArray<>(heights));
+        known = approaches.putIfAbsent(approach, approach);
+        return known != null ? known : approach;
+    }
+
+    /*
+     * Works out the fastest a bird can fall without reaching the ground. A falling
+     * bird was at rest at some height since its last flap, and it cannot have been
+     * above the top of the screen, so no bird falls faster than one dropped from
+     * rest at the top.
+     */
+    private static int maxVelocity() {
+        int velocity = 0;
+        int y = 0;
+        while (y + velocity + Bird.GRAVITY < GameEngine.GROUND_Y) {
+            velocity += Bird.GRAVITY;
+            y += velocity;
+        }
+        return velocity;
+    }
+}
@@ -0,0 +1,320 @@
+package flappybird;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Command-line tool for checking that courses can be survived.
+ *
+ * audit generates the courses of seeds seed, seed + 1, ... with a CourseGenerator
+ * and counts the pipes it had to repair. The courses are split over a ForkJoinPool
+ * that shares one Reachability, so every region and segment worked out by one
+ * thread is a lookup for the others. A gap other than the game's own shows how
+ * often a tighter gap would leave no way through; the heights checksum is the same
+ * for any number of threads.
+ *
+ * verify checks the analysis against the real game. For every course it works out
+ * the states the bird can be in after every tick, picks one that got past the last
+ * pipe and walks back through the ticks to a sequence of flaps that leads there.
+ * It then plays those flaps with a GameEngine, which must survive to the end and
+ * put the bird on the predicted height on every tick. The program exits with
+ * status 1 on the first course that does not.
+ *
+ * Usage:
+ *   java -cp game/target/classes flappybird.ReachabilityTool audit [courses] [pipes] [seed] [threads] [gap]
+ *   java -cp game/target/classes flappybird.ReachabilityTool verify [courses] [pipes] [seed]
+ */
+public class ReachabilityTool {
+
+    private static final int LEAF_SIZE = 1_024;  // Courses audited by one fork-join leaf task
+    private static final int ROW_BITS = Reachability.WORDS * 64;  // Bits per velocity in a region
+    private static final int WAITING = Reachability.WAITING * 64;  // State of a bird that has not flapped
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ReachabilityTool audit [courses] [pipes] [seed] [threads] [gap]"
+                    + " | verify [courses] [pipes] [seed]");
+            System.exit(2);
+        }
+        if (args[0].equals("audit")) {
+            int courses = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            int pipes = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+            int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+            int gap = args.length > 5 ? Integer.parseInt(args[5]) : Pipe.GAP;
+            audit(courses, pipes, seed, threads, gap);
+        } else if (args[0].equals("verify")) {
+            int courses = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+            int pipes = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+            if (!verify(courses, pipes, seed)) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("Unknown command: " + args[0]);
+            System.exit(2);
+        }
+    }
+
+    /*
+     * Generates courses seed to seed + courses - 1 of the given number of pipes
+     * on the given number of threads and prints how many pipes were repaired.
+     */
+    static void audit(int courses, int pipes, long seed, int threads, int gap) {
+        Reachability reachability = gap == Pipe.GAP ? Reachability.shared() : new Reachability(gap);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Totals totals = pool.invoke(new Audit(reachability, seed, pipes, 0, courses));
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        System.out.printf("Audited %,d courses of %d pipes (gap %d) on %d threads in %.2f s (%,.0f courses/s)%n",
+                courses, pipes, gap, threads, elapsed / 1e9, courses * 1e9 / elapsed);
+        System.out.printf("%,d pipes repaired in %,d courses, %,d pipes impossible at any height%n",
+                totals.repaired, totals.repairedCourses, totals.impossible);
+        System.out.printf("%,d regions, %,d approaches, %,d segments worked out for %,d pipes; heights checksum %016x%n",
+                reachability.regionCount(), reachability.approachCount(), reachability.transitionCount(),
+                (long) courses * pipes, totals.checksum);
+    }
+
+    /*
+     * Counts of a range of audited courses.
+     */
+    private static final class Totals {
+        long repaired;  // Pipes moved to a height the bird can get through
+        long repairedCourses;  // Courses with at least one such pipe
+        long impossible;  // Pipes no height of which the bird can get through
+        long checksum;  // Sum of a hash of every course's heights, so it does not depend on the order
+
+        void add(Totals other) {
+            repaired += other.repaired;
+            repairedCourses += other.repairedCourses;
+            impossible += other.impossible;
+            checksum += other.checksum;
+        }
+    }
+
+    /*
+     * Audits the courses in [from, to), splitting the range in halves until a leaf
+     * is small enough to run on one thread.
+     */
+    private static final class Audit extends RecursiveTask<Totals> {
+        private final Reachability reachability;
+        private final long seed;
+        private final int pipes;
+        private final int from;
+        private final int to;
+
+        Audit(Reachability reachability, long seed, int pipes, int from, int to) {
+            this.reachability = reachability;
+            this.seed = seed;
+            this.pipes = pipes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= LEAF_SIZE) {
+                Totals totals = new Totals();
+                CourseGenerator generator = new CourseGenerator(seed + from, reachability);
+                for (int i = from; i < to; i++) {
+                    generator.reset(seed + i);
+                    long hash = seed + i;
+                    for (int p = 0; p < pipes; p++) {
+                        hash = 31 * hash + generator.nextHeight();
+                    }
+                    totals.repaired += generator.getRepaired();
+                    totals.impossible += generator.getImpossible();
+                    if (generator.getRepaired() > 0) {
+                        totals.repairedCourses++;
+                    }
+                    totals.checksum += SeededRandom.mix(hash);
+                }
+                return totals;
+            }
+            int mid = (from + to) >>> 1;
+            Audit left = new Audit(reachability, seed, pipes, from, mid);
+            left.fork();
+            Totals totals = new Audit(reachability, seed, pipes, mid, to).compute();
+            totals.add(left.join());
+            return totals;
+        }
+    }
+
+    /*
+     * Checks courses seed to seed + courses - 1 against the game, as described
+     * above. Returns whether every course passed.
+     */
+    static boolean verify(int courses, int pipes, long seed) {
+        Reachability reachability = Reachability.shared();
+        int ticks = pipes * Reachability.SEGMENT_TICKS;
+        GameEngine engine = new GameEngine(seed);
+        long flaps = 0;
+        for (int c = 0; c < courses; c++) {
+            long courseSeed = seed + c;
+            CourseGenerator generator = new CourseGenerator(courseSeed, reachability);
+            int[] heights = new int[pipes];
+            long[][] states = new long[ticks + 1][];
+            for (int p = 0; p < pipes; p++) {
+                Reachability.Region region = generator.getReachable();
+                heights[p] = generator.nextHeight();
+                long[][] trace = reachability.trace(region, heights[p]);
+                System.arraycopy(trace, 0, states, p * Reachability.SEGMENT_TICKS, trace.length);
+                if (!Arrays.equals(trace[trace.length - 1], generator.getReachable().bits)) {
+                    System.out.printf("Course %d, pipe %d: the table and the trace disagree%n", courseSeed, p);
+                    return false;
+                }
+            }
+            if (generator.getImpossible() > 0) {
+                System.out.printf("Course %d: %d pipes cannot be passed%n", courseSeed, generator.getImpossible());
+                return false;
+            }
+
+            // Walk back from any state that got past the last pipe
+            int[] path = new int[ticks + 1];
+            boolean[] flapped = new boolean[ticks + 1];
+            path[ticks] = first(states[ticks]);
+            for (int t = ticks; t > 0; t--) {
+                int state = path[t];
+                int previous = predecessor(states[t - 1], state, false);
+                if (previous < 0) {
+                    previous = predecessor(states[t - 1], state, true);
+                    flapped[t] = true;
+                }
+                if (previous < 0) {
+                    System.out.printf("Course %d, tick %d: no way into state %d%n", courseSeed, t, state);
+                    return false;
+                }
+                path[t - 1] = previous;
+            }
+
+            // Play the flaps in the game, whose pipes must spawn with the same heights at the start of each segment
+            engine.reset(courseSeed);
+            for (int t = 0; t <= ticks; t++) {
+                if (t > 0) {
+                    engine.step(flapped[t]);
+                    flaps += flapped[t] ? 1 : 0;
+                }
+                int pipe = t / Reachability.SEGMENT_TICKS;
+                PipeStore enginePipes = engine.getPipes();
+                int newest = enginePipes.size() - 1;
+                if (t % Reachability.SEGMENT_TICKS == 0 && pipe < pipes
+                        && (enginePipes.x(newest) != GameEngine.WIDTH || enginePipes.height(newest) != heights[pipe])) {
+                    System.out.printf("Course %d: pipe %d spawned at (%d, %d) instead of (%d, %d)%n", courseSeed, pipe,
+                            enginePipes.x(newest), enginePipes.height(newest), GameEngine.WIDTH, heights[pipe]);
+                    return false;
+                }
+                if (engine.isGameOver() || engine.getBird().getY() != y(path[t])) {
+                    System.out.printf("Course %d, tick %d: bird at %d%s, expected %d%n", courseSeed, t,
+                            engine.getBird().getY(), engine.isGameOver() ? " and dead" : "", y(path[t]));
+                    return false;
+                }
+            }
+        }
+        System.out.printf("OK: %d courses of %d pipes survived with %,d flaps found by the analysis;"
+                        + " %d regions, %d approaches, %,d segments worked out%n",
+                courses, pipes, flaps, reachability.regionCount(), reachability.approachCount(), reachability.transitionCount());
+        return true;
+    }
+
+    /*
+     * Finds a state in the given set that moves to the given state in one tick,
+     * with or without a flap, or returns -1. A state without a flap can only come
+     * from one place, and a flap only from the same height, whatever the speed; a
+     * bird stopped at the top may come from anywhere, so the whole set is searched.
+     */
+    private static int predecessor(long[] set, int state, boolean flap) {
+        if (state == WAITING) {
+            return !flap && contains(set, WAITING) ? WAITING : -1;
+        }
+        int velocity = state / ROW_BITS + Reachability.MIN_VELOCITY;
+        int y = state % ROW_BITS;
+        if (!flap) {
+            int previous = state(y - velocity, velocity - Bird.GRAVITY);
+            if (previous >= 0 && contains(set, previous) && next(previous, false) == state) {
+                return previous;
+            }
+        } else if (velocity == Reachability.MIN_VELOCITY) {
+            for (int v = Reachability.MIN_VELOCITY; v <= Reachability.MAX_VELOCITY; v++) {
+                int previous = state(y - velocity, v);
+                if (previous >= 0 && contains(set, previous) && next(previous, true) == state) {
+                    return previous;
+                }
+            }
+            if (y - velocity == GameEngine.BIRD_START_Y && contains(set, WAITING)) {
+                return WAITING;
+            }
+        }
+        if (y == 0) {
+            for (int previous = 0; previous <= WAITING; previous++) {
+                if (contains(set, previous) && next(previous, flap) == state) {
+                    return previous;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Moves a state on by one tick the way Bird.update does at 50 Hz, or returns
+     * -1 if the bird reaches the ground. Pipes are left to the caller.
+     */
+    private static int next(int state, boolean flap) {
+        int y;
+        int velocity;
+        if (state == WAITING) {
+            if (!flap) {
+                return WAITING;
+            }
+            y = GameEngine.BIRD_START_Y;
+            velocity = 0;
+        } else {
+            y = state % ROW_BITS;
+            velocity = state / ROW_BITS + Reachability.MIN_VELOCITY;
+        }
+        velocity = flap ? -Bird.FLAP_STRENGTH + Bird.GRAVITY : velocity + Bird.GRAVITY;
+        y += velocity;
+        if (y < 0) {
+            y = 0;
+            velocity = 0;
+        }
+        return y >= GameEngine.GROUND_Y ? -1 : state(y, velocity);
+    }
+
+    /*
+     * Gets the state of a bird at the given height and velocity, or -1 if there is no such state.
+     */
+    private static int state(int y, int velocity) {
+        if (y < 0 || y >= GameEngine.GROUND_Y || velocity < Reachability.MIN_VELOCITY || velocity > Reachability.MAX_VELOCITY) {
+            return -1;
+        }
+        return (velocity - Reachability.MIN_VELOCITY) * ROW_BITS + y;
+    }
+
+    /*
+     * Gets the height of a state.
+     */
+    private static int y(int state) {
+        return state == WAITING ? GameEngine.BIRD_START_Y : state % ROW_BITS;
+    }
+
+    /*
+     * Returns whether a set contains a state.
+     */
+    private static boolean contains(long[] set, int state) {
+        return (set[state >>> 6] & 1L << state) != 0;
+    }
+
+    /*
+     * Gets the first state in a set, or -1 if it is empty.
+     */
+    private static int first(long[] set) {
+        for (int i = 0; i < set.length; i++) {
+            if (set[i] != 0) {
+                return i * 64 + Long.numberOfTrailingZeros(set[i]);
+            }
+        }
+        return -1;
+    }
+}
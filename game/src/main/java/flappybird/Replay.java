@@ -0,0 +1,73 @@
+package flappybird;
+
+/*
+ * A recorded game: the seed it was played with, the ticks on which the bird
+ * flapped, and how it ended. Since the engine is deterministic for a given seed,
+ * this is all that is needed to play the game again exactly as it happened.
+ *
+ * Replays are stored in archives by ReplayWriter and read back by ReplayReader.
+ */
+public final class Replay {
+
+    private final long seed;  // Seed of the session
+    private final long ticks;  // Number of ticks the session lasted
+    private final int score;  // Final score of the session
+    private final long[] flapTicks;  // Ticks on which the bird flapped, in increasing order
+
+    public Replay(long seed, long ticks, int score, long[] flapTicks) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.score = score;
+        this.flapTicks = flapTicks;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getFlapCount() {
+        return flapTicks.length;
+    }
+
+    /*
+     * Gets the tick of the i-th flap.
+     */
+    public long getFlapTick(int i) {
+        return flapTicks[i];
+    }
+
+    /*
+     * Plays the replay on the given engine, which is reset to the replay's seed
+     * first, as fast as the CPU allows. Stops after the recorded number of ticks
+     * or when the game ends, whichever comes first.
+     */
+    public GameEngine play(GameEngine engine) {
+        engine.reset(seed);
+        int next = 0;
+        while (!engine.isGameOver() && engine.getTick() < ticks) {
+            boolean flap = next < flapTicks.length && flapTicks[next] == engine.getTick();
+            if (flap) {
+                next++;
+            }
+            engine.step(flap);
+        }
+        return engine;
+    }
+
+    /*
+     * Plays the replay on the given engine and returns whether it reproduces the
+     * recorded number of ticks and final score.
+     */
+    public boolean verify(GameEngine engine) {
+        play(engine);
+        return engine.getTick() == ticks && engine.getScore() == score;
+    }
+}
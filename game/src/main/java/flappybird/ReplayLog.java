@@ -0,0 +1,69 @@
+package flappybird;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Appends the replays of finished games to an archive file in the background,
+ * so saving a game never does file I/O on the EDT or the game loop thread.
+ */
+public class ReplayLog implements Closeable {
+
+    private final ReplayWriter writer;  // Open archive, used only by the writer thread
+    private final ExecutorService executor;  // Single thread that does the writing
+
+    /*
+     * Opens the archive for appending, creating it if needed.
+     */
+    public ReplayLog(Path file) throws IOException {
+        this.writer = ReplayWriter.append(file);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replay-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                System.err.println("Could not close replay archive: " + e.getMessage());
+            }
+        }));
+    }
+
+    /*
+     * Queues a replay to be appended to the archive.
+     */
+    public void add(Replay replay) {
+        executor.execute(() -> {
+            try {
+                writer.write(replay);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /*
+     * Writes the queued replays and closes the archive.
+     */
+    @Override
+    public void close() throws IOException {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
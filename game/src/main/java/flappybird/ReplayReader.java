@@ -0,0 +1,100 @@
+package flappybird;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/*
+ * Reads the replays of an archive written by ReplayWriter one at a time, so
+ * archives of any size can be processed without loading them into memory.
+ */
+public class ReplayReader implements Closeable {
+
+    private static final int INITIAL_FLAPS = 1024;  // Flaps room is made for before any are read
+
+    private final DataInputStream in;  // Buffered stream the records come from
+
+    /*
+     * Opens an archive on the given stream and checks its header.
+     */
+    public ReplayReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        byte[] magic = new byte[ReplayWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ReplayWriter.MAGIC)) {
+            throw new IOException("not a replay archive");
+        }
+    }
+
+    /*
+     * Opens an archive file.
+     */
+    public static ReplayReader open(Path file) throws IOException {
+        return new ReplayReader(Files.newInputStream(file));
+    }
+
+    /*
+     * Reads the next replay, or returns null at the end of the archive. Throws
+     * an IOException if the record is malformed: the counts it holds are checked
+     * before they are used, and the flap ticks are stored as they are read, so a
+     * corrupt or hostile archive cannot make it allocate more than it contains.
+     */
+    public Replay next() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        // The end of the archive may only fall between records
+        long seed = first;
+        for (int i = 1; i < Long.BYTES; i++) {
+            seed = (seed << 8) | in.readUnsignedByte();
+        }
+        long ticks = readVarLong();
+        if (ticks < 0) {
+            throw new IOException("bad tick count " + Long.toUnsignedString(ticks));
+        }
+        long score = readVarLong();
+        if (score < 0 || score > Integer.MAX_VALUE) {
+            throw new IOException("bad score " + Long.toUnsignedString(score));
+        }
+        // Flaps are recorded at most once per tick, the last possibly on the tick the game stopped at
+        long flapCount = readVarLong();
+        if (flapCount < 0 || flapCount > ticks + 1 || flapCount > Integer.MAX_VALUE - 8) {
+            throw new IOException("bad flap count " + Long.toUnsignedString(flapCount) + " for " + ticks + " ticks");
+        }
+        long[] flapTicks = new long[(int) Math.min(flapCount, INITIAL_FLAPS)];
+        long tick = 0;
+        for (int i = 0; i < flapCount; i++) {
+            tick += readVarLong();
+            if (tick < 0 || tick > ticks) {
+                throw new IOException("bad flap tick " + Long.toUnsignedString(tick) + " for " + ticks + " ticks");
+            }
+            if (i == flapTicks.length) {
+                flapTicks = Arrays.copyOf(flapTicks, (int) Math.min(flapCount, 2L * flapTicks.length));
+            }
+            flapTicks[i] = tick;
+        }
+        return new Replay(seed, ticks, (int) score, flapTicks);
+    }
+
+    /*
+     * Reads an unsigned LEB128 varint.
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
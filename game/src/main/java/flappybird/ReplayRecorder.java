@@ -0,0 +1,53 @@
+package flappybird;
+
+import java.util.Arrays;
+
+/*
+ * Collects the flaps of a game while it is played, so it can be saved as a Replay.
+ *
+ * A recorder is attached to a GameEngine, which tells it when a new game begins
+ * and on which tick each flap happens. Several flaps before the same tick have
+ * the same effect as one, so they are recorded once. The buffer grows as needed
+ * and is reused from game to game.
+ */
+public class ReplayRecorder {
+
+    private long seed;  // Seed of the game being recorded
+    private long[] flapTicks = new long[256];  // Ticks of the flaps so far
+    private int flapCount;  // Number of flaps so far
+
+    /*
+     * Starts recording a new game played with the given seed.
+     */
+    void begin(long seed) {
+        this.seed = seed;
+        this.flapCount = 0;
+    }
+
+    /*
+     * Records a flap that takes effect on the given tick.
+     */
+    void flap(long tick) {
+        if (flapCount > 0 && flapTicks[flapCount - 1] == tick) {
+            return;
+        }
+        if (flapCount == flapTicks.length) {
+            flapTicks = Arrays.copyOf(flapTicks, flapCount * 2);
+        }
+        flapTicks[flapCount++] = tick;
+    }
+
+    /*
+     * Returns the replay of the game recorded so far, given how many ticks it lasted and its score.
+     */
+    public Replay finish(long ticks, int score) {
+        return new Replay(seed, ticks, score, Arrays.copyOf(flapTicks, flapCount));
+    }
+
+    /*
+     * Returns the replay of the game the engine has played so far.
+     */
+    public Replay finish(GameEngine engine) {
+        return finish(engine.getTick(), engine.getScore());
+    }
+}
@@ -0,0 +1,117 @@
+package flappybird;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+ * Command-line tool for replay archives.
+ *
+ * record plays seeded sessions headlessly with the follow-gap policy and appends
+ * their replays to an archive, which is handy for building regression sets.
+ * ghosts plays many sessions of one seed, each following the gap a little
+ * differently, to race against with --ghosts. verify streams an archive, plays
+ * every replay at full speed and checks that it reproduces its recorded length
+ * and score. A bug report can be checked the same way by verifying the archive
+ * the game wrote with --record.
+ *
+ * Usage:
+ *   java -cp game/target/classes flappybird.ReplayTool record <archive> [sessions] [seed] [maxTicks]
+ *   java -cp game/target/classes flappybird.ReplayTool ghosts <archive> [ghosts] [seed] [maxTicks]
+ *   java -cp game/target/classes flappybird.ReplayTool verify <archive>
+ */
+public class ReplayTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ReplayTool record <archive> [sessions] [seed] [maxTicks]"
+                    + " | ghosts <archive> [ghosts] [seed] [maxTicks] | verify <archive>");
+            System.exit(2);
+        }
+        Path archive = Paths.get(args[1]);
+        if (args[0].equals("record")) {
+            int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+            long maxTicks = args.length > 4 ? Long.parseLong(args[4]) : 10_000;
+            record(archive, sessions, seed, maxTicks);
+        } else if (args[0].equals("ghosts")) {
+            int ghosts = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 7;
+            long maxTicks = args.length > 4 ? Long.parseLong(args[4]) : 3_000;
+            ghosts(archive, ghosts, seed, maxTicks);
+        } else if (args[0].equals("verify")) {
+            if (!verify(archive)) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("Unknown command: " + args[0]);
+            System.exit(2);
+        }
+    }
+
+    /*
+     * Plays sessions seed, seed + 1, ... and appends their replays to the archive.
+     */
+    static void record(Path archive, int sessions, long seed, long maxTicks) throws IOException {
+        FlapPolicy policy = FlapPolicy.followGap();
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameEngine engine = new GameEngine(seed);
+        engine.setRecorder(recorder);
+        try (ReplayWriter writer = ReplayWriter.append(archive)) {
+            for (int i = 0; i < sessions; i++) {
+                engine.reset(seed + i);
+                HeadlessRunner.play(engine, policy, maxTicks);
+                writer.write(recorder.finish(engine));
+            }
+        }
+        System.out.println("Recorded " + sessions + " replays to " + archive);
+    }
+
+    /*
+     * Plays the given number of sessions of one seed and appends their replays to
+     * the archive. Each session follows the gap with its own offset, spread over
+     * the middle half of the gap like PopulationSimulator's birds.
+     */
+    static void ghosts(Path archive, int ghosts, long seed, long maxTicks) throws IOException {
+        SeededRandom random = new SeededRandom(seed);
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameEngine engine = new GameEngine(seed);
+        engine.setRecorder(recorder);
+        try (ReplayWriter writer = ReplayWriter.append(archive)) {
+            for (int i = 0; i < ghosts; i++) {
+                engine.reset(seed);
+                HeadlessRunner.play(engine, FlapPolicy.followGap(random.nextInt(Pipe.GAP / 2) - Pipe.GAP / 4), maxTicks);
+                writer.write(recorder.finish(engine));
+            }
+        }
+        System.out.println("Recorded " + ghosts + " ghosts of seed " + seed + " to " + archive);
+    }
+
+    /*
+     * Plays every replay in the archive and reports the ones that do not reproduce.
+     * Returns true if all of them did.
+     */
+    static boolean verify(Path archive) throws IOException {
+        GameEngine engine = new GameEngine(0);
+        long replays = 0;
+        long failures = 0;
+        long ticks = 0;
+        long start = System.nanoTime();
+        try (ReplayReader reader = ReplayReader.open(archive)) {
+            Replay replay;
+            while ((replay = reader.next()) != null) {
+                replays++;
+                if (!replay.verify(engine)) {
+                    failures++;
+                    System.out.printf("Mismatch in replay %d (seed %d): recorded %d ticks / %d points, replayed %d ticks / %d points%n",
+                            replays, replay.getSeed(), replay.getTicks(), replay.getScore(), engine.getTick(), engine.getScore());
+                }
+                ticks += engine.getTick();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Verified %d replays (%d mismatches), %d ticks in %.2f s: %,.0f replays/s, %,.0f ticks/s%n",
+                replays, failures, ticks, seconds, replays / seconds, ticks / seconds);
+        return failures == 0;
+    }
+}
@@ -0,0 +1,85 @@
+package flappybird;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Writes replays to an archive, one after another, without keeping them in memory.
+ *
+ * Archive format: the four bytes "FBR1", followed by any number of records. Each
+ * record is the seed as 8 big-endian bytes, then as unsigned LEB128 varints the
+ * number of ticks, the score, the number of flaps and the gap in ticks before
+ * each flap (the first gap counts from tick 0). A typical game of a few thousand
+ * ticks takes a few hundred bytes.
+ */
+public class ReplayWriter implements Closeable {
+
+    static final byte[] MAGIC = {'F', 'B', 'R', '1'};
+
+    private final DataOutputStream out;  // Buffered stream the records go to
+
+    /*
+     * Starts a new archive on the given stream, writing the archive header.
+     */
+    public ReplayWriter(OutputStream stream) throws IOException {
+        this(stream, true);
+    }
+
+    private ReplayWriter(OutputStream stream, boolean writeHeader) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream));
+        if (writeHeader) {
+            out.write(MAGIC);
+        }
+    }
+
+    /*
+     * Opens an archive file for appending, creating it (with its header) if it
+     * does not exist yet.
+     */
+    public static ReplayWriter append(Path file) throws IOException {
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        OutputStream stream = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new ReplayWriter(stream, isNew);
+    }
+
+    /*
+     * Appends one replay to the archive.
+     */
+    public void write(Replay replay) throws IOException {
+        out.writeLong(replay.getSeed());
+        writeVarLong(replay.getTicks());
+        writeVarLong(replay.getScore());
+        writeVarLong(replay.getFlapCount());
+        long previous = 0;
+        for (int i = 0; i < replay.getFlapCount(); i++) {
+            long tick = replay.getFlapTick(i);
+            writeVarLong(tick - previous);
+            previous = tick;
+        }
+    }
+
+    /*
+     * Pushes buffered records to the underlying stream.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /*
+     * Writes a non-negative value as an unsigned LEB128 varint (7 bits per byte).
+     */
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
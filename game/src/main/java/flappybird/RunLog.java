@@ -0,0 +1,284 @@
+package flappybird;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * An append-only, memory-mapped log of every finished run, with a leaderboard.
+ *
+ * File format: a HEADER_SIZE byte header followed by fixed-size records of
+ * RECORD_SIZE bytes, so record i is at a known offset and can be read without
+ * scanning. The header holds the magic "FBRL", the format version, the number
+ * of committed records and, for each RunRecord.Source, the record numbers of
+ * its TOP_K best runs, best first. A record is written before the count is
+ * raised, so a crash can lose at most the run being appended.
+ *
+ * Record layout (little endian): timestamp millis (8), seed (8), ticks (8),
+ * score (4), source (1), padding (3).
+ *
+ * The file is mapped in SEGMENT_SIZE pieces, added as it grows, so appending and
+ * reading are plain memory accesses and the log can hold tens of millions of
+ * runs. The leaderboard is read from the header on open and updated on append,
+ * and runs are stamped with non-decreasing times, so a time range is found by
+ * binary search. Nothing ever scans the whole log.
+ *
+ * Every method is synchronized, so runs can be appended from the EDT, the game
+ * loop and simulation threads.
+ */
+public class RunLog implements Closeable {
+
+    static final int MAGIC = 0x4C524246;  // "FBRL" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4096;
+    static final int RECORD_SIZE = 32;
+    static final int TOP_K = 64;  // Length of each leaderboard
+    static final long SEGMENT_SIZE = 16L << 20;  // Bytes mapped at a time, a multiple of RECORD_SIZE
+
+    private static final int COUNT_OFFSET = 8;
+    private static final int TOP_COUNTS_OFFSET = 16;  // One int per source
+    private static final int TOP_OFFSET = 64;  // TOP_K longs per source
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();  // Consecutive mappings of the file
+    private final MappedByteBuffer header;  // The first segment, which starts with the header
+    private long count;  // Committed records
+    private long lastTimestamp;  // Timestamp of the newest record
+
+    // Leaderboard of each source, best first: record numbers and their scores
+    private final long[][] leaderRecords = new long[RunRecord.Source.values().length][TOP_K];
+    private final int[][] leaderScores = new int[leaderRecords.length][TOP_K];
+    private final int[] leaderCounts = new int[leaderRecords.length];
+
+    /*
+     * Opens a run log, creating it if it does not exist.
+     * Throws IOException if the file exists but is not a run log.
+     */
+    public RunLog(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean isNew = channel.size() == 0;
+        header = segment(0);
+        if (isNew) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putLong(COUNT_OFFSET, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a run log");
+        }
+        count = header.getLong(COUNT_OFFSET);
+        if (count > 0) {
+            lastTimestamp = timestampAt(count - 1);
+        }
+        for (int source = 0; source < leaderCounts.length; source++) {
+            leaderCounts[source] = header.getInt(TOP_COUNTS_OFFSET + 4 * source);
+            for (int i = 0; i < leaderCounts[source]; i++) {
+                long record = header.getLong(topOffset(source, i));
+                leaderRecords[source][i] = record;
+                leaderScores[source][i] = scoreAt(record);
+            }
+        }
+    }
+
+    /*
+     * Appends a run and updates its source's leaderboard. Returns the record number.
+     * The timestamp is raised to the previous record's if the clock went backwards,
+     * which keeps the log sorted by time.
+     */
+    public synchronized long append(RunRecord run) {
+        long index = count;
+        long timestamp = Math.max(run.timestampMillis, lastTimestamp);
+        MappedByteBuffer segment = segmentOf(index);
+        int offset = offsetInSegment(index);
+        segment.putLong(offset, timestamp);
+        segment.putLong(offset + 8, run.seed);
+        segment.putLong(offset + 16, run.ticks);
+        segment.putInt(offset + 24, run.score);
+        segment.put(offset + 28, (byte) run.source.ordinal());
+
+        count = index + 1;
+        lastTimestamp = timestamp;
+        header.putLong(COUNT_OFFSET, count); // Commits the record
+        updateTop(run.source.ordinal(), index, run.score);
+        return index;
+    }
+
+    /*
+     * Reads record number index (0 is the oldest).
+     */
+    public synchronized RunRecord get(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("record " + index + " of " + count);
+        }
+        MappedByteBuffer segment = segmentOf(index);
+        int offset = offsetInSegment(index);
+        return new RunRecord(segment.getLong(offset), segment.getLong(offset + 8), segment.getLong(offset + 16),
+                segment.getInt(offset + 24), RunRecord.Source.values()[segment.get(offset + 28)]);
+    }
+
+    /*
+     * Gets the number of runs in the log.
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    /*
+     * Gets the best runs of a source, best first, at most limit of them.
+     * Equal scores are ordered oldest first.
+     */
+    public synchronized List<RunRecord> top(RunRecord.Source source, int limit) {
+        int n = Math.min(limit, leaderCounts[source.ordinal()]);
+        List<RunRecord> runs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            runs.add(get(leaderRecords[source.ordinal()][i]));
+        }
+        return runs;
+    }
+
+    /*
+     * Gets the best scores of a source, best first, at most limit of them.
+     */
+    public synchronized int[] topScores(RunRecord.Source source, int limit) {
+        return Arrays.copyOf(leaderScores[source.ordinal()], Math.min(limit, leaderCounts[source.ordinal()]));
+    }
+
+    /*
+     * Gets the number of the first record stamped at or after the given time, or
+     * size() if there is none. A binary search over the time-ordered records.
+     */
+    public synchronized long firstAtOrAfter(long timestampMillis) {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (timestampAt(mid) < timestampMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * Gets the runs that ended in [fromMillis, toMillis), oldest first, at most
+     * limit of them. Only the matching records are read.
+     */
+    public synchronized List<RunRecord> range(long fromMillis, long toMillis, int limit) {
+        long first = firstAtOrAfter(fromMillis);
+        long end = Math.min(firstAtOrAfter(toMillis), first + limit);
+        List<RunRecord> runs = new ArrayList<>((int) Math.max(0, end - first));
+        for (long i = first; i < end; i++) {
+            runs.add(get(i));
+        }
+        return runs;
+    }
+
+    /*
+     * Counts the runs that ended in [fromMillis, toMillis) without reading them.
+     */
+    public synchronized long count(long fromMillis, long toMillis) {
+        return Math.max(0, firstAtOrAfter(toMillis) - firstAtOrAfter(fromMillis));
+    }
+
+    /*
+     * Writes every change to the storage device.
+     */
+    public synchronized void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /*
+     * Flushes and closes the log. The mappings are released by the garbage collector.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            force();
+            channel.close();
+        }
+    }
+
+    /*
+     * Inserts a record into a source's leaderboard if it scores high enough.
+     * A new score must beat an equal one already on the board, so older runs keep their place.
+     */
+    private void updateTop(int source, long index, int score) {
+        long[] records = leaderRecords[source];
+        int[] scores = leaderScores[source];
+        int n = leaderCounts[source];
+        if (n == TOP_K && score <= scores[TOP_K - 1]) {
+            return;
+        }
+        int position = Math.min(n, TOP_K - 1);
+        while (position > 0 && scores[position - 1] < score) {
+            position--;
+        }
+        int moved = Math.min(n, TOP_K - 1) - position;
+        System.arraycopy(records, position, records, position + 1, moved);
+        System.arraycopy(scores, position, scores, position + 1, moved);
+        records[position] = index;
+        scores[position] = score;
+        leaderCounts[source] = Math.min(n + 1, TOP_K);
+
+        header.putInt(TOP_COUNTS_OFFSET + 4 * source, leaderCounts[source]);
+        for (int i = position; i < leaderCounts[source]; i++) {
+            header.putLong(topOffset(source, i), records[i]);
+        }
+    }
+
+    private long timestampAt(long index) {
+        return segmentOf(index).getLong(offsetInSegment(index));
+    }
+
+    private int scoreAt(long index) {
+        return segmentOf(index).getInt(offsetInSegment(index) + 24);
+    }
+
+    private static int topOffset(int source, int rank) {
+        return TOP_OFFSET + (source * TOP_K + rank) * 8;
+    }
+
+    private static long fileOffset(long index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private static int offsetInSegment(long index) {
+        return (int) (fileOffset(index) % SEGMENT_SIZE);
+    }
+
+    /*
+     * Gets the segment holding a record, mapping more of the file if needed.
+     */
+    private MappedByteBuffer segmentOf(long index) {
+        return segment((int) (fileOffset(index) / SEGMENT_SIZE));
+    }
+
+    private MappedByteBuffer segment(int number) {
+        try {
+            while (segments.size() <= number) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * SEGMENT_SIZE, SEGMENT_SIZE);
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                segments.add(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not map run log segment " + number, e);
+        }
+        return segments.get(number);
+    }
+}
@@ -0,0 +1,84 @@
+package flappybird;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/*
+ * Command line tool for run logs.
+ *
+ * Usage:
+ *   java -cp game/target/classes flappybird.RunLogTool simulate <log> [sessions] [seed] [idle|follow]
+ *       plays sessions headlessly and appends each run to the log
+ *   java -cp game/target/classes flappybird.RunLogTool top <log> [k] [human|simulated]
+ *       prints the leaderboard of human (default) or simulated runs
+ *   java -cp game/target/classes flappybird.RunLogTool range <log> <from> <to> [limit]
+ *       prints the runs that ended in a time range, given as yyyy-MM-ddTHH:mm[:ss] local times
+ */
+public class RunLogTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: RunLogTool simulate <log> [sessions] [seed] [idle|follow]"
+                    + " | top <log> [k] [human|simulated] | range <log> <from> <to> [limit]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        try (RunLog log = new RunLog(file)) {
+            if (args[0].equals("simulate")) {
+                int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+                long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+                FlapPolicy policy = args.length > 4 && args[4].equals("follow") ? FlapPolicy.followGap() : FlapPolicy.idle();
+                simulate(log, sessions, seed, policy);
+            } else if (args[0].equals("top")) {
+                int k = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+                RunRecord.Source source = args.length > 3 ? RunRecord.Source.valueOf(args[3].toUpperCase()) : RunRecord.Source.HUMAN;
+                List<RunRecord> top = log.top(source, k);
+                for (int i = 0; i < top.size(); i++) {
+                    System.out.printf("%3d. %s%n", i + 1, top.get(i));
+                }
+                System.out.println(log.size() + " runs in the log");
+            } else if (args[0].equals("range") && args.length > 3) {
+                long from = millis(args[2]);
+                long to = millis(args[3]);
+                int limit = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+                long start = System.nanoTime();
+                long matching = log.count(from, to);
+                List<RunRecord> runs = log.range(from, to, limit);
+                long elapsed = System.nanoTime() - start;
+                runs.forEach(System.out::println);
+                System.out.printf("%d of %d runs in range (query took %.0f us)%n", matching, log.size(), elapsed / 1e3);
+            } else {
+                System.out.println("Unknown command: " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+
+    /*
+     * Plays the sessions with seeds seed, seed + 1, ... and appends every run.
+     */
+    private static void simulate(RunLog log, int sessions, long seed, FlapPolicy policy) {
+        GameEngine engine = new GameEngine(seed);
+        long appendNanos = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            engine.reset(seed + i);
+            HeadlessRunner.play(engine, policy, 100_000);
+            long appendStart = System.nanoTime();
+            log.append(RunRecord.of(engine, RunRecord.Source.SIMULATED));
+            appendNanos += System.nanoTime() - appendStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        log.force();
+        System.out.printf("appended=%d total=%d elapsed=%.1f ms append avg=%.0f ns runs/s=%,.0f%n", sessions, log.size(),
+                elapsed / 1e6, (double) appendNanos / Math.max(1, sessions), sessions * 1e9 / Math.max(1, elapsed));
+    }
+
+    private static long millis(String time) {
+        return LocalDateTime.parse(time).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
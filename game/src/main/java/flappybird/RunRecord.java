@@ -0,0 +1,52 @@
+package flappybird;
+
+/*
+ * One finished run, as stored in a RunLog: who played it, when it ended, which
+ * course it was played on, how long it lasted and what it scored.
+ */
+public final class RunRecord {
+
+    /*
+     * Who played a run.
+     */
+    public enum Source {
+        HUMAN,  // Played from a game screen
+        SIMULATED  // Played by a FlapPolicy, in a headless batch or by a screen's autopilot
+    }
+
+    public final long timestampMillis;  // When the run ended, in milliseconds since the epoch
+    public final long seed;  // Seed of the course
+    public final long ticks;  // Length of the run in ticks (20 ms each)
+    public final int score;  // Final score
+    public final Source source;
+
+    public RunRecord(long timestampMillis, long seed, long ticks, int score, Source source) {
+        this.timestampMillis = timestampMillis;
+        this.seed = seed;
+        this.ticks = ticks;
+        this.score = score;
+        this.source = source;
+    }
+
+    /*
+     * Creates the record of a game that has just ended. Its length is counted in
+     * 20 ms ticks, whatever rate the game's physics was stepped at.
+     */
+    public static RunRecord of(GameEngine engine, Source source) {
+        return new RunRecord(System.currentTimeMillis(), engine.getSeed(), engine.getRate().toBaseTicks(engine.getTick()),
+                engine.getScore(), source);
+    }
+
+    /*
+     * Gets the game time the run lasted, in milliseconds.
+     */
+    public long durationMillis() {
+        return ticks * 20;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%tF %<tT score=%d ticks=%d seed=%d %s",
+                timestampMillis, score, ticks, seed, source.name().toLowerCase());
+    }
+}
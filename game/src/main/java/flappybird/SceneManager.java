@@ -0,0 +1,91 @@
+package flappybird;
+
+import java.awt.CardLayout;
+import javax.swing.*;
+
+/*
+ * Switches the window between the main menu and the game.
+ *
+ * Both scenes are created once and kept alive in a CardLayout, so changing
+ * scene only changes which one is visible. Game over is an overlay drawn by
+ * the game screen itself, and restarting resets the game in place, so no
+ * components are rebuilt and no assets are loaded after startup.
+ *
+ * The menu is created first, so the window can appear while the game's assets
+ * are still loading; the game screen is added once they are ready. Everything
+ * here runs on the EDT.
+ */
+public class SceneManager {
+
+    private static final String MENU = "menu";
+    private static final String GAME = "game";
+
+    private final CardLayout cards;  // Shows one scene at a time
+    private final JPanel scenes;  // Holds every scene
+    private final MainMenuPanel menu;  // The main menu
+    private GameScreen gameScreen;  // The game, reused for every round, or null until it is ready
+    private String current;  // Name of the scene that is shown
+
+    /*
+     * Creates the menu and installs the scenes as the frame's content, showing the menu.
+     */
+    public SceneManager(JFrame frame) {
+        this.cards = new CardLayout();
+        this.scenes = new JPanel(cards);
+        this.menu = new MainMenuPanel(this);
+        scenes.add(menu, MENU);
+        frame.setContentPane(scenes);
+        current = MENU;
+        cards.show(scenes, MENU);
+    }
+
+    /*
+     * Shows the menu's images, once they have been decoded.
+     */
+    public void showImages() {
+        menu.showImages();
+    }
+
+    /*
+     * Adds the game screen and lets the menu start games on it.
+     */
+    public void setGameScreen(GameScreen gameScreen) {
+        this.gameScreen = gameScreen;
+        scenes.add(gameScreen.getComponent(), GAME);
+        menu.setReady();
+    }
+
+    /*
+     * Shows the main menu, pausing the game.
+     */
+    public void showMenu() {
+        if (gameScreen != null) {
+            gameScreen.stop();
+        }
+        current = MENU;
+        cards.show(scenes, MENU);
+    }
+
+    /*
+     * Shows the game screen and starts a fresh game on it.
+     */
+    public void startGame() {
+        if (gameScreen == null) {
+            return;
+        }
+        StartupReport.shared().mark(StartupReport.Phase.START_CLICKED);
+        if (!GAME.equals(current)) {
+            current = GAME;
+            cards.show(scenes, GAME);
+        }
+        gameScreen.start();
+        gameScreen.getComponent().requestFocusInWindow();
+    }
+
+    /*
+     * Gets the game screen, or null until it is ready.
+     */
+    public GameScreen getGameScreen() {
+        return gameScreen;
+    }
+}
@@ -0,0 +1,128 @@
+package flappybird;
+
+import java.awt.*;
+
+/*
+ * The static scenery (sky, hills, ground and clouds) behind each screen of the game.
+ * Each constant knows how to paint its scene with plain 2D shapes. The shapes are
+ * only painted when BackgroundCache needs to (re)build its cached image, not on
+ * every frame.
+ */
+public enum Scenery {
+
+    /*
+     * The scenery behind the game: one row of hills, the brick ground and three clouds.
+     */
+    GAME {
+        @Override
+        void paint(Graphics2D g2d) {
+            // Draw the hills, sky, ground and other elements
+            g2d.setColor(new Color(0x77F846));
+            g2d.fillArc(-70, 310, 250, 500, 0, 180);
+            g2d.fillArc(120, 270, 270, 500, 0, 180);
+            g2d.fillArc(300, 320, 265, 400, 0, 180);
+
+            g2d.setColor(new Color(0xE6C28B));
+            g2d.fillRect(0, 420, 500, 100);
+            g2d.setColor(new Color(0xB98E5A));
+            g2d.fillRect(0, 440, 500, 60);
+
+            g2d.setColor(new Color(0x896B12));
+            for (int x = 5; x <= 480; x += 25) {
+                g2d.fillRect(x, 440, 5, 60);
+            }
+
+            g2d.setColor(new Color(0XF9F5EA));
+            g2d.fillOval(22, 16, 65, 45);
+            g2d.fillOval(10, 33, 50, 37);
+            g2d.fillOval(50, 33, 50, 37);
+            g2d.fillRoundRect(12, 53, 85, 20, 40, 40);
+
+            g2d.setColor(new Color(0xDADAD9));
+            g2d.fillArc(20, 61, 75, 12, 200, 180);
+
+            g2d.setColor(new Color(0xF9F5EA));
+            g2d.fillOval(430, 95, 40, 30);
+            g2d.fillOval(420, 107, 25, 22);
+            g2d.fillOval(458, 107, 25, 22);
+            g2d.fillRoundRect(407, 117, 90, 25, 40, 40);
+
+            g2d.setColor(new Color(0xDADAD9));
+            g2d.fillArc(430, 134, 55, 10, 200, 190);
+
+            g2d.setColor(new Color(0xF9F5EA));
+            g2d.fillOval(200, 190, 40, 30);
+            g2d.fillOval(190, 202, 25, 22);
+            g2d.fillOval(228, 202, 25, 22);
+            g2d.fillRoundRect(180, 212, 90, 25, 40, 40);
+
+            g2d.setColor(new Color(0xDADAD9));
+            g2d.fillArc(190, 227, 75, 12, 200, 180);
+        }
+    },
+
+    /*
+     * The scenery behind the main menu: three layers of hills, the brick ground and two clouds.
+     */
+    MENU {
+        @Override
+        void paint(Graphics2D g2d) {
+            // Draw the grass hills using arcs 
+            g2d.setColor(new Color(0x77F846)); //Back hill
+            g2d.fillArc(-50, 180, 300, 565, 0, 180);
+            g2d.fillArc(120, 230, 300, 525, 0, 180);
+            g2d.fillArc(300, 150, 300, 650, 0, 180);
+            g2d.fillArc(-210, 160, 300, 565, 0, 180);
+
+            g2d.fillOval(188, 252, 20, 30);
+            g2d.fillOval(398, 250, 20, 30);
+            g2d.fillOval(322, 250, 20, 30);
+            g2d.fillOval(332, 248, 20, 30);
+
+            g2d.setColor(new Color(0x46EA09)); //Middle hill
+            g2d.fillArc(-20, 250, 190, 350, 0, 200);
+            g2d.fillArc(300, 270, 220, 350, 0, 200);
+
+            g2d.setColor(new Color(0x3FD108)); //Front hill
+            g2d.fillArc(-70, 310, 250, 500, 0, 180);
+            g2d.fillArc(120, 270, 270, 500, 0, 180);
+            g2d.fillArc(300, 320, 265, 400, 0, 180);
+
+            g2d.setColor(new Color(0xE6C28B)); //Dirt-like ground 
+            g2d.fillRect(0, 420, 500, 100);
+            g2d.setColor(new Color(0xB98E5A));
+            g2d.fillRect(0, 440, 500, 60);
+
+            g2d.setColor(new Color(0x896B12)); //Lines to resemble bricks on ground 
+            for (int x = 5; x <= 480; x += 25) {
+                g2d.fillRect(x, 440, 5, 60);
+            }
+
+            // Draw the clouds using ovals and round rectangles 
+            g2d.setColor(new Color(0XF9F5EA));
+            g2d.fillOval(22, 16, 65, 45);
+            g2d.fillOval(10, 33, 50, 37);
+            g2d.fillOval(50, 33, 50, 37);
+            g2d.fillRoundRect(12, 53, 85, 20, 40, 40); //cloud 1
+
+            g2d.setColor(new Color(0xDADAD9));
+            g2d.fillArc(20, 61, 75, 12, 200, 180);
+
+            g2d.setColor(new Color(0xF9F5EA));
+            g2d.fillOval(430, 95, 40, 30);
+            g2d.fillOval(420, 107, 25, 22);
+            g2d.fillOval(458, 107, 25, 22);
+            g2d.fillRoundRect(410, 117, 90, 25, 40, 40); //cloud 2
+
+            g2d.setColor(new Color(0xDADAD9));
+            g2d.fillArc(430, 134, 55, 10, 200, 190);
+        }
+    };
+
+    static final Color SKY = new Color(0x59CCC9);  // Sky colour shared by every scene
+
+    /*
+     * Paints the scene's shapes on top of the sky.
+     */
+    abstract void paint(Graphics2D g2d);
+}
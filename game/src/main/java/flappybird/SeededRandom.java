@@ -0,0 +1,84 @@
+package flappybird;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * A small, fast and fully specified random number generator (SplitMix64).
+ *
+ * Every game session is driven by one of these, created from the session's seed,
+ * so the same seed always produces the same pipes on every machine and JDK. That
+ * is what makes recorded replays reproducible. Unlike java.util.Random it has no
+ * synchronization, and it can be reseeded in place when a game restarts.
+ */
+public final class SeededRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final AtomicLong seedUniquifier = new AtomicLong(System.nanoTime());  // Spreads out newSeed() values
+
+    private long state;  // Current state; every output advances it by GOLDEN_GAMMA
+
+    /*
+     * Creates a generator that produces the sequence belonging to the given seed.
+     */
+    public SeededRandom(long seed) {
+        this.state = seed;
+    }
+
+    /*
+     * Restarts the sequence of the given seed.
+     */
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    /*
+     * Returns the next 64 random bits.
+     */
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /*
+     * Returns a random double in [0, 1) with 53 bits of precision.
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /*
+     * Returns a random int in [0, bound).
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        return (int) ((nextLong() >>> 33) * bound >>> 31);
+    }
+
+    /*
+     * Returns a normally distributed double with mean 0 and standard deviation 1
+     * (Box-Muller transform, one value per call so no state is cached).
+     * StrictMath, unlike Math, gives bit-for-bit the same results on every JVM.
+     */
+    public double nextGaussian() {
+        double u = 1 - nextDouble();  // In (0, 1], so the log is finite
+        double v = nextDouble();
+        return StrictMath.sqrt(-2 * StrictMath.log(u)) * StrictMath.cos(2 * Math.PI * v);
+    }
+
+    /*
+     * Picks a fresh seed for a session that was not given one.
+     */
+    public static long newSeed() {
+        return mix(seedUniquifier.addAndGet(GOLDEN_GAMMA) ^ System.nanoTime());
+    }
+
+    /*
+     * The SplitMix64 output function.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,110 @@
+package flappybird;
+
+import java.nio.ByteBuffer;
+
+/*
+ * The messages exchanged between GameServer and its clients over TCP.
+ *
+ * Every message starts with a type byte; numbers are big-endian. A client can
+ * only ask for a new game and flap. Everything else, including the score, is
+ * worked out by the server, so a client cannot report a score it did not earn.
+ *
+ * Client to server:
+ *   JOIN       [seed:8]                 start a new game with the seed, ending the current one
+ *   FLAP                                flap on the next tick (at most one flap per tick counts)
+ *
+ * Server to client:
+ *   WELCOME    [session:4][seed:8][pipe:2]   a game started; pipe is the height of its first pipe
+ *   STATE      [tick:4][mask:1][y:2][score:4][pipe:2]
+ *                                       one tick of the game; only the fields flagged in mask
+ *                                       are present: the bird's y when it moved, the score when
+ *                                       it changed and the height of a pipe that just spawned
+ *   GAME_OVER  [ticks:4][score:4]       the game ended with this score
+ *
+ * Pipes always spawn at the right edge and move at Pipe.SPEED, so the spawn
+ * heights are all a client needs to draw them.
+ */
+final class ServerProtocol {
+
+    static final int DEFAULT_PORT = 7878;
+
+    // Client message types
+    static final byte JOIN = 1;
+    static final byte FLAP = 2;
+
+    // Server message types
+    static final byte WELCOME = 1;
+    static final byte STATE = 2;
+    static final byte GAME_OVER = 3;
+
+    // Fields of a STATE message
+    static final int Y = 1;  // The bird moved
+    static final int SCORE = 2;  // The score changed
+    static final int PIPE = 4;  // A pipe spawned
+    static final int FLAPPED = 8;  // A flap from the client was applied on this tick (no field)
+
+    static final int MAX_MESSAGE_SIZE = 15;  // Largest message in either direction
+
+    private ServerProtocol() {
+    }
+
+    /*
+     * Gets the length of a client message of the given type, or -1 if there is no such type.
+     */
+    static int clientMessageLength(byte type) {
+        switch (type) {
+            case JOIN:
+                return 9;
+            case FLAP:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    /*
+     * Gets the length of the server message at the buffer's position, 0 if not
+     * enough of it has arrived to tell, or -1 if its type is unknown.
+     */
+    static int serverMessageLength(ByteBuffer in) {
+        int position = in.position();
+        switch (in.get(position)) {
+            case WELCOME:
+                return 15;
+            case STATE:
+                if (in.remaining() < 6) {
+                    return 0;
+                }
+                int mask = in.get(position + 5);
+                return 6 + ((mask & Y) != 0 ? 2 : 0) + ((mask & SCORE) != 0 ? 4 : 0) + ((mask & PIPE) != 0 ? 2 : 0);
+            case GAME_OVER:
+                return 9;
+            default:
+                return -1;
+        }
+    }
+
+    static void putWelcome(ByteBuffer out, int session, long seed, int pipeHeight) {
+        out.put(WELCOME).putInt(session).putLong(seed).putShort((short) pipeHeight);
+    }
+
+    /*
+     * Writes a STATE message with the fields flagged in mask.
+     */
+    static void putState(ByteBuffer out, int tick, int mask, int y, int score, int pipeHeight) {
+        out.put(STATE).putInt(tick).put((byte) mask);
+        if ((mask & Y) != 0) {
+            out.putShort((short) y);
+        }
+        if ((mask & SCORE) != 0) {
+            out.putInt(score);
+        }
+        if ((mask & PIPE) != 0) {
+            out.putShort((short) pipeHeight);
+        }
+    }
+
+    static void putGameOver(ByteBuffer out, int ticks, int score) {
+        out.put(GAME_OVER).putInt(ticks).putInt(score);
+    }
+}
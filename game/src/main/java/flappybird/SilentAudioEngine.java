@@ -0,0 +1,23 @@
+package flappybird;
+
+/*
+ * An AudioEngine that plays nothing. Used for headless runs and when no audio
+ * line is available, so the rest of the game does not need to care.
+ */
+public class SilentAudioEngine implements AudioEngine {
+
+    @Override
+    public void play(SoundEffect effect) {
+        // Nothing to play
+    }
+
+    @Override
+    public String latencySummary() {
+        return "audio disabled";
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
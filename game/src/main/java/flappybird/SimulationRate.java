@@ -0,0 +1,105 @@
+package flappybird;
+
+/*
+ * How often the game's physics is stepped, and the fixed-point constants of one
+ * step at that rate.
+ *
+ * The game was tuned at 50 ticks per second (one tick every 20 ms): gravity adds
+ * Bird.GRAVITY to the bird's speed on every tick, a flap sets it to
+ * -Bird.FLAP_STRENGTH and the pipes move Pipe.SPEED pixels. At any other rate the
+ * bird must follow the same curve through time, so a game feels the same however
+ * finely it is simulated.
+ *
+ * The original update (speed += gravity, then y += speed) puts the bird on a
+ * parabola whose starting speed is half a tick of gravity more than the speed it
+ * was given. A step of h ticks therefore moves the bird by u * h + g * h^2 / 2 and
+ * adds g * h to u, where u is that shifted speed. That is exact for any h, so at
+ * 50 Hz the bird lands on exactly the pixels it always did, and at 120 or 240 Hz
+ * it passes through the same points, only with more steps in between.
+ *
+ * Positions and speeds are kept in fixed point, in units of 1 / (2 * hz^2) of a
+ * pixel. In that unit the fall and the speed gravity adds during a step and the
+ * speed of a flap are all whole numbers, so the bird follows the curve with no
+ * rounding at all, and never drifts from where it would be at 50 Hz. The physics
+ * is integer arithmetic only, so a game played at a given rate with the same seed
+ * and flaps gives the same result on every machine.
+ */
+public final class SimulationRate {
+
+    static final int BASE_HZ = 50;  // The rate the game was tuned at: one tick every 20 ms
+    static final int MIN_HZ = 25;  // Slower than this, the pipes would jump across the bird
+    static final int MAX_HZ = 500;  // Faster than this, fixed-point positions would not fit in an int
+
+    static final SimulationRate BASE = new SimulationRate(BASE_HZ);
+
+    final int hz;  // Physics steps per second
+    final long stepNanos;  // Time between two steps
+    final int unit;  // Fixed-point units per pixel
+    final int velocityUnit;  // Fixed-point units per step for a speed of one pixel per 20 ms tick
+    final int halfGravity;  // Extra fall gravity adds during a step, in fixed-point units
+    final int gravity;  // Speed gravity adds on each step, in fixed-point units per step
+    final int restVelocity;  // Shifted speed of a bird at rest, in fixed-point units per step
+    final int flapVelocity;  // Shifted speed right after a flap, in fixed-point units per step
+
+    /*
+     * Works out the constants of a step of h = BASE_HZ / hz ticks: with
+     * unit = 2 * hz^2, g * h^2 / 2 pixels is g * BASE_HZ^2 units, and a speed of
+     * v pixels per tick is v * 2 * BASE_HZ * hz units per step.
+     */
+    private SimulationRate(int hz) {
+        this.hz = hz;
+        this.stepNanos = 1_000_000_000L / hz;
+        this.unit = 2 * hz * hz;
+        this.velocityUnit = 2 * BASE_HZ * hz;
+        this.halfGravity = Bird.GRAVITY * BASE_HZ * BASE_HZ;
+        this.gravity = 2 * halfGravity;
+        this.restVelocity = Bird.GRAVITY * BASE_HZ * hz;  // Half a tick of gravity
+        this.flapVelocity = restVelocity - Bird.FLAP_STRENGTH * velocityUnit;
+    }
+
+    /*
+     * Gets the rate that steps the physics hz times per second.
+     */
+    public static SimulationRate of(int hz) {
+        if (hz == BASE_HZ) {
+            return BASE;
+        }
+        if (hz < MIN_HZ || hz > MAX_HZ) {
+            throw new IllegalArgumentException("simulation rate must be " + MIN_HZ + " to " + MAX_HZ + " Hz: " + hz);
+        }
+        return new SimulationRate(hz);
+    }
+
+    /*
+     * Gets the number of steps per second.
+     */
+    public int getHz() {
+        return hz;
+    }
+
+    /*
+     * Gets the time between two steps, in nanoseconds.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /*
+     * Converts a number of steps at this rate into 20 ms ticks, rounding down.
+     */
+    public long toBaseTicks(long steps) {
+        return steps * BASE_HZ / hz;
+    }
+
+    /*
+     * Converts a (fractional) number of steps at this rate into 20 ms ticks.
+     */
+    public double toBaseTicks(double steps) {
+        return steps * BASE_HZ / hz;
+    }
+
+    @Override
+    public String toString() {
+        return hz + " Hz";
+    }
+}
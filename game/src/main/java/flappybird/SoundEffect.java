@@ -0,0 +1,22 @@
+package flappybird;
+
+/*
+ * The sound effects the game can play, with the asset file each one is decoded from.
+ */
+public enum SoundEffect {
+
+    CLICK(Assets.CLICK_SOUND);  // Played when the start button is clicked
+
+    private final String file;  // Name of the sound file under assets/
+
+    SoundEffect(String file) {
+        this.file = file;
+    }
+
+    /*
+     * Gets the name of the sound file this effect is decoded from.
+     */
+    public String getFile() {
+        return file;
+    }
+}
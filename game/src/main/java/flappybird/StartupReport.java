@@ -0,0 +1,153 @@
+package flappybird;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*
+ * Times the phases of starting the game, from the launch of the JVM to the first
+ * frame of the first game, so a cold start can be measured and made shorter.
+ *
+ * Each phase is marked once, by whichever thread reaches it: main, the EDT or a
+ * loader thread. Times are measured from the moment the JVM started, which the
+ * runtime reports to the millisecond. The CPU time of the work done in the
+ * background (decoding the images, opening the audio line) is also summed up per
+ * phase; more CPU time than wall time means the work ran in parallel.
+ *
+ * Nothing is printed unless printing is turned on (--startup-stats). The startup
+ * line is printed once the menu has been painted and the game is ready to start,
+ * and a second line once the first game shows its first frame.
+ */
+public final class StartupReport {
+
+    /*
+     * The phases of a start, in the order they are reported.
+     */
+    enum Phase {
+        MAIN("main"),  // Project2Runner.main was entered
+        WINDOW("window shown"),  // The frame was made visible on the EDT
+        MENU_FRAME("menu painted"),  // The main menu painted its first frame
+        IMAGES("images decoded"),  // Every sprite was decoded in the screen's format
+        AUDIO("audio ready"),  // The sound effects were decoded and the audio line opened
+        GAME_READY("game ready"),  // The game screen was created and the start button enabled
+        START_CLICKED("start clicked"),  // The player started the first game
+        GAME_FRAME("first game frame");  // The first game showed its first frame
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final StartupReport SHARED = new StartupReport();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long originNanos;  // System.nanoTime() when the JVM started
+    private final long[] marks = new long[Phase.values().length];  // When each phase was reached, or 0
+    private final long[] workNanos = new long[marks.length];  // CPU time of the background work of each phase
+    private final int[] workers = new int[marks.length];  // Number of tasks that did that work
+    private boolean printing;  // Whether to print the report
+    private boolean startupPrinted;  // Whether the startup line has been printed
+
+    private StartupReport() {
+        originNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+    }
+
+    /*
+     * Gets the report of this run of the game.
+     */
+    public static StartupReport shared() {
+        return SHARED;
+    }
+
+    /*
+     * Turns printing the report on or off.
+     */
+    public synchronized void setPrinting(boolean printing) {
+        this.printing = printing;
+    }
+
+    /*
+     * Notes that a phase has been reached, unless it was reached before.
+     */
+    public synchronized void mark(Phase phase) {
+        if (marks[phase.ordinal()] != 0) {
+            return;
+        }
+        marks[phase.ordinal()] = System.nanoTime();
+        if (!printing) {
+            return;
+        }
+        if (!startupPrinted && reached(Phase.MENU_FRAME) && reached(Phase.GAME_READY)) {
+            startupPrinted = true;
+            System.out.println(startupSummary());
+        }
+        if (phase == Phase.GAME_FRAME) {
+            System.out.println(gameSummary());
+        }
+    }
+
+    /*
+     * Gets the CPU time the current thread has used so far, to pass to addWork
+     * once a task is done.
+     */
+    public static long threadCpuNanos() {
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    /*
+     * Adds a task of background work, run on the current thread since it had
+     * used startCpuNanos of CPU time, to a phase.
+     */
+    public void addWork(Phase phase, long startCpuNanos) {
+        long nanos = threadCpuNanos() - startCpuNanos;
+        synchronized (this) {
+            workNanos[phase.ordinal()] += nanos;
+            workers[phase.ordinal()]++;
+        }
+    }
+
+    /*
+     * Returns whether a phase has been reached.
+     */
+    public synchronized boolean reached(Phase phase) {
+        return marks[phase.ordinal()] != 0;
+    }
+
+    /*
+     * Gets the time from the start of the JVM to a phase, in milliseconds, or -1 if it has not been reached.
+     */
+    public synchronized double millis(Phase phase) {
+        long mark = marks[phase.ordinal()];
+        return mark == 0 ? -1 : (mark - originNanos) / 1e6;
+    }
+
+    /*
+     * Returns a line with the time of every phase up to the game being ready.
+     */
+    public synchronized String startupSummary() {
+        StringBuilder line = new StringBuilder("Startup (ms since JVM start):");
+        for (Phase phase : Phase.values()) {
+            if (phase.compareTo(Phase.GAME_READY) > 0) {
+                break;
+            }
+            line.append(phase == Phase.MAIN ? " " : ", ").append(phase.label).append(' ');
+            line.append(reached(phase) ? String.format("%.0f", millis(phase)) : "-");
+            int i = phase.ordinal();
+            if (workers[i] > 1) {
+                line.append(String.format(" (%.0f ms of CPU in %d tasks)", workNanos[i] / 1e6, workers[i]));
+            } else if (workers[i] == 1) {
+                line.append(String.format(" (%.0f ms of CPU)", workNanos[i] / 1e6));
+            }
+        }
+        return line.toString();
+    }
+
+    /*
+     * Returns a line with the time of the first game frame.
+     */
+    public synchronized String gameSummary() {
+        return String.format("First game frame: %.0f ms since JVM start, %.0f ms after start was clicked",
+                millis(Phase.GAME_FRAME), millis(Phase.GAME_FRAME) - millis(Phase.START_CLICKED));
+    }
+}
@@ -0,0 +1,337 @@
+package flappybird;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Trains NeuralPolicy autopilots by neuroevolution against the real game.
+ *
+ * Every generation, each genome in the population plays the same few courses
+ * (seeds) as a headless GameEngine session, and its fitness is the mean number of
+ * ticks it survived plus its mean score. The best tenth of the population is kept
+ * as is and the rest is bred from tournament winners by uniform crossover and
+ * Gaussian mutation.
+ *
+ * The evaluations are split over a ForkJoinPool with the requested number of
+ * threads. Each pool thread has its own engine and policy (workers below), so the
+ * threads share nothing but the read-only genomes and write their fitness to
+ * separate slots of one array. All random choices are made on the calling thread
+ * from the trainer's seed, and a genome's fitness depends only on its weights and
+ * the courses, so the same seed gives the same result for any number of threads.
+ *
+ * Usage: java -cp game/target/classes flappybird.Trainer train [population] [generations] [seed] [threads]
+ *        java -cp game/target/classes flappybird.Trainer scaling [population] [generations] [seed] [maxThreads]
+ */
+public class Trainer {
+
+    static final int DEFAULT_COURSES = 3;  // Courses every genome plays per generation
+    static final long DEFAULT_MAX_TICKS = 5_000;  // Ticks after which a session counts as survived
+    private static final int LEAF_SIZE = 4;  // Genomes evaluated by one fork-join leaf task
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final double MUTATION_RATE = 0.1;  // Chance that a weight is mutated
+    private static final double MUTATION_SIZE = 0.3;  // Standard deviation of a mutation
+
+    private final int courses;
+    private final long maxTicks;
+    private final SeededRandom random;  // Drives initialization, courses and breeding; calling thread only
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);  // Per-thread engine and policy
+
+    private double[][] genomes;  // Current population
+    private double[][] offspring;  // Next population, swapped with genomes after breeding
+    private final double[] fitness;  // Fitness of each genome of the current generation
+    private final long[] courseSeeds;  // Courses of the current generation
+    private int generation;  // Number of generations evaluated so far
+    private long evaluations;  // Sessions played so far
+    private long ticks;  // Ticks simulated so far
+    private long evaluationNanos;  // Time spent evaluating so far
+
+    private double[] best;  // Best genome seen so far
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+
+    /*
+     * The state one pool thread needs to evaluate genomes, created once per thread.
+     */
+    private static final class Worker {
+        final GameEngine engine = new GameEngine(0);
+        final NeuralPolicy policy = new NeuralPolicy(new double[NeuralPolicy.WEIGHT_COUNT]);
+        long ticks;  // Ticks this worker simulated in the current generation
+    }
+
+    /*
+     * Summary of one generation.
+     */
+    public static final class Generation {
+        public final int number;  // 1 for the first generation
+        public final double bestFitness;  // Best fitness in this generation
+        public final double meanFitness;  // Mean fitness of this generation
+        public final int evaluations;  // Sessions played for this generation
+        public final long ticks;  // Ticks simulated for this generation
+        public final long elapsedNanos;  // Time the evaluation took
+
+        Generation(int number, double bestFitness, double meanFitness, int evaluations, long ticks, long elapsedNanos) {
+            this.number = number;
+            this.bestFitness = bestFitness;
+            this.meanFitness = meanFitness;
+            this.evaluations = evaluations;
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double evaluationsPerSecond() {
+            return elapsedNanos == 0 ? 0 : evaluations * 1e9 / elapsedNanos;
+        }
+    }
+
+    /*
+     * Creates a trainer with a random population of the given size, evaluated on
+     * the given number of threads.
+     */
+    public Trainer(int population, int threads, int courses, long maxTicks, long seed) {
+        if (population < 2) {
+            throw new IllegalArgumentException("population must be at least 2: " + population);
+        }
+        this.courses = courses;
+        this.maxTicks = maxTicks;
+        this.random = new SeededRandom(seed);
+        this.pool = new ForkJoinPool(threads);
+        this.fitness = new double[population];
+        this.courseSeeds = new long[courses];
+        this.genomes = new double[population][NeuralPolicy.WEIGHT_COUNT];
+        this.offspring = new double[population][NeuralPolicy.WEIGHT_COUNT];
+        for (double[] genome : genomes) {
+            for (int w = 0; w < genome.length; w++) {
+                genome[w] = random.nextGaussian();
+            }
+        }
+    }
+
+    public Trainer(int population, int threads, long seed) {
+        this(population, threads, DEFAULT_COURSES, DEFAULT_MAX_TICKS, seed);
+    }
+
+    /*
+     * Evaluates the current population on fresh courses, remembers the best genome
+     * and breeds the next population.
+     */
+    public Generation nextGeneration() {
+        for (int c = 0; c < courses; c++) {
+            courseSeeds[c] = random.nextLong();
+        }
+        long start = System.nanoTime();
+        long generationTicks = pool.invoke(new Evaluation(0, genomes.length));
+        long elapsed = System.nanoTime() - start;
+
+        Integer[] ranking = rank();
+        double sum = 0;
+        for (double f : fitness) {
+            sum += f;
+        }
+        double generationBest = fitness[ranking[0]];
+        if (generationBest > bestFitness) {
+            bestFitness = generationBest;
+            best = genomes[ranking[0]].clone();
+        }
+        breed(ranking);
+
+        generation++;
+        int played = genomes.length * courses;
+        evaluations += played;
+        ticks += generationTicks;
+        evaluationNanos += elapsed;
+        return new Generation(generation, generationBest, sum / genomes.length, played, generationTicks, elapsed);
+    }
+
+    /*
+     * Evaluates the genomes in [from, to), splitting the range in halves until a
+     * leaf is small enough to run on one thread. Returns the ticks simulated.
+     */
+    private final class Evaluation extends RecursiveTask<Long> {
+        private final int from;
+        private final int to;
+
+        Evaluation(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= LEAF_SIZE) {
+                Worker worker = workers.get();
+                worker.ticks = 0;
+                for (int i = from; i < to; i++) {
+                    fitness[i] = evaluate(worker, genomes[i]);
+                }
+                return worker.ticks;
+            }
+            int mid = (from + to) >>> 1;
+            Evaluation left = new Evaluation(from, mid);
+            left.fork();
+            long right = new Evaluation(mid, to).compute();
+            return right + left.join();
+        }
+    }
+
+    /*
+     * Plays every course of this generation with a genome and returns its fitness.
+     */
+    private double evaluate(Worker worker, double[] genome) {
+        worker.policy.setWeights(genome);
+        GameEngine engine = worker.engine;
+        double total = 0;
+        for (long courseSeed : courseSeeds) {
+            engine.reset(courseSeed);
+            HeadlessRunner.play(engine, worker.policy, maxTicks);
+            worker.ticks += engine.getTick();
+            total += engine.getTick() + engine.getScore();
+        }
+        return total / courseSeeds.length;
+    }
+
+    /*
+     * Returns the genome indexes from best to worst. Ties keep index order, so the
+     * ranking does not depend on how the evaluation was scheduled.
+     */
+    private Integer[] rank() {
+        Integer[] ranking = new Integer[genomes.length];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = i;
+        }
+        Arrays.sort(ranking, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        return ranking;
+    }
+
+    /*
+     * Fills offspring with the elite and children of tournament winners, then makes
+     * it the current population.
+     */
+    private void breed(Integer[] ranking) {
+        int elite = Math.max(1, genomes.length / 10);
+        for (int i = 0; i < elite; i++) {
+            System.arraycopy(genomes[ranking[i]], 0, offspring[i], 0, NeuralPolicy.WEIGHT_COUNT);
+        }
+        for (int i = elite; i < offspring.length; i++) {
+            double[] mother = genomes[tournament()];
+            double[] father = genomes[tournament()];
+            double[] child = offspring[i];
+            for (int w = 0; w < child.length; w++) {
+                child[w] = random.nextDouble() < 0.5 ? mother[w] : father[w];
+                if (random.nextDouble() < MUTATION_RATE) {
+                    child[w] += random.nextGaussian() * MUTATION_SIZE;
+                }
+            }
+        }
+        double[][] swap = genomes;
+        genomes = offspring;
+        offspring = swap;
+    }
+
+    /*
+     * Returns the fittest of a few randomly picked genomes.
+     */
+    private int tournament() {
+        int winner = random.nextInt(genomes.length);
+        for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+            int challenger = random.nextInt(genomes.length);
+            if (fitness[challenger] > fitness[winner]) {
+                winner = challenger;
+            }
+        }
+        return winner;
+    }
+
+    /*
+     * Gets a copy of the best genome seen so far, or null before the first generation.
+     */
+    public double[] getBest() {
+        return best == null ? null : best.clone();
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /*
+     * Gets the number of sessions evaluated per second over all generations so far.
+     */
+    public double evaluationsPerSecond() {
+        return evaluationNanos == 0 ? 0 : evaluations * 1e9 / evaluationNanos;
+    }
+
+    public double ticksPerSecond() {
+        return evaluationNanos == 0 ? 0 : ticks * 1e9 / evaluationNanos;
+    }
+
+    /*
+     * Stops the trainer's threads.
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+    /*
+     * Trains for the given number of generations, printing a line per generation.
+     */
+    static Trainer train(int population, int generations, long seed, int threads, boolean verbose) {
+        Trainer trainer = new Trainer(population, threads, seed);
+        for (int g = 0; g < generations; g++) {
+            Generation result = trainer.nextGeneration();
+            if (verbose) {
+                System.out.printf("generation=%d best=%.1f mean=%.1f evals/s=%,.0f ticks/s=%,.0f%n",
+                        result.number, result.bestFitness, result.meanFitness, result.evaluationsPerSecond(),
+                        result.ticks * 1e9 / Math.max(1, result.elapsedNanos));
+            }
+        }
+        trainer.close();
+        return trainer;
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "train";
+        int population = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int generations = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : cores;
+
+        if (command.equals("train")) {
+            Trainer trainer = train(population, generations, seed, threads, true);
+            System.out.printf("threads=%d evaluations=%d evals/s=%,.0f ticks/s=%,.0f bestFitness=%.1f%n",
+                    threads, trainer.getEvaluations(), trainer.evaluationsPerSecond(), trainer.ticksPerSecond(),
+                    trainer.getBestFitness());
+            System.out.println("best=" + Arrays.toString(trainer.getBest()));
+        } else if (command.equals("scaling")) {
+            // Trains the same population with 1, 2, 4, ... threads up to the maximum and
+            // compares the throughput; the best fitness must come out the same every time.
+            double baseline = 0;
+            double baselineFitness = 0;
+            for (int t = 1; ; t = Math.min(t * 2, threads)) {
+                Trainer trainer = train(population, generations, seed, t, false);
+                double rate = trainer.evaluationsPerSecond();
+                if (t == 1) {
+                    baseline = rate;
+                    baselineFitness = trainer.getBestFitness();
+                }
+                System.out.printf("threads=%d evals/s=%,.0f ticks/s=%,.0f speedup=%.2f efficiency=%.0f%% bestFitness=%.1f%s%n",
+                        t, rate, trainer.ticksPerSecond(), rate / baseline, 100 * rate / baseline / t,
+                        trainer.getBestFitness(), trainer.getBestFitness() == baselineFitness ? "" : " MISMATCH");
+                if (t == threads) {
+                    break;
+                }
+            }
+            System.out.println("cores=" + cores);
+        } else {
+            System.out.println("Usage: Trainer train|scaling [population] [generations] [seed] [threads]");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package flappybird;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Checks that GameEngine's allocation-free collision and scoring pass behaves
+ * exactly like the original GamePanel logic, which built java.awt.Rectangles for
+ * the bird and every pipe on every tick and scanned all pipes to score.
+ *
+ * The original logic is kept here as LegacyGame. Both games are fed the same
+ * flaps, and LegacyGame takes its pipe heights from a CourseGenerator of the same
+ * seed, so the heights match whatever pipes the generator had to repair and only
+ * collisions and scoring are compared. Their complete state (bird position and
+ * velocity, every pipe, score and game over) is compared after every tick,
+ * and the first difference fails the test.
+ */
+class CollisionVerifierTest {
+
+    private static final int SESSIONS = 2_000;  // Sessions played, alternating between the kinds of player
+    private static final long MAX_TICKS = 20_000;  // Length at which a session that is still going stops
+    private static final long SEED = 42;  // Seed of the first session, the others follow it
+
+    @Test
+    void engineMatchesOriginalLogic() {
+        for (long seed = SEED; seed < SEED + SESSIONS; seed++) {
+            String difference = compare(seed, MAX_TICKS);
+            assertNull(difference, "Session " + seed + ": " + difference);
+        }
+    }
+
+    /*
+     * Plays one session in both implementations and returns a description of the
+     * first difference, or null if they agreed on every tick.
+     */
+    static String compare(long seed, long maxTicks) {
+        GameEngine engine = new GameEngine(seed);
+        LegacyGame legacy = new LegacyGame(new CourseGenerator(seed));
+        FlapPolicy follow = FlapPolicy.followGap();
+        Random flaps = new Random(~seed);
+        // Mix a good player with random flaps so both long runs and every kind of crash are covered
+        int style = (int) (seed & 3);
+
+        while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+            boolean flap;
+            if (style == 0) {
+                flap = follow.shouldFlap(engine);
+            } else if (style == 1) {
+                flap = flaps.nextInt(12) == 0;
+            } else {
+                flap = follow.shouldFlap(engine) ? flaps.nextInt(4) != 0 : flaps.nextInt(40) == 0;
+            }
+            engine.step(flap);
+            legacy.step(flap);
+
+            String difference = difference(engine, legacy);
+            if (difference != null) {
+                return "tick " + engine.getTick() + ": " + difference;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Returns a description of how the two states differ, or null if they are the same.
+     */
+    private static String difference(GameEngine engine, LegacyGame legacy) {
+        Bird bird = engine.getBird();
+        if (bird.getY() != legacy.birdY || bird.getVelocity() != legacy.velocity) {
+            return "bird " + bird.getY() + "/" + bird.getVelocity() + " vs " + legacy.birdY + "/" + legacy.velocity;
+        }
+        if (engine.getScore() != legacy.score) {
+            return "score " + engine.getScore() + " vs " + legacy.score;
+        }
+        if (engine.isGameOver() != legacy.gameOver) {
+            return "gameOver " + engine.isGameOver() + " vs " + legacy.gameOver;
+        }
+        PipeStore pipes = engine.getPipes();
+        if (pipes.size() != legacy.pipeXs.size()) {
+            return "pipe count " + pipes.size() + " vs " + legacy.pipeXs.size();
+        }
+        for (int i = 0; i < pipes.size(); i++) {
+            if (pipes.x(i) != legacy.pipeXs.get(i) || pipes.height(i) != legacy.pipeHeights.get(i)) {
+                return "pipe " + i + " differs";
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The game logic as GamePanel, Bird and Pipe originally implemented it, with
+     * the pipe heights drawn by the engine's course generator.
+     */
+    private static final class LegacyGame {
+        private final CourseGenerator course;
+        private final List<Integer> pipeXs = new ArrayList<>();
+        private final List<Integer> pipeHeights = new ArrayList<>();
+        private int birdY = 250;
+        private int velocity;
+        private boolean started;
+        private int score;
+        private boolean gameOver;
+
+        LegacyGame(CourseGenerator course) {
+            this.course = course;
+            addPipe();
+        }
+
+        void step(boolean flap) {
+            if (gameOver) {
+                return;
+            }
+            if (flap) {
+                started = true;
+                velocity = -9;
+            }
+            if (started) {
+                velocity += 1;
+                birdY += velocity;
+            }
+            if (birdY < 0) {
+                birdY = 0;
+                velocity = 0;
+            }
+            movePipes();
+            checkCollisions();
+        }
+
+        private void addPipe() {
+            pipeXs.add(500);
+            pipeHeights.add(course.nextHeight());
+        }
+
+        private void movePipes() {
+            for (int i = 0; i < pipeXs.size(); i++) {
+                pipeXs.set(i, pipeXs.get(i) - 5);
+            }
+            for (int i = 0; i < pipeXs.size(); i++) {
+                if (pipeXs.get(i) + 60 < 0) {
+                    pipeXs.remove(i);
+                    pipeHeights.remove(i);
+                    i--;
+                }
+            }
+            if (pipeXs.isEmpty() || pipeXs.get(pipeXs.size() - 1) + 60 < 0) {
+                addPipe();
+            }
+        }
+
+        private void checkCollisions() {
+            for (int i = 0; i < pipeXs.size(); i++) {
+                if (birdBounds().intersects(topBounds(i)) || birdBounds().intersects(bottomBounds(i))) {
+                    gameOver = true;
+                    return;
+                }
+            }
+            if (birdY >= 470) {
+                gameOver = true;
+                return;
+            }
+            boolean scored = false;
+            for (int i = 0; i < pipeXs.size(); i++) {
+                Rectangle bird = birdBounds();
+                if (bird.x > topBounds(i).x + topBounds(i).width && !(pipeXs.get(i) + 60 < 0)
+                        && !topBounds(i).contains(bird.x + 1, bird.y) && !bottomBounds(i).contains(bird.x + 1, bird.y) && !scored) {
+                    score += 10;
+                    scored = true;
+                }
+            }
+        }
+
+        private Rectangle birdBounds() {
+            return new Rectangle(100, birdY, 30, 30);
+        }
+
+        private Rectangle topBounds(int i) {
+            return new Rectangle(pipeXs.get(i), 0, 60, pipeHeights.get(i));
+        }
+
+        private Rectangle bottomBounds(int i) {
+            int height = pipeHeights.get(i);
+            return new Rectangle(pipeXs.get(i), height + 150, 60, 500 - height - 150);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package flappybird;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/*
+ * Checks that GamePanel's dirty-region repainting produces exactly the same
+ * pixels as repainting the whole panel.
+ *
+ * A panel is ticked without a display. After every tick, one image gets only the
+ * panel's last dirty region repainted (clipped, as Swing would), and a second
+ * image gets the whole panel repainted. The two images are compared pixel by
+ * pixel, and the first difference fails the test. The sessions are played alone
+ * and against a race of ghosts, which the panel draws too. Surefire runs the
+ * tests with java.awt.headless set, so no display is needed.
+ */
+class DirtyRegionVerifierTest {
+
+    private static final int SESSIONS = 20;  // Sessions played by each test
+    private static final long MAX_TICKS = 2_000;  // Length at which a session that is still going stops
+    private static final long SEED = 42;  // Seed of the first session, the others follow it
+    private static final int GHOSTS = 16;  // Ghosts recorded for the race
+
+    @Test
+    void dirtyRegionsMatchFullRepaint() {
+        long ticks = 0;
+        long repaintedPixels = 0;
+        for (long seed = SEED; seed < SEED + SESSIONS; seed++) {
+            long[] session = compare(seed, MAX_TICKS, null);
+            ticks += session[0];
+            repaintedPixels += session[1];
+        }
+        // Otherwise the check would hold trivially
+        assertTrue(repaintedPixels < ticks * GameEngine.WIDTH * GameEngine.HEIGHT,
+                "the dirty regions covered the whole panel on every tick");
+    }
+
+    @Test
+    void dirtyRegionsMatchFullRepaintWithGhosts(@TempDir Path dir) throws IOException {
+        Path archive = dir.resolve("ghosts.fbr");
+        recordGhosts(archive, GHOSTS, SEED, MAX_TICKS);
+        GhostRace race = GhostRace.open(archive, Project2Runner.MAX_GHOSTS);
+        for (long seed = SEED; seed < SEED + SESSIONS; seed++) {
+            compare(seed, MAX_TICKS, race);
+        }
+    }
+
+    /*
+     * Records ghosts on the given seed, each flown by the same kind of player as
+     * the sessions but with flaps of its own, so they spread over the screen
+     * around the bird instead of flying with it.
+     */
+    private static void recordGhosts(Path archive, int ghosts, long seed, long maxTicks) throws IOException {
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameEngine engine = new GameEngine(seed);
+        engine.setRecorder(recorder);
+        FlapPolicy follow = FlapPolicy.followGap();
+        try (ReplayWriter writer = ReplayWriter.append(archive)) {
+            for (int i = 0; i < ghosts; i++) {
+                engine.reset(seed);
+                Random flaps = new Random(i);
+                while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+                    engine.step(follow.shouldFlap(engine) ? flaps.nextInt(8) != 0 : flaps.nextInt(30) == 0);
+                }
+                writer.write(recorder.finish(engine));
+            }
+        }
+    }
+
+    /*
+     * Plays one session and compares the two ways of repainting after every tick.
+     * The session is played with the given seed, or against the race on its seed
+     * (with flaps picked by the given seed) unless race is null.
+     * Returns the number of ticks and of repainted pixels, and fails at the first difference.
+     */
+    static long[] compare(long seed, long maxTicks, GhostRace race) {
+        GamePanel panel = new GamePanel(false, true);
+        panel.setSize(GameEngine.WIDTH, GameEngine.HEIGHT);
+        GameEngine engine = panel.getEngine();
+        if (race != null) {
+            panel.raceAgainst(race);
+        } else {
+            engine.reset(seed);
+        }
+        FlapPolicy follow = FlapPolicy.followGap();
+        Random flaps = new Random(~seed);
+
+        BufferedImage incremental = new BufferedImage(GameEngine.WIDTH, GameEngine.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        BufferedImage full = new BufferedImage(GameEngine.WIDTH, GameEngine.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        paint(panel, incremental, null);
+
+        long repaintedPixels = 0;
+        while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+            // A mostly good player with some random flaps, so the bird reaches every part of the screen
+            if (follow.shouldFlap(engine) ? flaps.nextInt(8) != 0 : flaps.nextInt(30) == 0) {
+                engine.flap();
+            }
+            panel.tick();
+            Rectangle region = panel.getLastDirtyRegion();
+            if (region == null) {
+                paint(panel, incremental, null);
+                repaintedPixels += GameEngine.WIDTH * GameEngine.HEIGHT;
+            } else if (!region.isEmpty()) {
+                paint(panel, incremental, region);
+                repaintedPixels += (long) region.width * region.height;
+            }
+            paint(panel, full, null);
+
+            int difference = firstDifference(incremental, full);
+            if (difference >= 0) {
+                fail(String.format("Session %d, tick %d: pixel (%d, %d) differs, dirty region %s", seed, engine.getTick(),
+                        difference % GameEngine.WIDTH, difference / GameEngine.WIDTH, region));
+            }
+        }
+        return new long[] {engine.getTick(), repaintedPixels};
+    }
+
+    /*
+     * Paints the panel into the image, only inside clip unless it is null.
+     */
+    private static void paint(GamePanel panel, BufferedImage image, Rectangle clip) {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            if (clip != null) {
+                g2d.setClip(clip);
+            }
+            panel.paint(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /*
+     * Returns the index of the first pixel that differs between the images, or -1 if they are equal.
+     */
+    private static int firstDifference(BufferedImage a, BufferedImage b) {
+        int[] pixelsA = ((DataBufferInt) a.getRaster().getDataBuffer()).getData();
+        int[] pixelsB = ((DataBufferInt) b.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixelsA.length; i++) {
+            if (pixelsA[i] != pixelsB[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,58 @@
+package flappybird;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Checks that a GameServer drops a client that sends bytes that are not client
+ * messages, and still serves the clients that come after it.
+ */
+class GameServerTest {
+
+    private static final int TIMEOUT_MILLIS = 2_000;  // Longest wait for the server to answer or close
+
+    @Test
+    void dropsClientThatSendsGarbageAndServesTheNext() throws IOException {
+        try (GameServer server = new GameServer(0, 1)) {
+            try (Socket bad = connect(server)) {
+                bad.getOutputStream().write(new byte[2 * ServerProtocol.MAX_MESSAGE_SIZE + 2]);  // Type 0 is no message
+                assertEquals(-1, readOrReset(bad.getInputStream()), "server answered a client that sent garbage");
+            }
+            try (Socket good = connect(server)) {
+                DataOutputStream out = new DataOutputStream(good.getOutputStream());
+                out.writeByte(ServerProtocol.JOIN);
+                out.writeLong(1);
+                out.flush();
+                assertEquals(ServerProtocol.WELCOME, new DataInputStream(good.getInputStream()).readByte());
+            }
+        }
+    }
+
+    /*
+     * Connects to the server, failing reads that wait longer than the timeout.
+     */
+    private static Socket connect(GameServer server) throws IOException {
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(TIMEOUT_MILLIS);
+        return socket;
+    }
+
+    /*
+     * Reads a byte, or returns -1 if the server closed or reset the connection.
+     * A server that keeps the connection open fails the read with a timeout.
+     */
+    private static int readOrReset(InputStream in) throws IOException {
+        try {
+            return in.read();
+        } catch (SocketException e) {
+            return -1;
+        }
+    }
+}
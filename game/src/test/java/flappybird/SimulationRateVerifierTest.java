@@ -0,0 +1,90 @@
+package flappybird;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/*
+ * Checks that a game stepped at a higher SimulationRate plays like the 50 Hz
+ * game, and that its results match a checksum taken when the rate was added.
+ *
+ * Each session is played at 50 Hz and at the given rate with the same seed and
+ * the same flaps. Flaps only happen every 100 ms (5 ticks), which is a whole
+ * number of steps at every rate tested, so both games flap at exactly the same
+ * moments and can be compared every 100 ms: the bird and the pipes must be on
+ * exactly the pixels they are on at 50 Hz. The finer game checks for collisions
+ * more often, so it can end a little earlier on a pipe corner that the 50 Hz game
+ * stepped past; comparing stops once either game is over.
+ * The first bird or pipe that is off fails the test.
+ *
+ * The checksum covers the final tick, score and bird position of every session
+ * at the rate. The physics only uses integer arithmetic, so the checksum is the
+ * same on every machine and JVM, and a change to it means a rate plays differently.
+ */
+class SimulationRateVerifierTest {
+
+    private static final int FLAP_INTERVAL = 5;  // Ticks at 50 Hz between the moments a bird may flap
+    private static final long MAX_TICKS = 10_000;  // Longest game compared, in 50 Hz ticks
+    private static final int SESSIONS = 500;  // Sessions played at each rate
+    private static final long SEED = 42;  // Seed of the first session, the others follow it
+
+    @ParameterizedTest
+    @CsvSource({"100, 2aabe801bdfc9f05", "120, d3a56d9476a1deb8", "240, 229f3d83c6f4f059", "500, 7af773c586b3b73c"})
+    void ratePlaysLikeBaseRate(int hz, String expectedChecksum) {
+        SimulationRate rate = SimulationRate.of(hz);
+        assertEquals(0, rate.hz * FLAP_INTERVAL % SimulationRate.BASE_HZ, rate + " has no step on every flap interval");
+        int steps = rate.hz * FLAP_INTERVAL / SimulationRate.BASE_HZ;  // Steps at the rate per flap interval
+
+        FlapPolicy follow = FlapPolicy.followGap();
+        GameEngine base = new GameEngine(0);
+        GameEngine fine = new GameEngine(0, rate);
+        long checksum = 17;
+        for (long seed = SEED; seed < SEED + SESSIONS; seed++) {
+            base.reset(seed);
+            fine.reset(seed);
+            while (!base.isGameOver() && !fine.isGameOver() && base.getTick() < MAX_TICKS) {
+                boolean flap = follow.shouldFlap(base);
+                for (int t = 0; t < FLAP_INTERVAL; t++) {
+                    base.step(flap && t == 0);
+                }
+                for (int s = 0; s < steps; s++) {
+                    fine.step(flap && s == 0);
+                }
+                if (base.isGameOver() || fine.isGameOver()) {
+                    break;
+                }
+                String difference = difference(base, fine);
+                assertNull(difference, "Session " + seed + ", tick " + base.getTick() + ": " + difference);
+            }
+            // Play the finer game to the end, so the checksum covers all of it
+            while (!fine.isGameOver() && rate.toBaseTicks(fine.getTick()) < MAX_TICKS) {
+                fine.step(follow.shouldFlap(fine));
+            }
+            checksum = 31 * (31 * (31 * checksum + fine.getTick()) + fine.getScore()) + fine.getBird().getY();
+        }
+        assertEquals(expectedChecksum, String.format("%016x", checksum), "checksum of the sessions at " + rate);
+    }
+
+    /*
+     * Returns a description of how the two games differ, or null if the bird and
+     * the pipes are in the same places.
+     */
+    private static String difference(GameEngine base, GameEngine fine) {
+        if (base.getBird().getY() != fine.getBird().getY()) {
+            return "bird at " + fine.getBird().getY() + " instead of " + base.getBird().getY();
+        }
+        PipeStore basePipes = base.getPipes();
+        PipeStore finePipes = fine.getPipes();
+        if (basePipes.size() != finePipes.size()) {
+            return "pipe count " + finePipes.size() + " instead of " + basePipes.size();
+        }
+        for (int i = 0; i < basePipes.size(); i++) {
+            if (basePipes.x(i) != finePipes.x(i) || basePipes.height(i) != finePipes.height(i)) {
+                return "pipe " + i + " at " + finePipes.x(i) + " instead of " + basePipes.x(i);
+            }
+        }
+        return null;
+    }
+}